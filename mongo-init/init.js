@@ -3,6 +3,8 @@
 
 db = db.getSiblingDB('expenses_demo');
 
+// Los montos se guardan como Decimal128 (app.money.storage=decimal128); ver MoneyStorage
+
 // Crear colección de usuarios
 db.createCollection('users');
 db.users.insertMany([
@@ -12,7 +14,7 @@ db.users.insertMany([
         email: 'juan.perez@email.com',
         fullName: 'Juan Pérez',
         createdAt: new Date(),
-        balance: 5000.00
+        balance: NumberDecimal('5000.00')
     },
     {
         _id: ObjectId(),
@@ -20,7 +22,7 @@ db.users.insertMany([
         email: 'maria.garcia@email.com',
         fullName: 'María García',
         createdAt: new Date(),
-        balance: 3500.00
+        balance: NumberDecimal('3500.00')
     },
     {
         _id: ObjectId(),
@@ -28,7 +30,7 @@ db.users.insertMany([
         email: 'carlos.lopez@email.com',
         fullName: 'Carlos López',
         createdAt: new Date(),
-        balance: 8000.00
+        balance: NumberDecimal('8000.00')
     }
 ]);
 
@@ -74,7 +76,7 @@ db.expenses.insertMany([
         _id: ObjectId(),
         userId: db.users.findOne({username: 'juan.perez'})._id,
         categoryId: db.categories.findOne({name: 'Alimentación'})._id,
-        amount: 45.50,
+        amount: NumberDecimal('45.50'),
         description: 'Supermercado para la semana',
         paymentMethod: 'CASH',
         date: new Date('2024-01-15'),
@@ -85,7 +87,7 @@ db.expenses.insertMany([
         _id: ObjectId(),
         userId: db.users.findOne({username: 'juan.perez'})._id,
         categoryId: db.categories.findOne({name: 'Transporte'})._id,
-        amount: 25.00,
+        amount: NumberDecimal('25.00'),
         description: 'Gasolina',
         paymentMethod: 'DEBIT_CARD',
         date: new Date('2024-01-16'),
@@ -96,7 +98,7 @@ db.expenses.insertMany([
         _id: ObjectId(),
         userId: db.users.findOne({username: 'maria.garcia'})._id,
         categoryId: db.categories.findOne({name: 'Entretenimiento'})._id,
-        amount: 120.00,
+        amount: NumberDecimal('120.00'),
         description: 'Cena en restaurante',
         paymentMethod: 'CREDIT_CARD',
         date: new Date('2024-01-17'),
@@ -108,9 +110,13 @@ db.expenses.insertMany([
 // Crear índices para mejorar el rendimiento
 db.users.createIndex({ "username": 1 }, { unique: true });
 db.users.createIndex({ "email": 1 }, { unique: true });
-db.expenses.createIndex({ "userId": 1, "date": -1 });
-db.expenses.createIndex({ "paymentMethod": 1 });
+db.expenses.createIndex({ "userId": 1, "date": -1, "_id": -1 });
+db.expenses.createIndex({ "date": -1, "_id": -1 });
+db.expenses.createIndex({ "paymentMethod": 1, "date": -1, "_id": -1 });
 db.expenses.createIndex({ "categoryId": 1 });
+db.notification_outbox.createIndex({ "status": 1, "nextAttemptAt": 1 });
+db.notification_outbox.createIndex({ "claimToken": 1 }, { sparse: true });
+db.expense_summaries.createIndex({ "userId": 1, "month": 1 });
 
 print('Base de datos inicializada correctamente con datos de ejemplo');
 print('Usuarios: ' + db.users.countDocuments());
@@ -0,0 +1,219 @@
+package pe.joedayz.demo_webflux_mongodb.benchmark;
+
+import com.github.luben.zstd.Zstd;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.xerial.snappy.Snappy;
+import pe.joedayz.demo_webflux_mongodb.config.MongoConfig;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+import pe.joedayz.demo_webflux_mongodb.mongo.ExpenseCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Lote de gastos decodificado con MappingMongoConverter (Document intermedio + reflexión) frente a ExpenseCodec,
+ * y tamaño y coste de descompresión del mismo lote con cada compresor del driver (zlib, snappy, zstd).
+ * No necesita MongoDB: los documentos se escriben con el converter, igual que los guarda la aplicación.
+ * Comparar gc.alloc.rate.norm (perfilador gc) entre los decode*; los bytes por lote salen como resultados secundarios de decompress.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=CodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CodecBenchmark {
+    
+    @Param({"decimal128", "cents"})
+    private String storage;
+    
+    @Param({"500"})
+    private int batchSize;
+    
+    private MappingMongoConverter converter;
+    private ExpenseCodec expenseCodec;
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    
+    private RawBsonDocument[] batch;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        MoneyStorage moneyStorage = MoneyStorage.valueOf(storage.toUpperCase(Locale.ROOT));
+        converter = converter(moneyStorage);
+        expenseCodec = new ExpenseCodec(moneyStorage);
+        
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Expense.PaymentMethod[] paymentMethods = Expense.PaymentMethod.values();
+        batch = new RawBsonDocument[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            Expense expense = new Expense("6650f1a2b3c4d5e6f7a8b9c0", "category-" + (i % 12),
+                    BigDecimal.valueOf(1000 + i, 2), "Gasto de benchmark " + i,
+                    paymentMethods[i % paymentMethods.length], LocalDate.now().minusDays(i % 90));
+            expense.setId(String.format("6650f1a2b3c4d5e6%08x", i));
+            expense.setCreatedAt(createdAt);
+            
+            Document written = new Document();
+            converter.write(expense, written);
+            batch[i] = new RawBsonDocument(written, documentCodec);
+        }
+    }
+    
+    @Benchmark
+    public void decodeWithConverter(Blackhole blackhole) {
+        for (RawBsonDocument document : batch) {
+            Document decoded = documentCodec.decode(reader(document), DecoderContext.builder().build());
+            blackhole.consume(converter.read(Expense.class, decoded));
+        }
+    }
+    
+    @Benchmark
+    public void decodeWithCodec(Blackhole blackhole) {
+        for (RawBsonDocument document : batch) {
+            blackhole.consume(expenseCodec.decode(reader(document), DecoderContext.builder().build()));
+        }
+    }
+    
+    /**
+     * El lote concatenado tal como viaja en un OP_MSG, comprimido con el compresor del parámetro
+     */
+    @State(Scope.Benchmark)
+    public static class Wire {
+        
+        @Param({"none", "zlib", "snappy", "zstd"})
+        private String compressor;
+        
+        private int rawLength;
+        private byte[] compressed;
+        
+        @Setup(Level.Trial)
+        public void setUp(CodecBenchmark benchmark) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            for (RawBsonDocument document : benchmark.batch) {
+                bytes.write(document.getByteBuffer().array(), 0, document.getByteBuffer().limit());
+            }
+            byte[] raw = bytes.toByteArray();
+            rawLength = raw.length;
+            compressed = switch (compressor) {
+                case "zlib" -> deflate(raw);
+                case "snappy" -> Snappy.compress(raw);
+                case "zstd" -> Zstd.compress(raw);
+                default -> raw;
+            };
+        }
+    }
+    
+    /**
+     * Tamaño del lote en el cable, reportado por JMH junto al tiempo de decompress (decompress:compressedBytes, ...).
+     * JMH pone a cero los campos de @AuxCounters en cada iteración y suma los EVENTS entre iteraciones, forks e hilos:
+     * por eso son métodos y cada uno devuelve su parte, de modo que el total reportado es el tamaño del lote
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        
+        private Wire wire;
+        private double share;
+        
+        @Setup(Level.Trial)
+        public void setUp(Wire wire, BenchmarkParams params) {
+            this.wire = wire;
+            this.share = 1.0 / (params.getMeasurement().getCount() * Math.max(1, params.getForks()) * params.getThreads());
+        }
+        
+        public double rawBytes() {
+            return wire.rawLength * share;
+        }
+        
+        public double compressedBytes() {
+            return wire.compressed.length * share;
+        }
+        
+        public double compressedPercent() {
+            return 100.0 * wire.compressed.length / wire.rawLength * share;
+        }
+    }
+    
+    // Coste de descomprimir el lote en el cliente; con none no hay trabajo
+    @Benchmark
+    public byte[] decompress(Wire wire, WireSize size) throws IOException, DataFormatException {
+        return switch (wire.compressor) {
+            case "zlib" -> inflate(wire.compressed, wire.rawLength);
+            case "snappy" -> Snappy.uncompress(wire.compressed);
+            case "zstd" -> Zstd.decompress(wire.compressed, wire.rawLength);
+            default -> wire.compressed;
+        };
+    }
+    
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+    
+    private static byte[] inflate(byte[] compressed, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        byte[] out = new byte[rawLength];
+        inflater.inflate(out);
+        inflater.end();
+        return out;
+    }
+    
+    private static BsonBinaryReader reader(RawBsonDocument document) {
+        return new BsonBinaryReader(document.getByteBuffer().asNIO());
+    }
+    
+    private static MappingMongoConverter converter(MoneyStorage storage) {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(storage);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
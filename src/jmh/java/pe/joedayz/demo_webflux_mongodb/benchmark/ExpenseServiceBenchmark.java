@@ -0,0 +1,183 @@
+package pe.joedayz.demo_webflux_mongodb.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import pe.joedayz.demo_webflux_mongodb.DemoWebfluxMongodbApplication;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseEnricher;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseEnricher;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de los caminos de servicio reactivo y tradicional contra un MongoDB local
+ * levantado con Testcontainers, fuera del servidor que se está midiendo.
+ *
+ * Ejecutar con: ./gradlew jmh (resultados JSON en build/reports/jmh)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpenseServiceBenchmark {
+    
+    @Param({"100"})
+    private int expenseCount;
+    
+    private MongoDBContainer mongo;
+    private ConfigurableApplicationContext context;
+    
+    private ReactiveExpenseService reactiveExpenseService;
+    private TraditionalExpenseService traditionalExpenseService;
+    private ReactiveExpenseEnricher reactiveExpenseEnricher;
+    private TraditionalExpenseEnricher traditionalExpenseEnricher;
+    private ReactiveBulkExpenseService reactiveBulkExpenseService;
+    private TraditionalBulkExpenseService traditionalBulkExpenseService;
+    
+    private String userId;
+    private String categoryId;
+    private List<Expense> expenses;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        
+        context = new SpringApplicationBuilder(DemoWebfluxMongodbApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("expenses_demo"),
+                        "logging.level.pe.joedayz.demo_webflux_mongodb=WARN")
+                .run();
+        
+        reactiveExpenseService = context.getBean(ReactiveExpenseService.class);
+        traditionalExpenseService = context.getBean(TraditionalExpenseService.class);
+        reactiveExpenseEnricher = context.getBean(ReactiveExpenseEnricher.class);
+        traditionalExpenseEnricher = context.getBean(TraditionalExpenseEnricher.class);
+        reactiveBulkExpenseService = context.getBean(ReactiveBulkExpenseService.class);
+        traditionalBulkExpenseService = context.getBean(TraditionalBulkExpenseService.class);
+        
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongo.stop();
+    }
+    
+    @Benchmark
+    public void reactiveCreateExpense(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.createExpense(createRequest()).block());
+    }
+    
+    @Benchmark
+    public void traditionalCreateExpense(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.createExpense(createRequest()));
+    }
+    
+    // Una operación = expenseCount gastos; comparar contra expenseCount x createExpense
+    @Benchmark
+    public void reactiveBulkCreateExpenses(Blackhole blackhole) {
+        blackhole.consume(reactiveBulkExpenseService.createExpenses(Flux.fromIterable(bulkRequests())).block());
+    }
+    
+    @Benchmark
+    public void traditionalBulkCreateExpenses(Blackhole blackhole) {
+        blackhole.consume(traditionalBulkExpenseService.createExpenses(bulkRequests()));
+    }
+    
+    @Benchmark
+    public void reactiveGetAllExpenses(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.getAllExpenses().collectList().block());
+    }
+    
+    @Benchmark
+    public void traditionalGetAllExpenses(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.getAllExpenses());
+    }
+    
+    @Benchmark
+    public void reactiveGetExpensesByUser(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.getExpensesByUser(userId).collectList().block());
+    }
+    
+    @Benchmark
+    public void traditionalGetExpensesByUser(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.getExpensesByUser(userId));
+    }
+    
+    @Benchmark
+    public void reactiveEnrichExpenseResponse(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseEnricher.enrichAll(Flux.fromIterable(expenses)).collectList().block());
+    }
+    
+    @Benchmark
+    public void traditionalEnrichExpenseResponse(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseEnricher.enrichAll(expenses));
+    }
+    
+    private void seed() {
+        TraditionalUserRepository userRepository = context.getBean(TraditionalUserRepository.class);
+        TraditionalCategoryRepository categoryRepository = context.getBean(TraditionalCategoryRepository.class);
+        TraditionalExpenseRepository expenseRepository = context.getBean(TraditionalExpenseRepository.class);
+        
+        User user = userRepository.save(new User("bench.user", "bench.user@email.com", "Usuario Benchmark",
+                BigDecimal.valueOf(1_000_000)));
+        Category category = categoryRepository.save(new Category("Benchmark", "Categoría de benchmark", "#000000"));
+        userId = user.getId();
+        categoryId = category.getId();
+        
+        List<Expense> seed = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            seed.add(new Expense(userId, categoryId, BigDecimal.valueOf(10 + i % 90),
+                    "Gasto de benchmark " + i, Expense.PaymentMethod.values()[i % 3], LocalDate.now().minusDays(i % 30)));
+        }
+        expenses = expenseRepository.saveAll(seed);
+    }
+    
+    private List<CreateExpenseRequest> bulkRequests() {
+        List<CreateExpenseRequest> requests = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            requests.add(createRequest());
+        }
+        return requests;
+    }
+    
+    private CreateExpenseRequest createRequest() {
+        return new CreateExpenseRequest(userId, categoryId, BigDecimal.ONE,
+                "Gasto de benchmark", Expense.PaymentMethod.CASH, LocalDate.now());
+    }
+}
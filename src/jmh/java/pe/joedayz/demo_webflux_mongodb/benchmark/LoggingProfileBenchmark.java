@@ -0,0 +1,137 @@
+package pe.joedayz.demo_webflux_mongodb.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import pe.joedayz.demo_webflux_mongodb.DemoWebfluxMongodbApplication;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del logging: perfil demo (DEBUG síncrono en consola, log por elemento) frente a
+ * prod (INFO, JSON asíncrono, log por elemento desactivado). Se usa la configuración de logging
+ * de cada perfil tal cual, sin bajar niveles como hacen los otros benchmarks.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=LoggingProfileBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoggingProfileBenchmark {
+    
+    @Param({"demo", "prod"})
+    private String profile;
+    
+    @Param({"100"})
+    private int expenseCount;
+    
+    private MongoDBContainer mongo;
+    private ConfigurableApplicationContext context;
+    
+    private ReactiveExpenseService reactiveExpenseService;
+    private TraditionalExpenseService traditionalExpenseService;
+    
+    private String userId;
+    private String categoryId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DemoWebfluxMongodbApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("expenses_demo"),
+                        "app.outbox.enabled=false");
+        if ("prod".equals(profile)) {
+            builder.profiles("prod");
+        }
+        context = builder.run();
+        
+        reactiveExpenseService = context.getBean(ReactiveExpenseService.class);
+        traditionalExpenseService = context.getBean(TraditionalExpenseService.class);
+        
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongo.stop();
+    }
+    
+    @Benchmark
+    public void reactiveGetAllExpenses(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.getAllExpenses().collectList().block());
+    }
+    
+    @Benchmark
+    public void traditionalGetAllExpenses(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.getAllExpenses());
+    }
+    
+    @Benchmark
+    public void reactiveCreateExpense(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.createExpense(createRequest()).block());
+    }
+    
+    @Benchmark
+    public void traditionalCreateExpense(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.createExpense(createRequest()));
+    }
+    
+    private void seed() {
+        TraditionalUserRepository userRepository = context.getBean(TraditionalUserRepository.class);
+        TraditionalCategoryRepository categoryRepository = context.getBean(TraditionalCategoryRepository.class);
+        TraditionalExpenseRepository expenseRepository = context.getBean(TraditionalExpenseRepository.class);
+        
+        User user = userRepository.save(new User("logging.user", "logging.user@email.com", "Usuario Benchmark",
+                BigDecimal.valueOf(1_000_000)));
+        Category category = categoryRepository.save(new Category("Logging", "Categoría de benchmark", "#000000"));
+        userId = user.getId();
+        categoryId = category.getId();
+        
+        List<Expense> seed = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            seed.add(new Expense(userId, categoryId, BigDecimal.valueOf(10 + i % 90),
+                    "Gasto de benchmark " + i, Expense.PaymentMethod.values()[i % 3], LocalDate.now().minusDays(i % 30)));
+        }
+        expenseRepository.saveAll(seed);
+    }
+    
+    private CreateExpenseRequest createRequest() {
+        return new CreateExpenseRequest(userId, categoryId, BigDecimal.ONE,
+                "Gasto de benchmark", Expense.PaymentMethod.CASH, LocalDate.now());
+    }
+}
@@ -0,0 +1,113 @@
+package pe.joedayz.demo_webflux_mongodb.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import pe.joedayz.demo_webflux_mongodb.DemoWebfluxMongodbApplication;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getTotalExpensesByUser con montos en Decimal128 frente a céntimos (long).
+ * Comparar gc.alloc.rate.norm (perfilador gc) entre los dos valores de storage.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=MoneyStorageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MoneyStorageBenchmark {
+    
+    @Param({"decimal128", "cents"})
+    private String storage;
+    
+    @Param({"1000"})
+    private int expenseCount;
+    
+    private MongoDBContainer mongo;
+    private ConfigurableApplicationContext context;
+    
+    private ReactiveExpenseService reactiveExpenseService;
+    private TraditionalExpenseService traditionalExpenseService;
+    
+    private String userId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        
+        context = new SpringApplicationBuilder(DemoWebfluxMongodbApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("expenses_demo"),
+                        "app.money.storage=" + storage,
+                        "app.outbox.enabled=false",
+                        "logging.level.pe.joedayz.demo_webflux_mongodb=WARN")
+                .run();
+        
+        reactiveExpenseService = context.getBean(ReactiveExpenseService.class);
+        traditionalExpenseService = context.getBean(TraditionalExpenseService.class);
+        
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongo.stop();
+    }
+    
+    @Benchmark
+    public void reactiveGetTotalExpensesByUser(Blackhole blackhole) {
+        blackhole.consume(reactiveExpenseService.getTotalExpensesByUser(userId).block());
+    }
+    
+    @Benchmark
+    public void traditionalGetTotalExpensesByUser(Blackhole blackhole) {
+        blackhole.consume(traditionalExpenseService.getTotalExpensesByUser(userId));
+    }
+    
+    private void seed() {
+        TraditionalUserRepository userRepository = context.getBean(TraditionalUserRepository.class);
+        TraditionalExpenseRepository expenseRepository = context.getBean(TraditionalExpenseRepository.class);
+        
+        User user = userRepository.save(new User("money.user", "money.user@email.com", "Usuario Benchmark",
+                BigDecimal.valueOf(1_000_000)));
+        userId = user.getId();
+        
+        List<Expense> seed = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            seed.add(new Expense(userId, "money-category", BigDecimal.valueOf(1000 + i, 2),
+                    "Gasto de benchmark " + i, Expense.PaymentMethod.CASH, LocalDate.now()));
+        }
+        expenseRepository.saveAll(seed);
+    }
+}
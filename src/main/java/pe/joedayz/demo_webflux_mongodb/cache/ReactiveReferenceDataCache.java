@@ -0,0 +1,106 @@
+package pe.joedayz.demo_webflux_mongodb.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de datos de referencia para el stack reactivo.
+ * Las entradas faltantes se cargan de forma asíncrona con una sola consulta $in por lote.
+ */
+@Component
+public class ReactiveReferenceDataCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveReferenceDataCache.class);
+    
+    private final AsyncLoadingCache<String, String> userNames;
+    private final AsyncLoadingCache<String, String> categoryNames;
+    
+    public ReactiveReferenceDataCache(ReactiveUserRepository userRepository,
+                                    ReactiveCategoryRepository categoryRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cache.reference.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.cache.reference.ttl:10m}") Duration ttl) {
+        this.userNames = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .buildAsync(loader(userRepository::findNamesByIdIn,
+                                UserNameView::getId, user -> displayName(user.getFullName()))),
+                "reference.users", "stack", "reactive");
+        this.categoryNames = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .buildAsync(loader(categoryRepository::findNamesByIdIn,
+                                CategoryNameView::getId, category -> displayName(category.getName()))),
+                "reference.categories", "stack", "reactive");
+    }
+    
+    public Mono<Map<String, String>> getUserNames(Set<String> userIds) {
+        return Mono.fromFuture(() -> userNames.getAll(userIds));
+    }
+    
+    public Mono<Map<String, String>> getCategoryNames(Set<String> categoryIds) {
+        return Mono.fromFuture(() -> categoryNames.getAll(categoryIds));
+    }
+    
+    public void invalidateUser(String userId) {
+        logger.debug("Invalidando usuario en caché reactiva: {}", userId);
+        userNames.synchronous().invalidate(userId);
+    }
+    
+    public void invalidateCategory(String categoryId) {
+        logger.debug("Invalidando categoría en caché reactiva: {}", categoryId);
+        categoryNames.synchronous().invalidate(categoryId);
+    }
+    
+    private static String displayName(String name) {
+        // Caffeine no admite valores nulos
+        return name != null ? name : "";
+    }
+    
+    private static <E, V> AsyncCacheLoader<String, V> loader(Function<Set<String>, Flux<E>> finder,
+                                                             Function<E, String> idExtractor,
+                                                             Function<E, V> valueExtractor) {
+        return new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<? extends V> asyncLoad(String key, Executor executor) {
+                return finder.apply(Set.of(key))
+                        .next()
+                        .map(valueExtractor)
+                        .toFuture();
+            }
+            
+            @Override
+            public CompletableFuture<? extends Map<? extends String, ? extends V>> asyncLoadAll(
+                    Set<? extends String> keys, Executor executor) {
+                logger.debug("Cargando {} entradas de referencia desde MongoDB", keys.size());
+                return finder.apply(Set.copyOf(keys))
+                        .collectMap(idExtractor, valueExtractor)
+                        .toFuture();
+            }
+        };
+    }
+}
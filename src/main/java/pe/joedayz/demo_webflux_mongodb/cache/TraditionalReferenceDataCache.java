@@ -0,0 +1,100 @@
+package pe.joedayz.demo_webflux_mongodb.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de datos de referencia para el stack tradicional.
+ * Carga síncrona: las entradas faltantes se leen con una sola consulta $in proyectada por lote.
+ */
+@Component
+public class TraditionalReferenceDataCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraditionalReferenceDataCache.class);
+    
+    private final LoadingCache<String, String> userNames;
+    private final LoadingCache<String, String> categoryNames;
+    
+    public TraditionalReferenceDataCache(TraditionalUserRepository userRepository,
+                                       TraditionalCategoryRepository categoryRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.cache.reference.maximum-size:10000}") long maximumSize,
+                                       @Value("${app.cache.reference.ttl:10m}") Duration ttl) {
+        this.userNames = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build(loader(userRepository::findNamesByIdIn,
+                                UserNameView::getId, user -> displayName(user.getFullName()))),
+                "reference.users", "stack", "traditional");
+        this.categoryNames = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build(loader(categoryRepository::findNamesByIdIn,
+                                CategoryNameView::getId, category -> displayName(category.getName()))),
+                "reference.categories", "stack", "traditional");
+    }
+    
+    public Map<String, String> getUserNames(Set<String> userIds) {
+        return userNames.getAll(userIds);
+    }
+    
+    public Map<String, String> getCategoryNames(Set<String> categoryIds) {
+        return categoryNames.getAll(categoryIds);
+    }
+    
+    public void invalidateUser(String userId) {
+        logger.debug("Invalidando usuario en caché tradicional: {}", userId);
+        userNames.invalidate(userId);
+    }
+    
+    public void invalidateCategory(String categoryId) {
+        logger.debug("Invalidando categoría en caché tradicional: {}", categoryId);
+        categoryNames.invalidate(categoryId);
+    }
+    
+    private static String displayName(String name) {
+        // Caffeine no admite valores nulos
+        return name != null ? name : "";
+    }
+    
+    private static <E, V> CacheLoader<String, V> loader(Function<Set<String>, Iterable<E>> finder,
+                                                        Function<E, String> idExtractor,
+                                                        Function<E, V> valueExtractor) {
+        return new CacheLoader<>() {
+            @Override
+            public V load(String key) {
+                return loadAll(Set.of(key)).get(key);
+            }
+            
+            @Override
+            public Map<String, V> loadAll(Set<? extends String> keys) {
+                logger.debug("Cargando {} entradas de referencia desde MongoDB", keys.size());
+                Map<String, V> values = new HashMap<>();
+                finder.apply(Set.copyOf(keys))
+                        .forEach(entity -> values.put(idExtractor.apply(entity), valueExtractor.apply(entity)));
+                return values;
+            }
+        };
+    }
+}
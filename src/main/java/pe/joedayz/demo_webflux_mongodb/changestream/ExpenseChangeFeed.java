@@ -0,0 +1,307 @@
+package pe.joedayz.demo_webflux_mongodb.changestream;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.cache.ReactiveReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.cache.TraditionalReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.model.ChangeStreamToken;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseEnricher;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Change streams de MongoDB sobre expenses, users y categories, uno por colección y por JVM.
+ * Los gastos nuevos o modificados se reparten a los clientes de /api/v1/reactive/expenses/live, y los
+ * cambios de usuarios y categorías (incluidos los hechos por otras instancias) invalidan las cachés locales.
+ * Requiere un replica set: con MongoDB standalone se deja deshabilitado (app.change-streams.enabled).
+ */
+@Component
+public class ExpenseChangeFeed implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseChangeFeed.class);
+    
+    // ChangeStreamHistoryLost: el resume token ya salió del oplog y hay que empezar desde el presente
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    
+    public enum OverflowPolicy {
+        // Con el buffer del suscriptor lleno se descartan los eventos nuevos
+        DROP,
+        // Con el buffer del suscriptor lleno se descarta el más antiguo y se conservan los más recientes
+        LATEST
+    }
+    
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveExpenseEnricher expenseEnricher;
+    private final ReactiveReferenceDataCache reactiveCache;
+    private final TraditionalReferenceDataCache traditionalCache;
+    private final boolean enabled;
+    private final String instanceId;
+    private final int subscriberBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration tokenSaveInterval;
+    private final Duration retryBackoff;
+    
+    // Un solo stream compartido: los suscriptores sin demanda no frenan a los demás
+    private final Sinks.Many<ExpenseResponse> expenses = Sinks.many().multicast().directBestEffort();
+    private final Map<String, BsonValue> lastTokens = new ConcurrentHashMap<>();
+    private final Map<String, BsonValue> savedTokens = new ConcurrentHashMap<>();
+    private final Set<String> lostHistory = ConcurrentHashMap.newKeySet();
+    private final MeterRegistry meterRegistry;
+    private final Counter dropped;
+    
+    private volatile Disposable subscription;
+    
+    public ExpenseChangeFeed(ReactiveMongoTemplate mongoTemplate,
+                             ReactiveExpenseEnricher expenseEnricher,
+                             ReactiveReferenceDataCache reactiveCache,
+                             TraditionalReferenceDataCache traditionalCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.change-streams.enabled:false}") boolean enabled,
+                             @Value("${app.change-streams.instance-id:}") String instanceId,
+                             @Value("${app.change-streams.subscriber-buffer:256}") int subscriberBuffer,
+                             @Value("${app.change-streams.overflow:latest}") OverflowPolicy overflowPolicy,
+                             @Value("${app.change-streams.token-save-interval:1s}") Duration tokenSaveInterval,
+                             @Value("${app.change-streams.retry-backoff:1s}") Duration retryBackoff) {
+        this.mongoTemplate = mongoTemplate;
+        this.expenseEnricher = expenseEnricher;
+        this.reactiveCache = reactiveCache;
+        this.traditionalCache = traditionalCache;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? System.getenv().getOrDefault("HOSTNAME", "local") : instanceId;
+        this.subscriberBuffer = subscriberBuffer;
+        this.overflowPolicy = overflowPolicy;
+        this.tokenSaveInterval = tokenSaveInterval;
+        this.retryBackoff = retryBackoff;
+        
+        this.dropped = Counter.builder("expense.live.dropped")
+                .description("Eventos descartados por suscriptores lentos con el buffer lleno")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        Gauge.builder("expense.live.subscribers", expenses, Sinks.Many::currentSubscriberCount)
+                .description("Clientes conectados al feed de gastos en vivo")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Change streams deshabilitados (requieren un replica set)");
+            return;
+        }
+        
+        logger.info("Iniciando change streams de expenses, users y categories (instancia {})", instanceId);
+        subscription = Mono.when(
+                        watch("expenses", Expense.class, true, this::publishExpense),
+                        watch("users", Document.class, false,
+                                event -> invalidate(event, "fullName", reactiveCache::invalidateUser, traditionalCache::invalidateUser)),
+                        watch("categories", Document.class, false,
+                                event -> invalidate(event, "name", reactiveCache::invalidateCategory, traditionalCache::invalidateCategory)),
+                        Flux.interval(tokenSaveInterval)
+                                .onBackpressureDrop()
+                                .concatMap(tick -> saveTokens(), 1))
+                .subscribe();
+    }
+    
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+            // Último punto procesado, para reanudar sin huecos en el próximo arranque
+            saveTokens().block(Duration.ofSeconds(5));
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Gastos en vivo para un cliente. Todos comparten la misma suscripción al change stream y cada uno
+     * tiene un buffer propio de subscriberBuffer eventos; al llenarse se aplica la política de desborde.
+     */
+    public Flux<ExpenseResponse> live() {
+        BufferOverflowStrategy strategy = overflowPolicy == OverflowPolicy.LATEST
+                ? BufferOverflowStrategy.DROP_OLDEST
+                : BufferOverflowStrategy.DROP_LATEST;
+        return expenses.asFlux()
+                .onBackpressureBuffer(subscriberBuffer, event -> dropped.increment(), strategy);
+    }
+    
+    void publish(ExpenseResponse expense) {
+        // Sin clientes conectados el evento simplemente no se entrega
+        expenses.tryEmitNext(expense);
+    }
+    
+    /**
+     * Abre el change stream de la colección reanudando desde el último token conocido y lo reabre con
+     * backoff si falla; el token se registra solo después de procesar cada evento
+     */
+    private <T> Flux<ChangeStreamEvent<T>> watch(String collection, Class<T> type, boolean fullDocument,
+                                                 Function<ChangeStreamEvent<T>, Mono<Void>> handler) {
+        Counter events = Counter.builder("change.stream.events")
+                .tag("collection", collection)
+                .register(meterRegistry);
+        
+        return Flux.defer(() -> resumeToken(collection)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMapMany(token -> {
+                            ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder();
+                            if (fullDocument) {
+                                options.returnFullDocumentOnUpdate();
+                            }
+                            token.ifPresent(options::resumeAfter);
+                            logger.debug("Abriendo change stream de {} (reanudando: {})", collection, token.isPresent());
+                            return mongoTemplate.changeStream(collection, options.build(), type);
+                        }))
+                .concatMap(event -> handler.apply(event)
+                        .onErrorResume(error -> {
+                            logger.warn("Error al procesar cambio de {}: {}", collection, error.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(event))
+                .doOnNext(event -> {
+                    events.increment();
+                    if (event.getResumeToken() != null) {
+                        lastTokens.put(collection, event.getResumeToken());
+                    }
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, retryBackoff)
+                        .maxBackoff(retryBackoff.multipliedBy(30))
+                        .doBeforeRetry(signal -> {
+                            logger.warn("Change stream de {} interrumpido, reintentando: {}", collection, signal.failure().getMessage());
+                            if (isHistoryLost(signal.failure())) {
+                                lostHistory.add(collection);
+                            }
+                        }));
+    }
+    
+    private Mono<Void> publishExpense(ChangeStreamEvent<Expense> event) {
+        OperationType operation = event.getOperationType();
+        Expense expense = event.getBody();
+        if (expense == null
+                || (operation != OperationType.INSERT && operation != OperationType.UPDATE && operation != OperationType.REPLACE)) {
+            return Mono.empty();
+        }
+        
+        // Se enriquece una sola vez por evento, no una vez por cliente
+        return expenseEnricher.enrich(expense)
+                .doOnNext(this::publish)
+                .then();
+    }
+    
+    private Mono<Void> invalidate(ChangeStreamEvent<Document> event, String nameField,
+                                  Consumer<String> reactive, Consumer<String> traditional) {
+        BsonDocument documentKey = event.getRaw() != null ? event.getRaw().getDocumentKey() : null;
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return Mono.empty();
+        }
+        
+        // La caché solo guarda nombres: un update que no toca el nombre (p. ej. el $inc del saldo) no la invalida
+        UpdateDescription update = event.getRaw().getUpdateDescription();
+        if (event.getOperationType() == OperationType.UPDATE && update != null && !touches(update, nameField)) {
+            return Mono.empty();
+        }
+        
+        String id = idOf(documentKey.get("_id"));
+        return Mono.fromRunnable(() -> {
+            reactive.accept(id);
+            traditional.accept(id);
+        });
+    }
+    
+    private Mono<BsonValue> resumeToken(String collection) {
+        if (lostHistory.remove(collection)) {
+            logger.warn("El resume token de {} ya no está en el oplog; se reanuda desde el presente", collection);
+            lastTokens.remove(collection);
+            savedTokens.remove(collection);
+            return mongoTemplate.remove(Query.query(Criteria.where("id").is(tokenId(collection))), ChangeStreamToken.class)
+                    .then(Mono.empty());
+        }
+        
+        BsonValue last = lastTokens.get(collection);
+        if (last != null) {
+            return Mono.just(last);
+        }
+        return mongoTemplate.findById(tokenId(collection), ChangeStreamToken.class)
+                .map(saved -> new BsonDocument("_data", new BsonString(saved.getToken())));
+    }
+    
+    private Mono<Void> saveTokens() {
+        return Flux.fromIterable(lastTokens.entrySet())
+                .filter(entry -> !entry.getValue().equals(savedTokens.get(entry.getKey())))
+                .concatMap(entry -> mongoTemplate.save(new ChangeStreamToken(tokenId(entry.getKey()),
+                                entry.getValue().asDocument().getString("_data").getValue()))
+                        .doOnNext(saved -> savedTokens.put(entry.getKey(), entry.getValue())))
+                .onErrorResume(error -> {
+                    logger.warn("Error al guardar resume tokens: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+    
+    private String tokenId(String collection) {
+        return instanceId + ":" + collection;
+    }
+    
+    private static String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+    
+    private static boolean touches(UpdateDescription update, String field) {
+        return (update.getUpdatedFields() != null && update.getUpdatedFields().containsKey(field))
+                || (update.getRemovedFields() != null && update.getRemovedFields().contains(field));
+    }
+    
+    private static boolean isHistoryLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
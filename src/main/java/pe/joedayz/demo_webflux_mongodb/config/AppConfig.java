@@ -1,7 +1,11 @@
 package pe.joedayz.demo_webflux_mongodb.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.config.EnableWebFlux;
+import pe.joedayz.demo_webflux_mongodb.scheduler.SchedulerProperties;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProperties;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
 
 /**
  * Configuración principal de la aplicación
@@ -9,6 +13,7 @@ import org.springframework.web.reactive.config.EnableWebFlux;
  */
 @Configuration
 @EnableWebFlux
+@EnableConfigurationProperties({SimulationProperties.class, SchedulerProperties.class, SingleFlightProperties.class})
 public class AppConfig {
     
     // La configuración por defecto de Spring Boot maneja la coexistencia
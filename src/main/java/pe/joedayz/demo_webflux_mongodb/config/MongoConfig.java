@@ -1,8 +1,39 @@
 package pe.joedayz.demo_webflux_mongodb.config;
 
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.TransportSettings;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoClientFactory;
+import org.springframework.boot.autoconfigure.mongo.StandardMongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyValueConverter;
+import pe.joedayz.demo_webflux_mongodb.mongo.EntityCodecs;
+import pe.joedayz.demo_webflux_mongodb.mongo.MongoClientsProperties;
+import pe.joedayz.demo_webflux_mongodb.mongo.MongoInstrumentation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuración de MongoDB para la aplicación
@@ -10,6 +41,7 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
  */
 @Configuration
 @EnableMongoAuditing
+@EnableConfigurationProperties(MongoClientsProperties.class)
 @EnableMongoRepositories(
     basePackages = "pe.joedayz.demo_webflux_mongodb.repository",
     includeFilters = @org.springframework.context.annotation.ComponentScan.Filter(
@@ -18,6 +50,111 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
 )
 public class MongoConfig {
     
-    // La configuración por defecto de Spring Boot es suficiente
-    // para manejar tanto MongoDB reactivo como tradicional
+    /**
+     * Pool del cliente bloqueante: una conexión por cada hilo del stack tradicional que consulta a la vez
+     */
+    @Bean
+    public MongoClientSettings syncMongoClientSettings(MongoClientsProperties clients, MoneyStorage moneyStorage) {
+        return settings(clients.getSync(), moneyStorage).build();
+    }
+    
+    /**
+     * Pool del cliente reactivo: pocas conexiones multiplexadas, con transporte Netty
+     */
+    @Bean
+    public MongoClientSettings reactiveMongoClientSettings(MongoClientsProperties clients, MoneyStorage moneyStorage,
+                                                           EventLoopGroup mongoEventLoopGroup) {
+        return settings(clients.getReactive(), moneyStorage)
+                .transportSettings(TransportSettings.nettyBuilder().eventLoopGroup(mongoEventLoopGroup).build())
+                .build();
+    }
+    
+    @Bean(destroyMethod = "shutdownGracefully")
+    public EventLoopGroup mongoEventLoopGroup() {
+        return new NioEventLoopGroup();
+    }
+    
+    /**
+     * Host, credenciales, SSL y opciones de spring.data.mongodb.* (o de la URI). La autoconfiguración solo lo
+     * registra si no hay MongoClientSettings propios; las opciones escritas en la URI prevalecen sobre app.mongo.clients.*
+     */
+    @Bean
+    public StandardMongoClientSettingsBuilderCustomizer mongoConnectionCustomizer(MongoProperties properties,
+                                                                                  MongoConnectionDetails connectionDetails,
+                                                                                  ObjectProvider<SslBundles> sslBundles) {
+        return new StandardMongoClientSettingsBuilderCustomizer(connectionDetails.getConnectionString(),
+                properties.getUuidRepresentation(), properties.getSsl(), sslBundles.getIfAvailable());
+    }
+    
+    /**
+     * Cliente bloqueante (repositorios y MongoTemplate del stack tradicional), instrumentado con client=sync
+     */
+    @Bean
+    public MongoClient mongoClient(@Qualifier("syncMongoClientSettings") MongoClientSettings settings,
+                                   StandardMongoClientSettingsBuilderCustomizer mongoConnectionCustomizer,
+                                   MongoInstrumentation instrumentation) {
+        return new MongoClientFactory(List.of(mongoConnectionCustomizer, instrumentation.customizer(MongoInstrumentation.SYNC)))
+                .createMongoClient(settings);
+    }
+    
+    /**
+     * Cliente reactivo (repositorios y ReactiveMongoTemplate del stack reactivo), instrumentado con client=reactive
+     */
+    @Bean
+    public com.mongodb.reactivestreams.client.MongoClient reactiveMongoClient(@Qualifier("reactiveMongoClientSettings") MongoClientSettings settings,
+                                                                              StandardMongoClientSettingsBuilderCustomizer mongoConnectionCustomizer,
+                                                                              MongoInstrumentation instrumentation) {
+        return new ReactiveMongoClientFactory(List.of(mongoConnectionCustomizer, instrumentation.customizer(MongoInstrumentation.REACTIVE)))
+                .createMongoClient(settings);
+    }
+    
+    /**
+     * Representación de los montos: decimal128 (por defecto) o cents
+     */
+    @Bean
+    public MoneyStorage moneyStorage(@Value("${app.money.storage:decimal128}") MoneyStorage storage) {
+        return storage;
+    }
+    
+    /**
+     * Conversores de los campos de dinero; los comparten los templates reactivo y tradicional
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(MoneyStorage moneyStorage) {
+        MoneyValueConverter money = new MoneyValueConverter(moneyStorage);
+        return MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(registrar -> registrar
+                .registerConverter(Expense.class, "amount", money)
+                .registerConverter(User.class, "balance", money)
+                .registerConverter(NotificationOutbox.class, "amount", money)
+                .registerConverter(ExpenseSummary.class, "total", money)));
+    }
+    
+    /**
+     * Pool, sockets y compresión del cliente; los codecs de las entidades se registran delante de los del driver
+     */
+    private static MongoClientSettings.Builder settings(MongoClientsProperties.Client client, MoneyStorage moneyStorage) {
+        return MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(client.getMaxPoolSize())
+                        .minSize(client.getMinPoolSize())
+                        .maxConnecting(client.getMaxConnecting())
+                        .maxWaitTime(client.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(client.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(client.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) client.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) client.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .readPreference(ReadPreference.valueOf(client.getReadPreference()))
+                .compressorList(client.getCompressors().stream().map(MongoConfig::compressor).toList())
+                .codecRegistry(EntityCodecs.registry(moneyStorage));
+    }
+    
+    private static MongoCompressor compressor(String name) {
+        return switch (name) {
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            default -> throw new IllegalArgumentException("Compresor de MongoDB no soportado: " + name);
+        };
+    }
 }
@@ -0,0 +1,44 @@
+package pe.joedayz.demo_webflux_mongodb.config;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pe.joedayz.demo_webflux_mongodb.payment.PaymentProperties;
+
+/**
+ * Registros de Resilience4j para las pasarelas de pago.
+ * Sus métricas (resilience4j.circuitbreaker.*, resilience4j.bulkhead.*, resilience4j.timelimiter.*)
+ * se publican en Micrometer con la etiqueta name = stack.método.
+ */
+@Configuration
+@EnableConfigurationProperties(PaymentProperties.class)
+public class PaymentConfig {
+    
+    @Bean
+    public CircuitBreakerRegistry paymentCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+    
+    @Bean
+    public BulkheadRegistry paymentBulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+    
+    @Bean
+    public TimeLimiterRegistry paymentTimeLimiterRegistry(MeterRegistry meterRegistry) {
+        TimeLimiterRegistry registry = TimeLimiterRegistry.ofDefaults();
+        TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
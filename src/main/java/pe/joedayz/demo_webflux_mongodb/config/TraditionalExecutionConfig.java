@@ -0,0 +1,87 @@
+package pe.joedayz.demo_webflux_mongodb.config;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.Arrays;
+
+/**
+ * Modo de ejecución del stack tradicional
+ * Los controladores bloqueantes (/api/v1/traditional/** y /api/v1/comparison/**) no se ejecutan
+ * en el event loop de Netty sino en hilos de plataforma o en hilos virtuales de Java 21
+ */
+@Configuration
+public class TraditionalExecutionConfig implements WebFluxConfigurer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraditionalExecutionConfig.class);
+    
+    private static final String[] BLOCKING_PATH_PREFIXES = {"/api/v1/traditional", "/api/v1/comparison"};
+    
+    public enum ExecutionMode {
+        PLATFORM, VIRTUAL
+    }
+    
+    private final ExecutionMode executionMode;
+    private final int platformPoolSize;
+    
+    public TraditionalExecutionConfig(@Value("${app.traditional.execution-mode:virtual}") ExecutionMode executionMode,
+                                      @Value("${app.traditional.platform-pool-size:200}") int platformPoolSize) {
+        this.executionMode = executionMode;
+        this.platformPoolSize = platformPoolSize;
+    }
+    
+    /**
+     * Executor en el que corren las peticiones del stack tradicional
+     */
+    @Bean
+    public AsyncTaskExecutor traditionalTaskExecutor() {
+        logger.info("Stack tradicional en modo de ejecución: {}", executionMode);
+        
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            return new VirtualThreadTaskExecutor("traditional-virtual-");
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(platformPoolSize);
+        executor.setMaxPoolSize(platformPoolSize);
+        executor.setThreadNamePrefix("traditional-platform-");
+        return executor;
+    }
+    
+    /**
+     * Hilos virtuales para las etapas independientes de createExpense que se ejecutan en paralelo.
+     * Va aparte del executor de peticiones para que una petición nunca espere por un hilo de su propio pool.
+     */
+    @Bean
+    public AsyncTaskExecutor traditionalPipelineExecutor() {
+        return new VirtualThreadTaskExecutor("traditional-pipeline-");
+    }
+    
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(traditionalTaskExecutor())
+                .setControllerMethodPredicate(TraditionalExecutionConfig::isBlockingHandler);
+    }
+    
+    private static boolean isBlockingHandler(HandlerMethod handlerMethod) {
+        if (Publisher.class.isAssignableFrom(handlerMethod.getReturnType().getParameterType())) {
+            return false;
+        }
+        
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequestMapping.class);
+        return mapping != null && Arrays.stream(mapping.path())
+                .anyMatch(path -> Arrays.stream(BLOCKING_PATH_PREFIXES).anyMatch(path::startsWith));
+    }
+}
@@ -1,21 +1,50 @@
 package pe.joedayz.demo_webflux_mongodb.controller;
 
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import pe.joedayz.demo_webflux_mongodb.config.TraditionalExecutionConfig.ExecutionMode;
 import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
 import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.loadtest.LoadGenerator;
+import pe.joedayz.demo_webflux_mongodb.loadtest.LoadTestReport;
+import pe.joedayz.demo_webflux_mongodb.loadtest.LoadTestRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.mongo.MongoInstrumentation;
+import pe.joedayz.demo_webflux_mongodb.mongo.PoolWaitSummary;
+import pe.joedayz.demo_webflux_mongodb.repository.ExpenseProjections;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
 import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
 import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -27,21 +56,54 @@ public class ComparisonController {
     
     private static final Logger logger = LoggerFactory.getLogger(ComparisonController.class);
     
+    // Usuario y categoría de mongo-init/init.js que usa stress-test cuando no se indican
+    private static final String SEED_USERNAME = "juan.perez";
+    private static final String SEED_CATEGORY = "Alimentación";
+    
     private final ReactiveExpenseService reactiveExpenseService;
     private final TraditionalExpenseService traditionalExpenseService;
+    private final LoadGenerator loadGenerator;
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveCategoryRepository categoryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutionMode executionMode;
+    private final int platformPoolSize;
+    private final int pageSize;
     private final ExecutorService executorService;
+    private final ExecutorService virtualExecutorService;
     
     public ComparisonController(ReactiveExpenseService reactiveExpenseService,
-                              TraditionalExpenseService traditionalExpenseService) {
+                              TraditionalExpenseService traditionalExpenseService,
+                              LoadGenerator loadGenerator,
+                              ReactiveUserRepository userRepository,
+                              ReactiveCategoryRepository categoryRepository,
+                              MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.traditional.execution-mode:virtual}") ExecutionMode executionMode,
+                              @Value("${app.comparison.platform-pool-size:10}") int platformPoolSize,
+                              @Value("${app.pagination.default-size:50}") int pageSize) {
         this.reactiveExpenseService = reactiveExpenseService;
         this.traditionalExpenseService = traditionalExpenseService;
-        this.executorService = Executors.newFixedThreadPool(10);
+        this.loadGenerator = loadGenerator;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.executionMode = executionMode;
+        this.platformPoolSize = platformPoolSize;
+        this.pageSize = pageSize;
+        this.executorService = Executors.newFixedThreadPool(platformPoolSize);
+        this.virtualExecutorService = Executors.newVirtualThreadPerTaskExecutor();
     }
     
     @GetMapping("/performance-test")
     public ResponseEntity<String> runPerformanceTest() {
         logger.info("Iniciando prueba de rendimiento comparativa");
         
+        PoolWaitSummary reactivePoolWait = PoolWaitSummary.of(meterRegistry, MongoInstrumentation.REACTIVE);
+        PoolWaitSummary syncPoolWait = PoolWaitSummary.of(meterRegistry, MongoInstrumentation.SYNC);
+        
         StringBuilder result = new StringBuilder();
         result.append("=== PRUEBA DE RENDIMIENTO WEBFLUX vs SPRING WEB ===\n\n");
         
@@ -60,42 +122,113 @@ public class ComparisonController {
         result.append(runPaymentMethodProcessingTest());
         result.append("\n");
         
+        // Prueba 4: Bytes leídos de MongoDB por el listado, con y sin proyecciones
+        result.append("4. BYTES POR PETICIÓN DEL LISTADO (PROYECCIONES):\n");
+        result.append(runProjectionBytesTest());
+        result.append("\n");
+        
+        // Prueba 5: Espera por conexiones de cada pool de MongoDB durante las pruebas anteriores
+        result.append("5. ESPERA POR CONEXIONES DEL POOL DE MONGODB:\n");
+        result.append(poolWaitReport(reactivePoolWait, syncPoolWait));
+        result.append("\n");
+        
         logger.info("Prueba de rendimiento completada");
         return ResponseEntity.ok(result.toString());
     }
     
+    /**
+     * Prueba de estrés con el generador de carga de lazo abierto: peticiones HTTP reales
+     * contra ambos stacks, con la misma tasa y mezcla de operaciones. Sin userId o categoryId
+     * se usan el usuario y la categoría de los datos de ejemplo
+     */
     @GetMapping("/stress-test")
-    public ResponseEntity<String> runStressTest() {
-        logger.info("Iniciando prueba de estrés comparativa");
+    public Mono<List<LoadTestReport>> runStressTest(@RequestParam(required = false) String userId,
+                                                    @RequestParam(required = false) String categoryId,
+                                                    @RequestParam(defaultValue = "50") int targetRps,
+                                                    @RequestParam(defaultValue = "10") int durationSeconds,
+                                                    @RequestParam(defaultValue = "100") int concurrency) {
+        logger.info("Iniciando prueba de estrés comparativa a {} rps durante {} s", targetRps, durationSeconds);
         
-        StringBuilder result = new StringBuilder();
-        result.append("=== PRUEBA DE ESTRÉS WEBFLUX vs SPRING WEB ===\n\n");
-        
-        // Simular carga alta
-        int numberOfRequests = 100;
-        
-        result.append("Simulando ").append(numberOfRequests).append(" requests concurrentes...\n\n");
+        return Mono.zip(resolveUserId(userId), resolveCategoryId(categoryId))
+                .flatMap(ids -> Flux.just(LoadTestRequest.Stack.REACTIVE, LoadTestRequest.Stack.TRADITIONAL)
+                        .concatMap(stack -> loadGenerator.run(
+                                new LoadTestRequest(stack, targetRps, durationSeconds, concurrency, ids.getT1(), ids.getT2())))
+                        .collectList())
+                .doOnSuccess(reports -> logger.info("Prueba de estrés completada"));
+    }
+    
+    private Mono<String> resolveUserId(String userId) {
+        if (userId != null && !userId.isBlank()) {
+            return Mono.just(userId);
+        }
+        return userRepository.findByUsername(SEED_USERNAME)
+                .map(User::getId)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "userId es requerido: no existe el usuario de ejemplo " + SEED_USERNAME)));
+    }
+    
+    private Mono<String> resolveCategoryId(String categoryId) {
+        if (categoryId != null && !categoryId.isBlank()) {
+            return Mono.just(categoryId);
+        }
+        return categoryRepository.findByName(SEED_CATEGORY)
+                .map(Category::getId)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "categoryId es requerido: no existe la categoría de ejemplo " + SEED_CATEGORY)));
+    }
+    
+    @PostMapping("/load-test")
+    public Mono<LoadTestReport> runLoadTest(@Valid @RequestBody LoadTestRequest request) {
+        logger.info("Iniciando prueba de carga {} a {} rps", request.getStack(), request.getTargetRps());
+        return loadGenerator.run(request);
+    }
+    
+    @GetMapping("/concurrency-report")
+    public ResponseEntity<String> runConcurrencyReport(@RequestParam(defaultValue = "100,1000,10000") List<Integer> levels) {
+        logger.info("Iniciando reporte de concurrencia para niveles: {}", levels);
         
-        // WebFlux - Reactivo
-        Instant reactiveStart = Instant.now();
-        runReactiveStressTest(numberOfRequests);
-        Duration reactiveDuration = Duration.between(reactiveStart, Instant.now());
+        StringBuilder result = new StringBuilder();
+        result.append("=== CONCURRENCIA: HILOS DE PLATAFORMA vs HILOS VIRTUALES vs REACTIVO ===\n\n");
+        result.append("Modo de ejecución de /api/v1/traditional/**: ").append(executionMode).append("\n\n");
+        PoolWaitSummary reactivePoolWait = PoolWaitSummary.of(meterRegistry, MongoInstrumentation.REACTIVE);
+        PoolWaitSummary syncPoolWait = PoolWaitSummary.of(meterRegistry, MongoInstrumentation.SYNC);
+        result.append(String.format("%-10s %-24s %-18s %-18s%n",
+                "Requests", "Plataforma (pool " + platformPoolSize + ")", "Hilos virtuales", "Reactivo"));
         
-        // Spring Web - Tradicional
-        Instant traditionalStart = Instant.now();
-        runTraditionalStressTest(numberOfRequests);
-        Duration traditionalDuration = Duration.between(traditionalStart, Instant.now());
+        for (int numberOfRequests : levels) {
+            Instant platformStart = Instant.now();
+            runTraditionalStressTest(numberOfRequests, executorService);
+            Duration platformDuration = Duration.between(platformStart, Instant.now());
+            
+            Instant virtualStart = Instant.now();
+            runTraditionalStressTest(numberOfRequests, virtualExecutorService);
+            Duration virtualDuration = Duration.between(virtualStart, Instant.now());
+            
+            Instant reactiveStart = Instant.now();
+            runReactiveStressTest(numberOfRequests);
+            Duration reactiveDuration = Duration.between(reactiveStart, Instant.now());
+            
+            result.append(String.format("%-10d %-24s %-18s %-18s%n", numberOfRequests,
+                    platformDuration.toMillis() + " ms",
+                    virtualDuration.toMillis() + " ms",
+                    reactiveDuration.toMillis() + " ms"));
+        }
         
-        result.append("RESULTADOS:\n");
-        result.append("WebFlux (Reactivo): ").append(reactiveDuration.toMillis()).append(" ms\n");
-        result.append("Spring Web (Tradicional): ").append(traditionalDuration.toMillis()).append(" ms\n");
-        result.append("Diferencia: ").append(traditionalDuration.toMillis() - reactiveDuration.toMillis()).append(" ms\n");
-        result.append("WebFlux es ").append(String.format("%.2f", (double) traditionalDuration.toMillis() / reactiveDuration.toMillis())).append("x más rápido\n");
+        result.append("\nEspera por conexiones del pool de MongoDB:\n");
+        result.append(poolWaitReport(reactivePoolWait, syncPoolWait));
         
-        logger.info("Prueba de estrés completada");
+        logger.info("Reporte de concurrencia completado");
         return ResponseEntity.ok(result.toString());
     }
     
+    /**
+     * Espera por conexiones de cada cliente desde las lecturas iniciales (WebFlux usa el cliente reactive, Spring Web el sync)
+     */
+    private String poolWaitReport(PoolWaitSummary reactiveStart, PoolWaitSummary syncStart) {
+        return "WebFlux (pool reactive): " + PoolWaitSummary.of(meterRegistry, MongoInstrumentation.REACTIVE).since(reactiveStart) + "\n"
+                + "Spring Web (pool sync): " + PoolWaitSummary.of(meterRegistry, MongoInstrumentation.SYNC).since(syncStart) + "\n";
+    }
+    
     private String runConcurrentExpenseCreationTest() {
         StringBuilder result = new StringBuilder();
         
@@ -184,15 +317,94 @@ public class ComparisonController {
         return result.toString();
     }
     
+    /**
+     * Compara el tamaño BSON que devuelve MongoDB para la primera página de GET /expenses
+     * (app.pagination.default-size) con la caché de referencia fría: documentos completos
+     * frente a las proyecciones que usan los repositorios
+     */
+    private String runProjectionBytesTest() {
+        StringBuilder result = new StringBuilder();
+        
+        try {
+            // Mismo orden que la paginación por clave; se lee un gasto de más para saber si hay otra página
+            Bson pageSort = Sorts.descending("date", "_id");
+            int window = pageSize + 1;
+            
+            Set<Object> userIds = new HashSet<>();
+            Set<Object> categoryIds = new HashSet<>();
+            long rows = 0;
+            long expenseFull = 0;
+            try (MongoCursor<RawBsonDocument> cursor = rawCollection("expenses").find().sort(pageSort).limit(window).iterator()) {
+                while (cursor.hasNext()) {
+                    RawBsonDocument expense = cursor.next();
+                    rows++;
+                    expenseFull += expense.getByteBuffer().remaining();
+                    if (rows <= pageSize) {
+                        userIds.add(referenceId(expense.get("userId")));
+                        categoryIds.add(referenceId(expense.get("categoryId")));
+                    }
+                }
+            }
+            long expenseProjected = bsonBytes(rawCollection("expenses").find().sort(pageSort).limit(window)
+                    .projection(Projections.exclude(ExpenseProjections.TYPE_KEY)));
+            
+            Bson usersFilter = Filters.in("_id", userIds);
+            long usersFull = bsonBytes(rawCollection("users").find(usersFilter));
+            long usersProjected = bsonBytes(rawCollection("users").find(usersFilter).projection(Projections.include("fullName")));
+            
+            Bson categoriesFilter = Filters.in("_id", categoryIds);
+            long categoriesFull = bsonBytes(rawCollection("categories").find(categoriesFilter));
+            long categoriesProjected = bsonBytes(rawCollection("categories").find(categoriesFilter).projection(Projections.include("name")));
+            
+            long full = expenseFull + usersFull + categoriesFull;
+            long projected = expenseProjected + usersProjected + categoriesProjected;
+            
+            result.append(String.format("Página de %d gastos (%d filas leídas): %d B -> %d B%n", pageSize, rows, expenseFull, expenseProjected));
+            result.append(String.format("Usuarios (%d): %d B -> %d B%n", userIds.size(), usersFull, usersProjected));
+            result.append(String.format("Categorías (%d): %d B -> %d B%n", categoryIds.size(), categoriesFull, categoriesProjected));
+            result.append(String.format("Total por petición: %d B -> %d B (%.1f%% menos)%n",
+                    full, projected, full > 0 ? 100.0 * (full - projected) / full : 0.0));
+            if (rows > 0) {
+                result.append(String.format("Por fila: %d B -> %d B%n", full / rows, projected / rows));
+            }
+        } catch (Exception e) {
+            result.append("Error - ").append(e.getMessage()).append("\n");
+        }
+        
+        return result.toString();
+    }
+    
+    private static long bsonBytes(FindIterable<RawBsonDocument> find) {
+        long bytes = 0;
+        try (MongoCursor<RawBsonDocument> cursor = find.iterator()) {
+            while (cursor.hasNext()) {
+                bytes += cursor.next().getByteBuffer().remaining();
+            }
+        }
+        return bytes;
+    }
+    
+    private MongoCollection<RawBsonDocument> rawCollection(String collection) {
+        return mongoTemplate.getCollection(collection).withDocumentClass(RawBsonDocument.class);
+    }
+    
+    private static Object referenceId(BsonValue value) {
+        // Mismo criterio que Spring Data al resolver findAllById: un String con forma de ObjectId se busca como ObjectId
+        if (value != null && value.isString() && ObjectId.isValid(value.asString().getValue())) {
+            return new ObjectId(value.asString().getValue());
+        }
+        return value;
+    }
+    
     private void runReactiveStressTest(int numberOfRequests) {
         // WebFlux maneja la concurrencia de forma nativa
         Flux.range(1, numberOfRequests)
-                .flatMap(i -> reactiveExpenseService.getAllExpenses().collectList())
+                .flatMap(i -> reactiveExpenseService.getAllExpenses().collectList(), numberOfRequests)
                 .collectList()
                 .block();
     }
     
-    private void runTraditionalStressTest(int numberOfRequests) {
+    private void runTraditionalStressTest(int numberOfRequests, ExecutorService executor) {
         // Spring Web necesita manejo manual de concurrencia
         List<CompletableFuture<Void>> futures = Flux.range(1, numberOfRequests)
                 .map(i -> CompletableFuture.runAsync(() -> {
@@ -201,7 +413,7 @@ public class ComparisonController {
                     } catch (Exception e) {
                         logger.error("Error en request tradicional: {}", e.getMessage());
                     }
-                }, executorService))
+                }, executor))
                 .collectList()
                 .block();
         
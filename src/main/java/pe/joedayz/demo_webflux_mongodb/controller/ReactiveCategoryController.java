@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import pe.joedayz.demo_webflux_mongodb.model.Category;
 import pe.joedayz.demo_webflux_mongodb.repository.ReactiveCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.singleflight.ReactiveSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -16,32 +18,34 @@ public class ReactiveCategoryController {
     private static final Logger logger = LoggerFactory.getLogger(ReactiveCategoryController.class);
     
     private final ReactiveCategoryRepository categoryRepository;
+    private final ReactiveSingleFlight singleFlight;
     
-    public ReactiveCategoryController(ReactiveCategoryRepository categoryRepository) {
+    public ReactiveCategoryController(ReactiveCategoryRepository categoryRepository, ReactiveSingleFlight singleFlight) {
         this.categoryRepository = categoryRepository;
+        this.singleFlight = singleFlight;
     }
     
     @GetMapping
     public Flux<Category> getAllCategories() {
-        logger.info("Endpoint reactivo: Obteniendo todas las categorías");
+        logger.debug("Endpoint reactivo: Obteniendo todas las categorías");
         return categoryRepository.findAll()
-                .doOnComplete(() -> logger.info("Todas las categorías obtenidas exitosamente"))
+                .doOnComplete(() -> logger.debug("Todas las categorías obtenidas exitosamente"))
                 .doOnError(error -> logger.error("Error al obtener categorías: {}", error.getMessage()));
     }
     
     @GetMapping("/{id}")
     public Mono<Category> getCategoryById(@PathVariable String id) {
-        logger.info("Endpoint reactivo: Obteniendo categoría por ID: {}", id);
-        return categoryRepository.findById(id)
-                .doOnSuccess(category -> logger.info("Categoría encontrada con ID: {}", id))
+        logger.debug("Endpoint reactivo: Obteniendo categoría por ID: {}", id);
+        return singleFlight.execute(SingleFlightProperties.CATEGORY_BY_ID, id, () -> categoryRepository.findById(id))
+                .doOnSuccess(category -> logger.debug("Categoría encontrada con ID: {}", id))
                 .doOnError(error -> logger.error("Error al obtener categoría con ID {}: {}", id, error.getMessage()));
     }
     
     @GetMapping("/name/{name}")
     public Mono<Category> getCategoryByName(@PathVariable String name) {
-        logger.info("Endpoint reactivo: Obteniendo categoría por nombre: {}", name);
+        logger.debug("Endpoint reactivo: Obteniendo categoría por nombre: {}", name);
         return categoryRepository.findByName(name)
-                .doOnSuccess(category -> logger.info("Categoría encontrada con nombre: {}", name))
+                .doOnSuccess(category -> logger.debug("Categoría encontrada con nombre: {}", name))
                 .doOnError(error -> logger.error("Error al obtener categoría con nombre {}: {}", name, error.getMessage()));
     }
 }
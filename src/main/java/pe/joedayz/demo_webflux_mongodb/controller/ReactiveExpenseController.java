@@ -3,17 +3,28 @@ package pe.joedayz.demo_webflux_mongodb.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import pe.joedayz.demo_webflux_mongodb.changestream.ExpenseChangeFeed;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
 import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpensePage;
 import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseStats;
+import pe.joedayz.demo_webflux_mongodb.dto.InvalidCursorException;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveBulkExpenseService;
 import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.YearMonth;
 
 @RestController
 @RequestMapping("/api/v1/reactive/expenses")
@@ -23,40 +34,105 @@ public class ReactiveExpenseController {
     private static final Logger logger = LoggerFactory.getLogger(ReactiveExpenseController.class);
     
     private final ReactiveExpenseService expenseService;
+    private final ReactiveBulkExpenseService bulkExpenseService;
+    private final ExpenseChangeFeed changeFeed;
     
-    public ReactiveExpenseController(ReactiveExpenseService expenseService) {
+    public ReactiveExpenseController(ReactiveExpenseService expenseService,
+                                   ReactiveBulkExpenseService bulkExpenseService,
+                                   ExpenseChangeFeed changeFeed) {
         this.expenseService = expenseService;
+        this.bulkExpenseService = bulkExpenseService;
+        this.changeFeed = changeFeed;
     }
     
     @PostMapping
     public Mono<ResponseEntity<ExpenseResponse>> createExpense(@Valid @RequestBody CreateExpenseRequest request) {
-        logger.info("Endpoint reactivo: Creando gasto para usuario: {}", request.getUserId());
+        logger.debug("Endpoint reactivo: Creando gasto para usuario: {}", request.getUserId());
         
         return expenseService.createExpense(request)
                 .map(expense -> ResponseEntity.status(HttpStatus.CREATED).body(expense))
-                .doOnSuccess(response -> logger.info("Gasto reactivo creado exitosamente"))
+                .doOnSuccess(response -> logger.debug("Gasto reactivo creado exitosamente"))
                 .doOnError(error -> logger.error("Error al crear gasto reactivo: {}", error.getMessage()));
     }
     
+    /**
+     * Acepta un arreglo JSON o NDJSON; los elementos se decodifican y procesan por lotes a medida que llegan
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<BulkExpenseResult>> createExpenses(@RequestBody Flux<CreateExpenseRequest> requests) {
+        logger.info("Endpoint reactivo: Carga masiva de gastos");
+        
+        return bulkExpenseService.createExpenses(requests)
+                .map(result -> ResponseEntity.ok(result))
+                .doOnError(error -> logger.error("Error en la carga masiva reactiva: {}", error.getMessage()));
+    }
+    
     @GetMapping
-    public Flux<ExpenseResponse> getAllExpenses() {
-        logger.info("Endpoint reactivo: Obteniendo todos los gastos");
+    public Mono<ResponseEntity<ExpensePage>> getAllExpenses(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint reactivo: Obteniendo página de gastos");
         
-        return expenseService.getAllExpenses()
-                .doOnComplete(() -> logger.info("Todos los gastos reactivos obtenidos exitosamente"))
+        return expenseService.getExpensesPage(cursor, size)
+                .map(page -> ResponseEntity.ok(page))
+                .onErrorResume(InvalidCursorException.class, error -> {
+                    logger.warn("Cursor de paginación inválido: {}", cursor);
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .doOnSuccess(response -> logger.debug("Página de gastos reactivos obtenida exitosamente"))
                 .doOnError(error -> logger.error("Error al obtener gastos reactivos: {}", error.getMessage()));
     }
     
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExpenseResponse> streamExpenses(@RequestParam(required = false) String userId) {
+        logger.debug("Endpoint reactivo: Exportando gastos en NDJSON");
+        
+        return expenseService.streamExpenses(userId)
+                .doOnComplete(() -> logger.debug("Exportación NDJSON reactiva completada"))
+                .doOnError(error -> logger.error("Error en la exportación NDJSON reactiva: {}", error.getMessage()));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ExpenseResponse>> streamExpenseEvents(@RequestParam(required = false) String userId) {
+        logger.debug("Endpoint reactivo: Exportando gastos como Server-Sent Events");
+        
+        return expenseService.streamExpenses(userId)
+                .map(expense -> ServerSentEvent.builder(expense)
+                        .id(expense.getId())
+                        .event("expense")
+                        .build())
+                .doOnComplete(() -> logger.debug("Exportación SSE reactiva completada"))
+                .doOnError(error -> logger.error("Error en la exportación SSE reactiva: {}", error.getMessage()));
+    }
+    
+    /**
+     * Gastos creados o modificados en cualquier instancia, en vivo desde el change stream de expenses
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ExpenseResponse>> liveExpenses() {
+        logger.debug("Endpoint reactivo: Suscribiendo cliente al feed de gastos en vivo");
+        
+        if (!changeFeed.isEnabled()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Feed en vivo deshabilitado (app.change-streams.enabled=false)"));
+        }
+        return changeFeed.live()
+                .map(expense -> ServerSentEvent.builder(expense)
+                        .id(expense.getId())
+                        .event("expense")
+                        .build())
+                .doOnCancel(() -> logger.debug("Cliente desconectado del feed de gastos en vivo"));
+    }
+    
     @GetMapping("/{id}")
     public Mono<ResponseEntity<ExpenseResponse>> getExpenseById(@PathVariable String id) {
-        logger.info("Endpoint reactivo: Obteniendo gasto por ID: {}", id);
+        logger.debug("Endpoint reactivo: Obteniendo gasto por ID: {}", id);
         
         return expenseService.getExpenseById(id)
                 .map(expense -> ResponseEntity.ok(expense))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
                 .doOnSuccess(response -> {
                     if (response.getStatusCode().is2xxSuccessful()) {
-                        logger.info("Gasto reactivo encontrado con ID: {}", id);
+                        logger.debug("Gasto reactivo encontrado con ID: {}", id);
                     } else {
                         logger.warn("Gasto reactivo no encontrado con ID: {}", id);
                     }
@@ -65,49 +141,140 @@ public class ReactiveExpenseController {
     }
     
     @GetMapping("/user/{userId}")
-    public Flux<ExpenseResponse> getExpensesByUser(@PathVariable String userId) {
-        logger.info("Endpoint reactivo: Obteniendo gastos del usuario: {}", userId);
+    public Mono<ResponseEntity<ExpensePage>> getExpensesByUser(@PathVariable String userId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint reactivo: Obteniendo página de gastos del usuario: {}", userId);
         
-        return expenseService.getExpensesByUser(userId)
-                .doOnComplete(() -> logger.info("Gastos reactivos del usuario {} obtenidos exitosamente", userId))
+        return expenseService.getExpensesPageByUser(userId, cursor, size)
+                .map(page -> ResponseEntity.ok(page))
+                .onErrorResume(InvalidCursorException.class, error -> {
+                    logger.warn("Cursor de paginación inválido: {}", cursor);
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .doOnSuccess(response -> logger.debug("Página de gastos reactivos del usuario {} obtenida exitosamente", userId))
                 .doOnError(error -> logger.error("Error al obtener gastos reactivos del usuario {}: {}", userId, error.getMessage()));
     }
     
     @GetMapping("/payment-method/{paymentMethod}")
-    public Flux<ExpenseResponse> getExpensesByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod) {
-        logger.info("Endpoint reactivo: Obteniendo gastos por método de pago: {}", paymentMethod);
+    public Mono<ResponseEntity<ExpensePage>> getExpensesByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint reactivo: Obteniendo página de gastos por método de pago: {}", paymentMethod);
         
-        return expenseService.getExpensesByPaymentMethod(paymentMethod)
-                .doOnComplete(() -> logger.info("Gastos reactivos con método de pago {} obtenidos exitosamente", paymentMethod))
+        return expenseService.getExpensesPageByPaymentMethod(paymentMethod, cursor, size)
+                .map(page -> ResponseEntity.ok(page))
+                .onErrorResume(InvalidCursorException.class, error -> {
+                    logger.warn("Cursor de paginación inválido: {}", cursor);
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .doOnSuccess(response -> logger.debug("Página de gastos reactivos con método de pago {} obtenida exitosamente", paymentMethod))
                 .doOnError(error -> logger.error("Error al obtener gastos reactivos con método de pago {}: {}", paymentMethod, error.getMessage()));
     }
     
     @GetMapping("/user/{userId}/total")
     public Mono<ResponseEntity<BigDecimal>> getTotalExpensesByUser(@PathVariable String userId) {
-        logger.info("Endpoint reactivo: Calculando total de gastos del usuario: {}", userId);
+        logger.debug("Endpoint reactivo: Calculando total de gastos del usuario: {}", userId);
         
         return expenseService.getTotalExpensesByUser(userId)
                 .map(total -> ResponseEntity.ok(total))
-                .doOnSuccess(response -> logger.info("Total de gastos reactivos del usuario {}: {}", userId, response.getBody()))
+                .doOnSuccess(response -> logger.debug("Total de gastos reactivos del usuario {}: {}", userId, response.getBody()))
                 .doOnError(error -> logger.error("Error al calcular total de gastos reactivos del usuario {}: {}", userId, error.getMessage()));
     }
     
+    @GetMapping("/stats/user/{userId}")
+    public Mono<ResponseEntity<ExpenseStats>> getStatsByUser(@PathVariable String userId) {
+        logger.debug("Endpoint reactivo: Estadísticas del usuario: {}", userId);
+        
+        return expenseService.getStatsByUser(userId)
+                .map(stats -> ResponseEntity.ok(stats))
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .doOnError(error -> logger.error("Error al calcular estadísticas reactivas del usuario {}: {}", userId, error.getMessage()));
+    }
+    
+    @GetMapping("/stats/users")
+    public Flux<ExpenseStats> getStatsByUsers() {
+        logger.debug("Endpoint reactivo: Estadísticas por usuario");
+        
+        return expenseService.getStatsByUsers()
+                .doOnError(error -> logger.error("Error al calcular estadísticas reactivas por usuario: {}", error.getMessage()));
+    }
+    
+    @GetMapping("/stats/categories")
+    public Flux<ExpenseStats> getStatsByCategory() {
+        logger.debug("Endpoint reactivo: Estadísticas por categoría");
+        
+        return expenseService.getStatsByCategory()
+                .doOnError(error -> logger.error("Error al calcular estadísticas reactivas por categoría: {}", error.getMessage()));
+    }
+    
+    @GetMapping("/stats/payment-methods")
+    public Flux<ExpenseStats> getStatsByPaymentMethod() {
+        logger.debug("Endpoint reactivo: Estadísticas por método de pago");
+        
+        return expenseService.getStatsByPaymentMethod()
+                .doOnError(error -> logger.error("Error al calcular estadísticas reactivas por método de pago: {}", error.getMessage()));
+    }
+    
+    @GetMapping("/stats/dates")
+    public Flux<ExpenseStats> getStatsByDateBucket(@RequestParam(defaultValue = "MONTH") ExpenseStats.DateBucket bucket) {
+        logger.debug("Endpoint reactivo: Estadísticas por periodo: {}", bucket);
+        
+        return expenseService.getStatsByDateBucket(bucket)
+                .doOnError(error -> logger.error("Error al calcular estadísticas reactivas por periodo {}: {}", bucket, error.getMessage()));
+    }
+    
+    /**
+     * Resumen materializado del mes (por defecto el actual) por categoría: una lectura por categoría, no un recorrido de expenses
+     */
+    @GetMapping("/summaries/user/{userId}")
+    public Flux<ExpenseSummary> getMonthlySummary(@PathVariable String userId,
+                                                  @RequestParam(required = false) YearMonth month) {
+        YearMonth resolvedMonth = month != null ? month : YearMonth.now();
+        logger.debug("Endpoint reactivo: Resumen de {} del usuario: {}", resolvedMonth, userId);
+        
+        return expenseService.getMonthlySummary(userId, resolvedMonth)
+                .doOnError(error -> logger.error("Error al obtener resumen reactivo del usuario {}: {}", userId, error.getMessage()));
+    }
+    
+    @GetMapping("/summaries/user/{userId}/category/{categoryId}")
+    public Mono<ResponseEntity<ExpenseSummary>> getCategorySummary(@PathVariable String userId,
+                                                                   @PathVariable String categoryId,
+                                                                   @RequestParam(required = false) YearMonth month) {
+        YearMonth resolvedMonth = month != null ? month : YearMonth.now();
+        logger.debug("Endpoint reactivo: Resumen de {} del usuario: {} en la categoría: {}", resolvedMonth, userId, categoryId);
+        
+        return expenseService.getCategorySummary(userId, categoryId, resolvedMonth)
+                .map(summary -> ResponseEntity.ok(summary))
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .doOnError(error -> logger.error("Error al obtener resumen reactivo del usuario {}: {}", userId, error.getMessage()));
+    }
+    
+    @PostMapping("/summaries/rebuild")
+    public Mono<ResponseEntity<Long>> rebuildSummaries() {
+        logger.info("Endpoint reactivo: Reconstruyendo resúmenes de gastos");
+        
+        return expenseService.rebuildSummaries()
+                .map(count -> ResponseEntity.ok(count))
+                .doOnError(error -> logger.error("Error al reconstruir resúmenes reactivos: {}", error.getMessage()));
+    }
+    
     @GetMapping("/payment-method/{paymentMethod}/count")
     public Mono<ResponseEntity<Long>> getExpenseCountByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod) {
-        logger.info("Endpoint reactivo: Contando gastos por método de pago: {}", paymentMethod);
+        logger.debug("Endpoint reactivo: Contando gastos por método de pago: {}", paymentMethod);
         
         return expenseService.getExpenseCountByPaymentMethod(paymentMethod)
                 .map(count -> ResponseEntity.ok(count))
-                .doOnSuccess(response -> logger.info("Total de gastos reactivos con método de pago {}: {}", paymentMethod, response.getBody()))
+                .doOnSuccess(response -> logger.debug("Total de gastos reactivos con método de pago {}: {}", paymentMethod, response.getBody()))
                 .doOnError(error -> logger.error("Error al contar gastos reactivos con método de pago {}: {}", paymentMethod, error.getMessage()));
     }
     
     @GetMapping("/health")
     public Mono<ResponseEntity<String>> health() {
-        logger.info("Endpoint reactivo: Verificando salud del servicio");
+        logger.debug("Endpoint reactivo: Verificando salud del servicio");
         
         return Mono.just("Reactive Expense Service is running!")
                 .map(message -> ResponseEntity.ok(message))
-                .doOnSuccess(response -> logger.info("Servicio reactivo de gastos funcionando correctamente"));
+                .doOnSuccess(response -> logger.debug("Servicio reactivo de gastos funcionando correctamente"));
     }
 }
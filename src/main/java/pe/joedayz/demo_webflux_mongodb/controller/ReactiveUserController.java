@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import pe.joedayz.demo_webflux_mongodb.model.User;
 import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import pe.joedayz.demo_webflux_mongodb.singleflight.ReactiveSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -16,32 +18,34 @@ public class ReactiveUserController {
     private static final Logger logger = LoggerFactory.getLogger(ReactiveUserController.class);
     
     private final ReactiveUserRepository userRepository;
+    private final ReactiveSingleFlight singleFlight;
     
-    public ReactiveUserController(ReactiveUserRepository userRepository) {
+    public ReactiveUserController(ReactiveUserRepository userRepository, ReactiveSingleFlight singleFlight) {
         this.userRepository = userRepository;
+        this.singleFlight = singleFlight;
     }
     
     @GetMapping
     public Flux<User> getAllUsers() {
-        logger.info("Endpoint reactivo: Obteniendo todos los usuarios");
+        logger.debug("Endpoint reactivo: Obteniendo todos los usuarios");
         return userRepository.findAll()
-                .doOnComplete(() -> logger.info("Todos los usuarios obtenidos exitosamente"))
+                .doOnComplete(() -> logger.debug("Todos los usuarios obtenidos exitosamente"))
                 .doOnError(error -> logger.error("Error al obtener usuarios: {}", error.getMessage()));
     }
     
     @GetMapping("/{id}")
     public Mono<User> getUserById(@PathVariable String id) {
-        logger.info("Endpoint reactivo: Obteniendo usuario por ID: {}", id);
-        return userRepository.findById(id)
-                .doOnSuccess(user -> logger.info("Usuario encontrado con ID: {}", id))
+        logger.debug("Endpoint reactivo: Obteniendo usuario por ID: {}", id);
+        return singleFlight.execute(SingleFlightProperties.USER_BY_ID, id, () -> userRepository.findById(id))
+                .doOnSuccess(user -> logger.debug("Usuario encontrado con ID: {}", id))
                 .doOnError(error -> logger.error("Error al obtener usuario con ID {}: {}", id, error.getMessage()));
     }
     
     @GetMapping("/username/{username}")
     public Mono<User> getUserByUsername(@PathVariable String username) {
-        logger.info("Endpoint reactivo: Obteniendo usuario por username: {}", username);
+        logger.debug("Endpoint reactivo: Obteniendo usuario por username: {}", username);
         return userRepository.findByUsername(username)
-                .doOnSuccess(user -> logger.info("Usuario encontrado con username: {}", username))
+                .doOnSuccess(user -> logger.debug("Usuario encontrado con username: {}", username))
                 .doOnError(error -> logger.error("Error al obtener usuario con username {}: {}", username, error.getMessage()));
     }
 }
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import pe.joedayz.demo_webflux_mongodb.model.Category;
 import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.singleflight.TraditionalSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
 import java.util.List;
 
 @RestController
@@ -15,25 +17,27 @@ public class TraditionalCategoryController {
     private static final Logger logger = LoggerFactory.getLogger(TraditionalCategoryController.class);
     
     private final TraditionalCategoryRepository categoryRepository;
+    private final TraditionalSingleFlight singleFlight;
     
-    public TraditionalCategoryController(TraditionalCategoryRepository categoryRepository) {
+    public TraditionalCategoryController(TraditionalCategoryRepository categoryRepository, TraditionalSingleFlight singleFlight) {
         this.categoryRepository = categoryRepository;
+        this.singleFlight = singleFlight;
     }
     
     @GetMapping
     public List<Category> getAllCategories() {
-        logger.info("Endpoint tradicional: Obteniendo todas las categorías");
+        logger.debug("Endpoint tradicional: Obteniendo todas las categorías");
         List<Category> categories = categoryRepository.findAll();
-        logger.info("Todas las categorías obtenidas exitosamente: {}", categories.size());
+        logger.debug("Todas las categorías obtenidas exitosamente: {}", categories.size());
         return categories;
     }
     
     @GetMapping("/{id}")
     public Category getCategoryById(@PathVariable String id) {
-        logger.info("Endpoint tradicional: Obteniendo categoría por ID: {}", id);
-        Category category = categoryRepository.findById(id).orElse(null);
+        logger.debug("Endpoint tradicional: Obteniendo categoría por ID: {}", id);
+        Category category = singleFlight.execute(SingleFlightProperties.CATEGORY_BY_ID, id, () -> categoryRepository.findById(id)).orElse(null);
         if (category != null) {
-            logger.info("Categoría encontrada con ID: {}", id);
+            logger.debug("Categoría encontrada con ID: {}", id);
         } else {
             logger.warn("Categoría no encontrada con ID: {}", id);
         }
@@ -42,10 +46,10 @@ public class TraditionalCategoryController {
     
     @GetMapping("/name/{name}")
     public Category getCategoryByName(@PathVariable String name) {
-        logger.info("Endpoint tradicional: Obteniendo categoría por nombre: {}", name);
+        logger.debug("Endpoint tradicional: Obteniendo categoría por nombre: {}", name);
         Category category = categoryRepository.findByName(name).orElse(null);
         if (category != null) {
-            logger.info("Categoría encontrada con nombre: {}", name);
+            logger.debug("Categoría encontrada con nombre: {}", name);
         } else {
             logger.warn("Categoría no encontrada con nombre: {}", name);
         }
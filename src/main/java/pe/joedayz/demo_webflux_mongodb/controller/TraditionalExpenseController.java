@@ -2,17 +2,32 @@ package pe.joedayz.demo_webflux_mongodb.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
 import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpensePage;
 import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseStats;
+import pe.joedayz.demo_webflux_mongodb.dto.InvalidCursorException;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalBulkExpenseService;
 import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/traditional/expenses")
@@ -22,18 +37,30 @@ public class TraditionalExpenseController {
     private static final Logger logger = LoggerFactory.getLogger(TraditionalExpenseController.class);
     
     private final TraditionalExpenseService expenseService;
+    private final TraditionalBulkExpenseService bulkExpenseService;
+    private final Scheduler exportScheduler;
+    private final int exportBatchSize;
+    private final int bulkBatchSize;
     
-    public TraditionalExpenseController(TraditionalExpenseService expenseService) {
+    public TraditionalExpenseController(TraditionalExpenseService expenseService,
+                                      TraditionalBulkExpenseService bulkExpenseService,
+                                      @Qualifier("traditionalTaskExecutor") AsyncTaskExecutor traditionalTaskExecutor,
+                                      @Value("${app.export.batch-size:500}") int exportBatchSize,
+                                      @Value("${app.bulk.batch-size:1000}") int bulkBatchSize) {
         this.expenseService = expenseService;
+        this.bulkExpenseService = bulkExpenseService;
+        this.exportScheduler = Schedulers.fromExecutor(traditionalTaskExecutor);
+        this.exportBatchSize = exportBatchSize;
+        this.bulkBatchSize = bulkBatchSize;
     }
     
     @PostMapping
     public ResponseEntity<ExpenseResponse> createExpense(@Valid @RequestBody CreateExpenseRequest request) {
-        logger.info("Endpoint tradicional: Creando gasto para usuario: {}", request.getUserId());
+        logger.debug("Endpoint tradicional: Creando gasto para usuario: {}", request.getUserId());
         
         try {
             ExpenseResponse expense = expenseService.createExpense(request);
-            logger.info("Gasto tradicional creado exitosamente");
+            logger.debug("Gasto tradicional creado exitosamente");
             return ResponseEntity.status(HttpStatus.CREATED).body(expense);
         } catch (Exception e) {
             logger.error("Error al crear gasto tradicional: {}", e.getMessage());
@@ -42,14 +69,36 @@ public class TraditionalExpenseController {
         }
     }
     
+    /**
+     * Acepta un arreglo JSON o NDJSON. El método corre en el executor del stack tradicional,
+     * donde el cuerpo se consume como un Iterable bloqueante, un lote a la vez.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkExpenseResult> createExpenses(@RequestBody Flux<CreateExpenseRequest> requests) {
+        logger.info("Endpoint tradicional: Carga masiva de gastos");
+        
+        try {
+            BulkExpenseResult result = bulkExpenseService.createExpenses(requests.toIterable(bulkBatchSize));
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("Error en la carga masiva tradicional: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
     @GetMapping
-    public ResponseEntity<List<ExpenseResponse>> getAllExpenses() {
-        logger.info("Endpoint tradicional: Obteniendo todos los gastos");
+    public ResponseEntity<ExpensePage> getAllExpenses(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint tradicional: Obteniendo página de gastos");
         
         try {
-            List<ExpenseResponse> expenses = expenseService.getAllExpenses();
-            logger.info("Todos los gastos tradicionales obtenidos exitosamente");
-            return ResponseEntity.ok(expenses);
+            ExpensePage page = expenseService.getExpensesPage(cursor, size);
+            logger.debug("Página de gastos tradicionales obtenida exitosamente");
+            return ResponseEntity.ok(page);
+        } catch (InvalidCursorException e) {
+            logger.warn("Cursor de paginación inválido: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error al obtener gastos tradicionales: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -57,13 +106,30 @@ public class TraditionalExpenseController {
         }
     }
     
+    /**
+     * Equivalente de StreamingResponseBody: la aplicación corre sobre WebFlux, así que el cursor
+     * bloqueante se recorre en el executor del stack tradicional y cada lote se escribe a medida
+     * que el cliente lo pide, sin construir la lista completa en memoria.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExpenseResponse> streamExpenses(@RequestParam(required = false) String userId) {
+        logger.debug("Endpoint tradicional: Exportando gastos en NDJSON");
+        
+        return Flux.using(() -> expenseService.streamExpenses(userId), Flux::fromStream, Stream::close)
+                .buffer(exportBatchSize)
+                .concatMapIterable(expenseService::enrichExportBatch)
+                .subscribeOn(exportScheduler)
+                .doOnComplete(() -> logger.debug("Exportación NDJSON tradicional completada"))
+                .doOnError(error -> logger.error("Error en la exportación NDJSON tradicional: {}", error.getMessage()));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable String id) {
-        logger.info("Endpoint tradicional: Obteniendo gasto por ID: {}", id);
+        logger.debug("Endpoint tradicional: Obteniendo gasto por ID: {}", id);
         
         try {
             ExpenseResponse expense = expenseService.getExpenseById(id);
-            logger.info("Gasto tradicional encontrado con ID: {}", id);
+            logger.debug("Gasto tradicional encontrado con ID: {}", id);
             return ResponseEntity.ok(expense);
         } catch (RuntimeException e) {
             if (e.getMessage().contains("no encontrado")) {
@@ -82,13 +148,18 @@ public class TraditionalExpenseController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ExpenseResponse>> getExpensesByUser(@PathVariable String userId) {
-        logger.info("Endpoint tradicional: Obteniendo gastos del usuario: {}", userId);
+    public ResponseEntity<ExpensePage> getExpensesByUser(@PathVariable String userId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint tradicional: Obteniendo página de gastos del usuario: {}", userId);
         
         try {
-            List<ExpenseResponse> expenses = expenseService.getExpensesByUser(userId);
-            logger.info("Gastos tradicionales del usuario {} obtenidos exitosamente", userId);
-            return ResponseEntity.ok(expenses);
+            ExpensePage page = expenseService.getExpensesPageByUser(userId, cursor, size);
+            logger.debug("Página de gastos tradicionales del usuario {} obtenida exitosamente", userId);
+            return ResponseEntity.ok(page);
+        } catch (InvalidCursorException e) {
+            logger.warn("Cursor de paginación inválido: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error al obtener gastos tradicionales del usuario {}: {}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -97,13 +168,18 @@ public class TraditionalExpenseController {
     }
     
     @GetMapping("/payment-method/{paymentMethod}")
-    public ResponseEntity<List<ExpenseResponse>> getExpensesByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod) {
-        logger.info("Endpoint tradicional: Obteniendo gastos por método de pago: {}", paymentMethod);
+    public ResponseEntity<ExpensePage> getExpensesByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        logger.debug("Endpoint tradicional: Obteniendo página de gastos por método de pago: {}", paymentMethod);
         
         try {
-            List<ExpenseResponse> expenses = expenseService.getExpensesByPaymentMethod(paymentMethod);
-            logger.info("Gastos tradicionales con método de pago {} obtenidos exitosamente", paymentMethod);
-            return ResponseEntity.ok(expenses);
+            ExpensePage page = expenseService.getExpensesPageByPaymentMethod(paymentMethod, cursor, size);
+            logger.debug("Página de gastos tradicionales con método de pago {} obtenida exitosamente", paymentMethod);
+            return ResponseEntity.ok(page);
+        } catch (InvalidCursorException e) {
+            logger.warn("Cursor de paginación inválido: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error al obtener gastos tradicionales con método de pago {}: {}", paymentMethod, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -113,11 +189,11 @@ public class TraditionalExpenseController {
     
     @GetMapping("/user/{userId}/total")
     public ResponseEntity<BigDecimal> getTotalExpensesByUser(@PathVariable String userId) {
-        logger.info("Endpoint tradicional: Calculando total de gastos del usuario: {}", userId);
+        logger.debug("Endpoint tradicional: Calculando total de gastos del usuario: {}", userId);
         
         try {
             BigDecimal total = expenseService.getTotalExpensesByUser(userId);
-            logger.info("Total de gastos tradicionales del usuario {}: {}", userId, total);
+            logger.debug("Total de gastos tradicionales del usuario {}: {}", userId, total);
             return ResponseEntity.ok(total);
         } catch (Exception e) {
             logger.error("Error al calcular total de gastos tradicionales del usuario {}: {}", userId, e.getMessage());
@@ -126,13 +202,134 @@ public class TraditionalExpenseController {
         }
     }
     
+    @GetMapping("/stats/user/{userId}")
+    public ResponseEntity<ExpenseStats> getStatsByUser(@PathVariable String userId) {
+        logger.debug("Endpoint tradicional: Estadísticas del usuario: {}", userId);
+        
+        try {
+            return expenseService.getStatsByUser(userId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas tradicionales del usuario {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @GetMapping("/stats/users")
+    public ResponseEntity<List<ExpenseStats>> getStatsByUsers() {
+        logger.debug("Endpoint tradicional: Estadísticas por usuario");
+        
+        try {
+            List<ExpenseStats> stats = expenseService.getStatsByUsers();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas tradicionales por usuario: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @GetMapping("/stats/categories")
+    public ResponseEntity<List<ExpenseStats>> getStatsByCategory() {
+        logger.debug("Endpoint tradicional: Estadísticas por categoría");
+        
+        try {
+            List<ExpenseStats> stats = expenseService.getStatsByCategory();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas tradicionales por categoría: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @GetMapping("/stats/payment-methods")
+    public ResponseEntity<List<ExpenseStats>> getStatsByPaymentMethod() {
+        logger.debug("Endpoint tradicional: Estadísticas por método de pago");
+        
+        try {
+            List<ExpenseStats> stats = expenseService.getStatsByPaymentMethod();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas tradicionales por método de pago: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @GetMapping("/stats/dates")
+    public ResponseEntity<List<ExpenseStats>> getStatsByDateBucket(@RequestParam(defaultValue = "MONTH") ExpenseStats.DateBucket bucket) {
+        logger.debug("Endpoint tradicional: Estadísticas por periodo: {}", bucket);
+        
+        try {
+            List<ExpenseStats> stats = expenseService.getStatsByDateBucket(bucket);
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas tradicionales por periodo {}: {}", bucket, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    /**
+     * Resumen materializado del mes (por defecto el actual) por categoría: una lectura por categoría, no un recorrido de expenses
+     */
+    @GetMapping("/summaries/user/{userId}")
+    public ResponseEntity<List<ExpenseSummary>> getMonthlySummary(@PathVariable String userId,
+                                                                  @RequestParam(required = false) YearMonth month) {
+        YearMonth resolvedMonth = month != null ? month : YearMonth.now();
+        logger.debug("Endpoint tradicional: Resumen de {} del usuario: {}", resolvedMonth, userId);
+        
+        try {
+            List<ExpenseSummary> summaries = expenseService.getMonthlySummary(userId, resolvedMonth);
+            return ResponseEntity.ok(summaries);
+        } catch (Exception e) {
+            logger.error("Error al obtener resumen tradicional del usuario {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @GetMapping("/summaries/user/{userId}/category/{categoryId}")
+    public ResponseEntity<ExpenseSummary> getCategorySummary(@PathVariable String userId,
+                                                             @PathVariable String categoryId,
+                                                             @RequestParam(required = false) YearMonth month) {
+        YearMonth resolvedMonth = month != null ? month : YearMonth.now();
+        logger.debug("Endpoint tradicional: Resumen de {} del usuario: {} en la categoría: {}", resolvedMonth, userId, categoryId);
+        
+        try {
+            return expenseService.getCategorySummary(userId, categoryId, resolvedMonth)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error al obtener resumen tradicional del usuario {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<Long> rebuildSummaries() {
+        logger.info("Endpoint tradicional: Reconstruyendo resúmenes de gastos");
+        
+        try {
+            return ResponseEntity.ok(expenseService.rebuildSummaries());
+        } catch (Exception e) {
+            logger.error("Error al reconstruir resúmenes tradicionales: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(null);
+        }
+    }
+    
     @GetMapping("/payment-method/{paymentMethod}/count")
     public ResponseEntity<Long> getExpenseCountByPaymentMethod(@PathVariable Expense.PaymentMethod paymentMethod) {
-        logger.info("Endpoint tradicional: Contando gastos por método de pago: {}", paymentMethod);
+        logger.debug("Endpoint tradicional: Contando gastos por método de pago: {}", paymentMethod);
         
         try {
             long count = expenseService.getExpenseCountByPaymentMethod(paymentMethod);
-            logger.info("Total de gastos tradicionales con método de pago {}: {}", paymentMethod, count);
+            logger.debug("Total de gastos tradicionales con método de pago {}: {}", paymentMethod, count);
             return ResponseEntity.ok(count);
         } catch (Exception e) {
             logger.error("Error al contar gastos tradicionales con método de pago {}: {}", paymentMethod, e.getMessage());
@@ -143,11 +340,11 @@ public class TraditionalExpenseController {
     
     @GetMapping("/health")
     public ResponseEntity<String> health() {
-        logger.info("Endpoint tradicional: Verificando salud del servicio");
+        logger.debug("Endpoint tradicional: Verificando salud del servicio");
         
         try {
             String message = "Traditional Expense Service is running!";
-            logger.info("Servicio tradicional de gastos funcionando correctamente");
+            logger.debug("Servicio tradicional de gastos funcionando correctamente");
             return ResponseEntity.ok(message);
         } catch (Exception e) {
             logger.error("Error en el servicio tradicional: {}", e.getMessage());
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import pe.joedayz.demo_webflux_mongodb.model.User;
 import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.singleflight.TraditionalSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
 import java.util.List;
 
 @RestController
@@ -15,25 +17,27 @@ public class TraditionalUserController {
     private static final Logger logger = LoggerFactory.getLogger(TraditionalUserController.class);
     
     private final TraditionalUserRepository userRepository;
+    private final TraditionalSingleFlight singleFlight;
     
-    public TraditionalUserController(TraditionalUserRepository userRepository) {
+    public TraditionalUserController(TraditionalUserRepository userRepository, TraditionalSingleFlight singleFlight) {
         this.userRepository = userRepository;
+        this.singleFlight = singleFlight;
     }
     
     @GetMapping
     public List<User> getAllUsers() {
-        logger.info("Endpoint tradicional: Obteniendo todos los usuarios");
+        logger.debug("Endpoint tradicional: Obteniendo todos los usuarios");
         List<User> users = userRepository.findAll();
-        logger.info("Todos los usuarios obtenidos exitosamente: {}", users.size());
+        logger.debug("Todos los usuarios obtenidos exitosamente: {}", users.size());
         return users;
     }
     
     @GetMapping("/{id}")
     public User getUserById(@PathVariable String id) {
-        logger.info("Endpoint tradicional: Obteniendo usuario por ID: {}", id);
-        User user = userRepository.findById(id).orElse(null);
+        logger.debug("Endpoint tradicional: Obteniendo usuario por ID: {}", id);
+        User user = singleFlight.execute(SingleFlightProperties.USER_BY_ID, id, () -> userRepository.findById(id)).orElse(null);
         if (user != null) {
-            logger.info("Usuario encontrado con ID: {}", id);
+            logger.debug("Usuario encontrado con ID: {}", id);
         } else {
             logger.warn("Usuario no encontrado con ID: {}", id);
         }
@@ -42,10 +46,10 @@ public class TraditionalUserController {
     
     @GetMapping("/username/{username}")
     public User getUserByUsername(@PathVariable String username) {
-        logger.info("Endpoint tradicional: Obteniendo usuario por username: {}", username);
+        logger.debug("Endpoint tradicional: Obteniendo usuario por username: {}", username);
         User user = userRepository.findByUsername(username).orElse(null);
         if (user != null) {
-            logger.info("Usuario encontrado con username: {}", username);
+            logger.debug("Usuario encontrado con username: {}", username);
         } else {
             logger.warn("Usuario no encontrado con username: {}", username);
         }
@@ -0,0 +1,137 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva de gastos.
+ * Cada fallo indica la posición del elemento en el cuerpo de la petición (desde 0).
+ * Los elementos de balanceFailures sí se insertaron, pero su monto no se descontó del saldo del usuario;
+ * summariesStale indica que algún lote no actualizó los resúmenes (se corrigen con /summaries/rebuild).
+ */
+public class BulkExpenseResult {
+    
+    private long received;
+    private long inserted;
+    private long failed;
+    private long elapsedMillis;
+    private List<ItemFailure> failures = new ArrayList<>();
+    private List<ItemFailure> balanceFailures = new ArrayList<>();
+    private boolean summariesStale;
+    
+    public static class ItemFailure {
+        
+        private long index;
+        private String userId;
+        private String message;
+        
+        public ItemFailure() {}
+        
+        public ItemFailure(long index, String userId, String message) {
+            this.index = index;
+            this.userId = userId;
+            this.message = message;
+        }
+        
+        public long getIndex() {
+            return index;
+        }
+        
+        public void setIndex(long index) {
+            this.index = index;
+        }
+        
+        public String getUserId() {
+            return userId;
+        }
+        
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+    
+    // Constructores
+    public BulkExpenseResult() {}
+    
+    public void recordReceived(int count) {
+        received += count;
+    }
+    
+    public void recordInserted(int count) {
+        inserted += count;
+    }
+    
+    public void recordFailure(long index, String userId, String message) {
+        failed++;
+        failures.add(new ItemFailure(index, userId, message));
+    }
+    
+    public void recordBalanceFailure(long index, String userId, String message) {
+        balanceFailures.add(new ItemFailure(index, userId, message));
+    }
+    
+    // Getters y Setters
+    public long getReceived() {
+        return received;
+    }
+    
+    public void setReceived(long received) {
+        this.received = received;
+    }
+    
+    public long getInserted() {
+        return inserted;
+    }
+    
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public List<ItemFailure> getFailures() {
+        return failures;
+    }
+    
+    public void setFailures(List<ItemFailure> failures) {
+        this.failures = failures;
+    }
+    
+    public List<ItemFailure> getBalanceFailures() {
+        return balanceFailures;
+    }
+    
+    public void setBalanceFailures(List<ItemFailure> balanceFailures) {
+        this.balanceFailures = balanceFailures;
+    }
+    
+    public boolean isSummariesStale() {
+        return summariesStale;
+    }
+    
+    public void setSummariesStale(boolean summariesStale) {
+        this.summariesStale = summariesStale;
+    }
+}
@@ -0,0 +1,11 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+/**
+ * Proyección cerrada de Category para el enriquecimiento: MongoDB solo devuelve _id y name.
+ */
+public interface CategoryNameView {
+    
+    String getId();
+    
+    String getName();
+}
@@ -1,6 +1,7 @@
 package pe.joedayz.demo_webflux_mongodb.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
@@ -18,6 +19,7 @@ public class CreateExpenseRequest {
     
     @NotNull(message = "El monto es requerido")
     @DecimalMin(value = "0.01", message = "El monto debe ser mayor a 0")
+    @Digits(integer = 12, fraction = 2, message = "El monto admite como máximo dos decimales")
     private BigDecimal amount;
     
     @NotBlank(message = "La descripción es requerida")
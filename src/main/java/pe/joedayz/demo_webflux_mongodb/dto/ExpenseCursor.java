@@ -0,0 +1,64 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+import org.bson.types.ObjectId;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Token de continuación para la paginación por clave (keyset) sobre (date, _id).
+ * Se expone al cliente como texto opaco en base64url; el cliente solo lo devuelve tal cual.
+ */
+public final class ExpenseCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private final LocalDate date;
+    private final ObjectId id;
+    
+    private ExpenseCursor(LocalDate date, ObjectId id) {
+        this.date = date;
+        this.id = id;
+    }
+    
+    /**
+     * Cursor que apunta justo después del gasto indicado
+     */
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), new ObjectId(expense.getId()));
+    }
+    
+    /**
+     * Decodifica un token recibido del cliente; lanza InvalidCursorException si no es válido
+     */
+    public static ExpenseCursor decode(String token) {
+        // Base64 y ObjectId señalan un token mal formado con IllegalArgumentException
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator >= 0) {
+                return new ExpenseCursor(LocalDate.parse(raw.substring(0, separator)),
+                        new ObjectId(raw.substring(separator + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido", e);
+        }
+        throw new InvalidCursorException("Cursor de paginación inválido", null);
+    }
+    
+    public String encode() {
+        String raw = date + SEPARATOR + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public ObjectId getId() {
+        return id;
+    }
+}
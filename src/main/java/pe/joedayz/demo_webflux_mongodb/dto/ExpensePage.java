@@ -0,0 +1,48 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+import java.util.List;
+
+/**
+ * Página de gastos con el cursor para pedir la siguiente.
+ * nextCursor es null cuando no hay más resultados.
+ */
+public class ExpensePage {
+    
+    private List<ExpenseResponse> items;
+    private int size;
+    private String nextCursor;
+    
+    // Constructores
+    public ExpensePage() {}
+    
+    public ExpensePage(List<ExpenseResponse> items, String nextCursor) {
+        this.items = items;
+        this.size = items.size();
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters y Setters
+    public List<ExpenseResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ExpenseResponse> items) {
+        this.items = items;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
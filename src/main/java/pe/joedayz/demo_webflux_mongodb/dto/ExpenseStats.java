@@ -0,0 +1,83 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Estadísticas de gastos calculadas en MongoDB con $group.
+ * El id es la clave de agrupación: usuario, categoría, método de pago o periodo.
+ */
+public class ExpenseStats {
+    
+    private String id;
+    private BigDecimal total;
+    private long count;
+    private BigDecimal average;
+    private BigDecimal min;
+    private BigDecimal max;
+    
+    public enum DateBucket {
+        DAY("%Y-%m-%d"), MONTH("%Y-%m");
+        
+        private final String format;
+        
+        DateBucket(String format) {
+            this.format = format;
+        }
+        
+        public String getFormat() {
+            return format;
+        }
+    }
+    
+    // Constructores
+    public ExpenseStats() {}
+    
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public BigDecimal getAverage() {
+        return average;
+    }
+    
+    public void setAverage(BigDecimal average) {
+        this.average = average;
+    }
+    
+    public BigDecimal getMin() {
+        return min;
+    }
+    
+    public void setMin(BigDecimal min) {
+        this.min = min;
+    }
+    
+    public BigDecimal getMax() {
+        return max;
+    }
+    
+    public void setMax(BigDecimal max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,11 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+/**
+ * Token de paginación que no se pudo decodificar; es el único error que los controladores responden con 400
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+    
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
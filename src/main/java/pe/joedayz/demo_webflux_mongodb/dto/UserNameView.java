@@ -0,0 +1,11 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+/**
+ * Proyección cerrada de User para el enriquecimiento: MongoDB solo devuelve _id y fullName.
+ */
+public interface UserNameView {
+    
+    String getId();
+    
+    String getFullName();
+}
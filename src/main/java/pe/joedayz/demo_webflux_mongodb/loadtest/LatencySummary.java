@@ -0,0 +1,68 @@
+package pe.joedayz.demo_webflux_mongodb.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles de latencia en milisegundos extraídos de un histograma HdrHistogram (registrado en microsegundos)
+ */
+public class LatencySummary {
+    
+    private long count;
+    private double mean;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+    
+    // Constructores
+    public LatencySummary() {}
+    
+    public static LatencySummary from(Histogram histogram) {
+        LatencySummary summary = new LatencySummary();
+        summary.count = histogram.getTotalCount();
+        if (summary.count == 0) {
+            return summary;
+        }
+        summary.mean = toMillis(histogram.getMean());
+        summary.p50 = toMillis(histogram.getValueAtPercentile(50.0));
+        summary.p90 = toMillis(histogram.getValueAtPercentile(90.0));
+        summary.p99 = toMillis(histogram.getValueAtPercentile(99.0));
+        summary.p999 = toMillis(histogram.getValueAtPercentile(99.9));
+        summary.max = toMillis(histogram.getMaxValue());
+        return summary;
+    }
+    
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+    
+    // Getters
+    public long getCount() {
+        return count;
+    }
+    
+    public double getMean() {
+        return mean;
+    }
+    
+    public double getP50() {
+        return p50;
+    }
+    
+    public double getP90() {
+        return p90;
+    }
+    
+    public double getP99() {
+        return p99;
+    }
+    
+    public double getP999() {
+        return p999;
+    }
+    
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,208 @@
+package pe.joedayz.demo_webflux_mongodb.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.loadtest.LoadTestRequest.Operation;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.mongo.MongoInstrumentation;
+import pe.joedayz.demo_webflux_mongodb.mongo.PoolWaitSummary;
+import pe.joedayz.demo_webflux_mongodb.scheduler.ReactorSchedulers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga de lazo abierto contra los endpoints reactivos y tradicionales.
+ * Las peticiones se programan a un ritmo fijo sin esperar a las anteriores; la latencia se mide
+ * desde el instante programado, de modo que las esperas por saturación no se ocultan (omisión coordinada).
+ */
+@Component
+public class LoadGenerator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final ReactorSchedulers schedulers;
+    private final MeterRegistry meterRegistry;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final String reportDir;
+    
+    public LoadGenerator(WebClient.Builder webClientBuilder,
+                        ObjectMapper objectMapper,
+                        Environment environment,
+                        ReactorSchedulers schedulers,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.loadtest.base-url:}") String baseUrl,
+                        @Value("${app.loadtest.request-timeout:30s}") Duration requestTimeout,
+                        @Value("${app.loadtest.report-dir:}") String reportDir) {
+        this.webClientBuilder = webClientBuilder;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.schedulers = schedulers;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.reportDir = reportDir;
+    }
+    
+    public Mono<LoadTestReport> run(LoadTestRequest request) {
+        return Mono.defer(() -> {
+            if (LoadTestRequest.totalWeight(request.getMix()) <= 0) {
+                return Mono.error(new IllegalArgumentException("La suma de los pesos de la mezcla debe ser mayor a 0"));
+            }
+            
+            logger.info("Iniciando carga {} a {} rps durante {} s (concurrencia máxima {})",
+                    request.getStack(), request.getTargetRps(), request.getDurationSeconds(), request.getConcurrency());
+            
+            WebClient client = webClientBuilder.baseUrl(resolveBaseUrl()).build();
+            String basePath = request.getStack() == LoadTestRequest.Stack.REACTIVE
+                    ? "/api/v1/reactive/expenses"
+                    : "/api/v1/traditional/expenses";
+            String mongoClient = request.getStack() == LoadTestRequest.Stack.REACTIVE
+                    ? MongoInstrumentation.REACTIVE
+                    : MongoInstrumentation.SYNC;
+            
+            long scheduledRequests = (long) request.getTargetRps() * request.getDurationSeconds();
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / request.getTargetRps();
+            
+            Histogram latency = new ConcurrentHistogram(3);
+            Histogram serviceTime = new ConcurrentHistogram(3);
+            Map<Operation, Histogram> latencyByOperation = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                latencyByOperation.put(operation, new ConcurrentHistogram(3));
+            }
+            AtomicLong failures = new AtomicLong();
+            PoolWaitSummary poolWaitAtStart = PoolWaitSummary.of(meterRegistry, mongoClient);
+            
+            Instant startedAt = Instant.now();
+            long startNanos = System.nanoTime();
+            
+            return Flux.interval(Duration.ofNanos(intervalNanos))
+                    .take(scheduledRequests)
+                    .onBackpressureBuffer()
+                    .flatMap(tick -> {
+                        long intendedStartNanos = startNanos + (tick + 1) * intervalNanos;
+                        Operation operation = pickOperation(request.getMix());
+                        return execute(client, basePath, request, operation)
+                                .doOnNext(sentNanos -> {
+                                    long now = System.nanoTime();
+                                    long correctedMicros = TimeUnit.NANOSECONDS.toMicros(now - intendedStartNanos);
+                                    latency.recordValue(correctedMicros);
+                                    latencyByOperation.get(operation).recordValue(correctedMicros);
+                                    serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sentNanos));
+                                })
+                                .onErrorResume(error -> {
+                                    failures.incrementAndGet();
+                                    logger.debug("Petición {} fallida: {}", operation, error.getMessage());
+                                    return Mono.empty();
+                                });
+                    }, request.getConcurrency())
+                    .then(Mono.fromCallable(() -> {
+                        long elapsedNanos = System.nanoTime() - startNanos;
+                        LoadTestReport report = new LoadTestReport(request, startedAt, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                        report.setScheduledRequests(scheduledRequests);
+                        report.setCompletedRequests(latency.getTotalCount());
+                        report.setFailedRequests(failures.get());
+                        report.setAchievedRps(latency.getTotalCount() / (elapsedNanos / 1_000_000_000.0));
+                        report.setLatency(LatencySummary.from(latency));
+                        report.setServiceTime(LatencySummary.from(serviceTime));
+                        Map<Operation, LatencySummary> summaries = new EnumMap<>(Operation.class);
+                        latencyByOperation.forEach((operation, histogram) -> summaries.put(operation, LatencySummary.from(histogram)));
+                        report.setLatencyByOperation(summaries);
+                        report.setMongoPoolWait(PoolWaitSummary.of(meterRegistry, mongoClient).since(poolWaitAtStart));
+                        return report;
+                    }))
+                    .flatMap(this::archive)
+                    .doOnNext(report -> logger.info("Carga {} completada: {} ok, {} fallidas, p99 {} ms",
+                            report.getStack(), report.getCompletedRequests(), report.getFailedRequests(),
+                            report.getLatency().getP99()));
+        });
+    }
+    
+    /**
+     * Ejecuta una operación y emite el instante real de envío si la respuesta fue 2xx
+     */
+    private Mono<Long> execute(WebClient client, String basePath, LoadTestRequest request, Operation operation) {
+        return Mono.defer(() -> {
+            long sentNanos = System.nanoTime();
+            WebClient.RequestHeadersSpec<?> spec = switch (operation) {
+                case CREATE -> client.post().uri(basePath).bodyValue(new CreateExpenseRequest(
+                        request.getUserId(),
+                        request.getCategoryId(),
+                        BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 100)),
+                        "Gasto generado por prueba de carga",
+                        Expense.PaymentMethod.values()[ThreadLocalRandom.current().nextInt(Expense.PaymentMethod.values().length)],
+                        LocalDate.now()));
+                case LIST -> client.get().uri(basePath);
+                case BY_USER -> client.get().uri(basePath + "/user/{userId}", request.getUserId());
+                case TOTALS -> client.get().uri(basePath + "/user/{userId}/total", request.getUserId());
+            };
+            return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                    .timeout(requestTimeout)
+                    .flatMap(status -> status.is2xxSuccessful()
+                            ? Mono.just(sentNanos)
+                            : Mono.error(new IllegalStateException("Estado HTTP " + status.value())));
+        });
+    }
+    
+    private static Operation pickOperation(Map<Operation, Integer> mix) {
+        int pick = ThreadLocalRandom.current().nextInt(LoadTestRequest.totalWeight(mix));
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mezcla de operaciones inválida");
+    }
+    
+    private Mono<LoadTestReport> archive(LoadTestReport report) {
+        if (reportDir.isBlank()) {
+            return Mono.just(report);
+        }
+        
+        return Mono.fromCallable(() -> {
+                    Path directory = Files.createDirectories(Path.of(reportDir));
+                    File file = directory.resolve("load-test-" + report.getStack().name().toLowerCase()
+                            + "-" + report.getStartedAt().toEpochMilli() + ".json").toFile();
+                    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+                    logger.info("Reporte de carga archivado en {}", file.getAbsolutePath());
+                    return report;
+                })
+                .subscribeOn(schedulers.blockingBridge());
+    }
+    
+    private String resolveBaseUrl() {
+        if (!baseUrl.isBlank()) {
+            return baseUrl;
+        }
+        return "http://localhost:" + environment.getProperty("local.server.port", "8080");
+    }
+}
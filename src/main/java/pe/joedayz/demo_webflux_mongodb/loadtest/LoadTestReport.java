@@ -0,0 +1,140 @@
+package pe.joedayz.demo_webflux_mongodb.loadtest;
+
+import pe.joedayz.demo_webflux_mongodb.mongo.PoolWaitSummary;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class LoadTestReport {
+    
+    private LoadTestRequest.Stack stack;
+    private int targetRps;
+    private int durationSeconds;
+    private int concurrency;
+    private Map<LoadTestRequest.Operation, Integer> mix;
+    private Instant startedAt;
+    private long elapsedMillis;
+    private long scheduledRequests;
+    private long completedRequests;
+    private long failedRequests;
+    private double achievedRps;
+    private LatencySummary latency;
+    private LatencySummary serviceTime;
+    private Map<LoadTestRequest.Operation, LatencySummary> latencyByOperation;
+    private PoolWaitSummary mongoPoolWait;
+    
+    // Constructores
+    public LoadTestReport() {}
+    
+    public LoadTestReport(LoadTestRequest request, Instant startedAt, long elapsedMillis) {
+        this.stack = request.getStack();
+        this.targetRps = request.getTargetRps();
+        this.durationSeconds = request.getDurationSeconds();
+        this.concurrency = request.getConcurrency();
+        this.mix = request.getMix();
+        this.startedAt = startedAt;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Getters y Setters
+    public LoadTestRequest.Stack getStack() {
+        return stack;
+    }
+    
+    public int getTargetRps() {
+        return targetRps;
+    }
+    
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    public Map<LoadTestRequest.Operation, Integer> getMix() {
+        return mix;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public long getScheduledRequests() {
+        return scheduledRequests;
+    }
+    
+    public void setScheduledRequests(long scheduledRequests) {
+        this.scheduledRequests = scheduledRequests;
+    }
+    
+    public long getCompletedRequests() {
+        return completedRequests;
+    }
+    
+    public void setCompletedRequests(long completedRequests) {
+        this.completedRequests = completedRequests;
+    }
+    
+    public long getFailedRequests() {
+        return failedRequests;
+    }
+    
+    public void setFailedRequests(long failedRequests) {
+        this.failedRequests = failedRequests;
+    }
+    
+    public double getAchievedRps() {
+        return achievedRps;
+    }
+    
+    public void setAchievedRps(double achievedRps) {
+        this.achievedRps = achievedRps;
+    }
+    
+    /**
+     * Latencia corregida por omisión coordinada: se mide desde el instante en que la petición debía enviarse
+     */
+    public LatencySummary getLatency() {
+        return latency;
+    }
+    
+    public void setLatency(LatencySummary latency) {
+        this.latency = latency;
+    }
+    
+    /**
+     * Tiempo de servicio sin corregir: desde el envío real hasta la respuesta
+     */
+    public LatencySummary getServiceTime() {
+        return serviceTime;
+    }
+    
+    public void setServiceTime(LatencySummary serviceTime) {
+        this.serviceTime = serviceTime;
+    }
+    
+    public Map<LoadTestRequest.Operation, LatencySummary> getLatencyByOperation() {
+        return latencyByOperation;
+    }
+    
+    public void setLatencyByOperation(Map<LoadTestRequest.Operation, LatencySummary> latencyByOperation) {
+        this.latencyByOperation = latencyByOperation;
+    }
+    
+    /**
+     * Espera por conexiones del pool de MongoDB del stack probado durante la carga
+     */
+    public PoolWaitSummary getMongoPoolWait() {
+        return mongoPoolWait;
+    }
+    
+    public void setMongoPoolWait(PoolWaitSummary mongoPoolWait) {
+        this.mongoPoolWait = mongoPoolWait;
+    }
+}
@@ -0,0 +1,136 @@
+package pe.joedayz.demo_webflux_mongodb.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class LoadTestRequest {
+    
+    public enum Stack {
+        REACTIVE, TRADITIONAL
+    }
+    
+    public enum Operation {
+        CREATE, LIST, BY_USER, TOTALS
+    }
+    
+    private Stack stack = Stack.REACTIVE;
+    
+    @Min(value = 1, message = "El RPS objetivo debe ser mayor a 0")
+    @Max(value = 10000, message = "El RPS objetivo no puede exceder 10000")
+    private int targetRps = 50;
+    
+    @Min(value = 1, message = "La duración debe ser mayor a 0")
+    @Max(value = 600, message = "La duración no puede exceder 600 segundos")
+    private int durationSeconds = 10;
+    
+    @Min(value = 1, message = "La concurrencia debe ser mayor a 0")
+    private int concurrency = 100;
+    
+    @NotEmpty(message = "La mezcla de operaciones es requerida")
+    private Map<Operation, @NotNull(message = "El peso de cada operación es requerido")
+            @Min(value = 0, message = "El peso de cada operación no puede ser negativo") Integer> mix = defaultMix();
+    
+    @NotBlank(message = "El userId es requerido")
+    private String userId;
+    
+    @NotBlank(message = "El categoryId es requerido")
+    private String categoryId;
+    
+    // Constructores
+    public LoadTestRequest() {}
+    
+    public LoadTestRequest(Stack stack, int targetRps, int durationSeconds, int concurrency,
+                          String userId, String categoryId) {
+        this.stack = stack;
+        this.targetRps = targetRps;
+        this.durationSeconds = durationSeconds;
+        this.concurrency = concurrency;
+        this.userId = userId;
+        this.categoryId = categoryId;
+    }
+    
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.CREATE, 1);
+        mix.put(Operation.LIST, 1);
+        mix.put(Operation.BY_USER, 4);
+        mix.put(Operation.TOTALS, 4);
+        return mix;
+    }
+    
+    // Con todos los pesos en 0 no hay operación que elegir
+    @JsonIgnore
+    @AssertTrue(message = "La suma de los pesos de la mezcla debe ser mayor a 0")
+    public boolean isMixWeighted() {
+        return mix == null || totalWeight(mix) > 0;
+    }
+    
+    static int totalWeight(Map<Operation, Integer> mix) {
+        return mix.values().stream().mapToInt(weight -> weight == null ? 0 : weight).sum();
+    }
+    
+    // Getters y Setters
+    public Stack getStack() {
+        return stack;
+    }
+    
+    public void setStack(Stack stack) {
+        this.stack = stack;
+    }
+    
+    public int getTargetRps() {
+        return targetRps;
+    }
+    
+    public void setTargetRps(int targetRps) {
+        this.targetRps = targetRps;
+    }
+    
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+    
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+    
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+    
+    public void setMix(Map<Operation, Integer> mix) {
+        this.mix = mix;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+}
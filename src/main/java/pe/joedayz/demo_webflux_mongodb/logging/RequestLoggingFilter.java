@@ -0,0 +1,101 @@
+package pe.joedayz.demo_webflux_mongodb.logging;
+
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Id de correlación por petición y un único evento estructurado al terminarla.
+ * El id viaja en el contexto de Reactor y, con spring.reactor.context-propagation=auto, se restaura en el MDC
+ * en cada hilo que procesa la petición (event loop, schedulers e hilos del stack tradicional).
+ * Los eventos se muestrean con app.logging.request-sample-rate; errores 5xx y peticiones lentas se registran siempre.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter implements WebFilter {
+    
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String CONTEXT_KEY = "correlationId";
+    
+    private static final Logger eventLogger = LoggerFactory.getLogger("pe.joedayz.demo_webflux_mongodb.requests");
+    
+    // Ids recibidos de fuera: solo se aceptan si son cortos y seguros para los logs
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    
+    public RequestLoggingFilter(@Value("${app.logging.request-sample-rate:1.0}") double sampleRate,
+                                @Value("${app.logging.slow-request-threshold:1s}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CONTEXT_KEY,
+                () -> MDC.get(CONTEXT_KEY),
+                value -> MDC.put(CONTEXT_KEY, value),
+                () -> MDC.remove(CONTEXT_KEY));
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String correlationId = resolve(exchange.getRequest().getHeaders().getFirst(HEADER));
+        exchange.getResponse().getHeaders().set(HEADER, correlationId);
+        long startNanos = System.nanoTime();
+        
+        return chain.filter(exchange)
+                .doFinally(signal -> logRequest(exchange, correlationId, signal, System.nanoTime() - startNanos))
+                .contextWrite(context -> context.put(CONTEXT_KEY, correlationId));
+    }
+    
+    private void logRequest(ServerWebExchange exchange, String correlationId, SignalType signal, long elapsedNanos) {
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        // Una excepción no manejada aún no ha fijado el estado: se registra como 500
+        int status = signal == SignalType.ON_ERROR ? 500 : statusCode != null ? statusCode.value() : 200;
+        
+        boolean always = status >= 500 || elapsedNanos >= slowThresholdNanos;
+        if (!eventLogger.isInfoEnabled() || !(always || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            return;
+        }
+        
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String method = exchange.getRequest().getMethod().name();
+        String path = exchange.getRequest().getPath().value();
+        
+        MDC.put(CONTEXT_KEY, correlationId);
+        try {
+            eventLogger.atInfo()
+                    .addKeyValue("method", method)
+                    .addKeyValue("path", path)
+                    .addKeyValue("status", status)
+                    .addKeyValue("durationMs", durationMillis)
+                    .addKeyValue("outcome", signal == SignalType.CANCEL ? "cancelled" : "completed")
+                    .log("{} {} -> {} en {} ms", method, path, status, durationMillis);
+        } finally {
+            MDC.remove(CONTEXT_KEY);
+        }
+    }
+    
+    private static String resolve(String header) {
+        if (header != null && VALID_ID.matcher(header).matches()) {
+            return header;
+        }
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,59 @@
+package pe.joedayz.demo_webflux_mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Último resume token procesado de un change stream por instancia (id = instancia:colección).
+ * Al reiniciar, la instancia reanuda su stream desde este punto en lugar de perder los eventos intermedios.
+ */
+@Document(collection = "change_stream_tokens")
+public class ChangeStreamToken {
+    
+    @Id
+    private String id;
+    
+    // Valor _data del resume token
+    @Field("token")
+    private String token;
+    
+    @Field("updatedAt")
+    private Instant updatedAt;
+    
+    // Constructores
+    public ChangeStreamToken() {}
+    
+    public ChangeStreamToken(String id, String token) {
+        this.id = id;
+        this.token = token;
+        this.updatedAt = Instant.now();
+    }
+    
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,105 @@
+package pe.joedayz.demo_webflux_mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+
+/**
+ * Resumen materializado de gastos por usuario, categoría y mes.
+ * Se mantiene con $inc en cada gasto creado; el _id determinista (userId:categoryId:yyyy-MM)
+ * permite leer un resumen con un solo acceso por clave, sin recorrer expenses.
+ */
+@Document(collection = "expense_summaries")
+public class ExpenseSummary {
+    
+    @Id
+    private String id;
+    
+    @Field("userId")
+    private String userId;
+    
+    @Field("categoryId")
+    private String categoryId;
+    
+    // Formato yyyy-MM (YearMonth.toString)
+    @Field("month")
+    private String month;
+    
+    // Se guarda numérico (Decimal128 o céntimos, ver MoneyStorage) para admitir $inc atómicos
+    @Field("total")
+    private BigDecimal total;
+    
+    @Field("count")
+    private long count;
+    
+    @Field("updatedAt")
+    private Instant updatedAt;
+    
+    // Constructores
+    public ExpenseSummary() {}
+    
+    public static String idOf(String userId, String categoryId, YearMonth month) {
+        return userId + ":" + categoryId + ":" + month;
+    }
+    
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getMonth() {
+        return month;
+    }
+    
+    public void setMonth(String month) {
+        this.month = month;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
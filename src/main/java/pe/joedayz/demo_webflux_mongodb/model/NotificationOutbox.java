@@ -0,0 +1,179 @@
+package pe.joedayz.demo_webflux_mongodb.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Notificación pendiente de un gasto (patrón outbox).
+ * La escribe la creación del gasto y la entrega en segundo plano NotificationOutboxDispatcher.
+ */
+@Document(collection = "notification_outbox")
+public class NotificationOutbox {
+    
+    @Id
+    private String id;
+    
+    @Field("expenseId")
+    private String expenseId;
+    
+    @Field("userId")
+    private String userId;
+    
+    @Field("amount")
+    private BigDecimal amount;
+    
+    @Field("status")
+    private Status status;
+    
+    @Field("attempts")
+    private int attempts;
+    
+    @Field("createdAt")
+    private Instant createdAt;
+    
+    @Field("nextAttemptAt")
+    private Instant nextAttemptAt;
+    
+    @Field("claimedAt")
+    private Instant claimedAt;
+    
+    @Field("claimToken")
+    private String claimToken;
+    
+    @Field("sentAt")
+    private Instant sentAt;
+    
+    @Field("lastError")
+    private String lastError;
+    
+    // Enums
+    public enum Status {
+        PENDING, IN_FLIGHT, SENT, FAILED
+    }
+    
+    // Constructores
+    public NotificationOutbox() {}
+    
+    public NotificationOutbox(Expense expense) {
+        this.expenseId = expense.getId();
+        this.userId = expense.getUserId();
+        this.amount = expense.getAmount();
+        this.status = Status.PENDING;
+        this.attempts = 0;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+    
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getExpenseId() {
+        return expenseId;
+    }
+    
+    public void setExpenseId(String expenseId) {
+        this.expenseId = expenseId;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
+    public String getClaimToken() {
+        return claimToken;
+    }
+    
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+    
+    public Instant getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    @Override
+    public String toString() {
+        return "NotificationOutbox{" +
+                "id='" + id + '\'' +
+                ", expenseId='" + expenseId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
@@ -22,6 +22,7 @@ public class User {
     @Field("fullName")
     private String fullName;
     
+    // Se guarda numérico (Decimal128 o céntimos, ver MoneyStorage) para admitir $inc atómicos
     @Field("balance")
     private BigDecimal balance;
     
@@ -0,0 +1,73 @@
+package pe.joedayz.demo_webflux_mongodb.money;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Migra al arrancar los montos guardados en otra representación (double, int32, String, Decimal128 o céntimos)
+ * a la representación activa. Es idempotente: solo toca documentos cuyo tipo no coincide.
+ */
+@Component
+public class MoneyMigration implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigration.class);
+    
+    // Colección y campo de cada monto persistido
+    private static final String[][] MONEY_FIELDS = {
+            {"expenses", "amount"},
+            {"users", "balance"},
+            {"notification_outbox", "amount"},
+            {"expense_summaries", "total"}
+    };
+    
+    private final MongoTemplate mongoTemplate;
+    private final MoneyStorage storage;
+    private final boolean enabled;
+    
+    public MoneyMigration(MongoTemplate mongoTemplate,
+                         MoneyStorage storage,
+                         @Value("${app.money.migrate-on-startup:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage;
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        
+        for (String[] moneyField : MONEY_FIELDS) {
+            long migrated = migrate(moneyField[0], moneyField[1]);
+            if (migrated > 0) {
+                logger.info("Migrados {} montos de {}.{} a {}", migrated, moneyField[0], moneyField[1], storage);
+            }
+        }
+    }
+    
+    long migrate(String collection, String field) {
+        Bson filter;
+        if (storage == MoneyStorage.CENTS) {
+            filter = Filters.and(Filters.ne(field, null), Filters.not(Filters.type(field, "long")));
+        } else {
+            filter = Filters.and(Filters.ne(field, null), Filters.not(Filters.type(field, "decimal")));
+        }
+        Document target = storage.toStored(MoneyStorage.decimalOf(field));
+        
+        return mongoTemplate.getCollection(collection)
+                .updateMany(filter, List.of(Updates.set(field, target)))
+                .getModifiedCount();
+    }
+}
@@ -0,0 +1,91 @@
+package pe.joedayz.demo_webflux_mongodb.money;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Representación de los montos en MongoDB (app.money.storage).
+ * DECIMAL128 guarda el valor exacto; CENTS guarda unidades menores en un long, de modo que
+ * $sum y $inc trabajan con enteros y el cliente recibe un primitivo.
+ * Solo CENTS escribe int64, así que un long siempre son céntimos; un int32 (p. ej. 5000 sembrado con
+ * mongosh en init.js) es un monto en unidades y nunca se reinterpreta.
+ */
+public enum MoneyStorage {
+    
+    DECIMAL128 {
+        @Override
+        public Object write(BigDecimal amount) {
+            return new Decimal128(amount);
+        }
+        
+        @Override
+        public Document toStored(Document decimal) {
+            return decimal;
+        }
+    },
+    
+    CENTS {
+        @Override
+        public Object write(BigDecimal amount) {
+            // Los montos se validan con dos decimales como máximo; si no, falla en lugar de redondear
+            return amount.movePointRight(2).longValueExact();
+        }
+        
+        @Override
+        public Document toStored(Document decimal) {
+            return new Document("$toLong", new Document("$round",
+                    List.of(new Document("$multiply", List.of(decimal, 100)), 0)));
+        }
+    };
+    
+    public abstract Object write(BigDecimal amount);
+    
+    /**
+     * Expresión de agregación que lleva un monto decimal a esta representación
+     */
+    public abstract Document toStored(Document decimal);
+    
+    /**
+     * Expresión de agregación con el valor exacto del campo sea cual sea su tipo; solo los long son céntimos
+     */
+    public static Document decimalOf(String field) {
+        String path = "$" + field;
+        return new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$type", path), "long")),
+                new Document("$divide", List.of(new Document("$toDecimal", path), 100)),
+                new Document("$toDecimal", path)));
+    }
+    
+    /**
+     * Lee un monto guardado en cualquiera de las representaciones, incluidas las antiguas
+     * (double e int32 de los datos de ejemplo y String de Spring Data)
+     */
+    public static BigDecimal read(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (stored instanceof Long cents) {
+            return fromCents(cents);
+        }
+        if (stored instanceof Integer units) {
+            return BigDecimal.valueOf(units);
+        }
+        if (stored instanceof Double value) {
+            return BigDecimal.valueOf(value);
+        }
+        if (stored instanceof BigDecimal value) {
+            return value;
+        }
+        return new BigDecimal(stored.toString());
+    }
+    
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,30 @@
+package pe.joedayz.demo_webflux_mongodb.money;
+
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversor de los campos de dinero registrado por propiedad en MongoConfig.
+ * También lo aplican QueryMapper y UpdateMapper, así un $inc con BigDecimal se guarda en la representación activa.
+ */
+public class MoneyValueConverter implements MongoValueConverter<Object, Object> {
+    
+    private final MoneyStorage storage;
+    
+    public MoneyValueConverter(MoneyStorage storage) {
+        this.storage = storage;
+    }
+    
+    @Override
+    public Object read(Object value, MongoConversionContext context) {
+        return MoneyStorage.read(value);
+    }
+    
+    @Override
+    public Object write(Object value, MongoConversionContext context) {
+        // Valores ya convertidos (p. ej. operadores de consulta) se dejan tal cual
+        return value instanceof BigDecimal amount ? storage.write(amount) : value;
+    }
+}
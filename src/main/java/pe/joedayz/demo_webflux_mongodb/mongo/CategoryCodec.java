@@ -0,0 +1,48 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+
+/**
+ * Category leída campo a campo desde el stream BSON
+ */
+public class CategoryCodec implements Codec<Category> {
+    
+    @Override
+    public Category decode(BsonReader reader, DecoderContext decoderContext) {
+        Category category = new Category();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> category.setId(EntityCodecs.readId(reader));
+                case "name" -> category.setName(EntityCodecs.readString(reader));
+                case "description" -> category.setDescription(EntityCodecs.readString(reader));
+                case "color" -> category.setColor(EntityCodecs.readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return category;
+    }
+    
+    @Override
+    public void encode(BsonWriter writer, Category category, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        EntityCodecs.writeId(writer, category.getId());
+        EntityCodecs.writeString(writer, "name", category.getName());
+        EntityCodecs.writeString(writer, "description", category.getDescription());
+        EntityCodecs.writeString(writer, "color", category.getColor());
+        writer.writeString(EntityCodecs.TYPE_KEY, Category.class.getName());
+        writer.writeEndDocument();
+    }
+    
+    @Override
+    public Class<Category> getEncoderClass() {
+        return Category.class;
+    }
+}
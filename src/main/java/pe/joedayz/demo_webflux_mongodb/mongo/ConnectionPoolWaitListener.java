@@ -0,0 +1,102 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Espera para obtener una conexión del pool y saturación del pool de un cliente.
+ * mongodb.driver.pool.checkout.wait: tiempo desde que se pide la conexión hasta obtenerla (o fallar);
+ * mongodb.driver.pool.saturation: conexiones prestadas / tamaño máximo, sumando todos los servidores.
+ */
+class ConnectionPoolWaitListener implements ConnectionPoolListener {
+    
+    private final Map<ServerId, PoolUsage> pools = new ConcurrentHashMap<>();
+    private final Timer checkedOut;
+    private final Timer timedOut;
+    private final Timer failed;
+    
+    ConnectionPoolWaitListener(String client, MeterRegistry meterRegistry) {
+        this.checkedOut = waitTimer(client, "checked_out", meterRegistry);
+        this.timedOut = waitTimer(client, "timeout", meterRegistry);
+        this.failed = waitTimer(client, "failed", meterRegistry);
+        Gauge.builder("mongodb.driver.pool.saturation", this, ConnectionPoolWaitListener::saturation)
+                .description("Conexiones prestadas sobre el tamaño máximo del pool")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        pools.put(event.getServerId(), new PoolUsage(event.getSettings().getMaxSize()));
+    }
+    
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        pools.remove(event.getServerId());
+    }
+    
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        PoolUsage usage = pools.get(event.getConnectionId().getServerId());
+        if (usage != null) {
+            usage.checkedOut.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Timer timer = event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT ? timedOut : failed;
+        timer.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        PoolUsage usage = pools.get(event.getConnectionId().getServerId());
+        if (usage != null) {
+            usage.checkedOut.decrementAndGet();
+        }
+    }
+    
+    double saturation() {
+        long maxSize = 0;
+        long inUse = 0;
+        for (PoolUsage usage : pools.values()) {
+            maxSize += usage.maxSize;
+            inUse += usage.checkedOut.get();
+        }
+        return maxSize == 0 ? 0 : (double) inUse / maxSize;
+    }
+    
+    private static Timer waitTimer(String client, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("mongodb.driver.pool.checkout.wait")
+                .description("Espera hasta obtener una conexión del pool")
+                .tag("client", client)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static class PoolUsage {
+        
+        private final int maxSize;
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        
+        PoolUsage(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+}
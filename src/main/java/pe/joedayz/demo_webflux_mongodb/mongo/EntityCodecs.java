@@ -0,0 +1,150 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Codecs escritos a mano para Expense, User y Category, registrados en ambos clientes.
+ * Leen y escriben los documentos con el mismo formato que MappingMongoConverter: _id como ObjectId si es
+ * un hex válido, fechas en la zona del sistema y montos según MoneyStorage.
+ */
+public final class EntityCodecs {
+    
+    static final String TYPE_KEY = "_class";
+    
+    private EntityCodecs() {
+    }
+    
+    /**
+     * Registro del driver con los codecs de las entidades delante de los codecs por defecto
+     */
+    public static CodecRegistry registry(MoneyStorage moneyStorage) {
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(new ExpenseCodec(moneyStorage), new UserCodec(moneyStorage), new CategoryCodec()),
+                MongoClientSettings.getDefaultCodecRegistry());
+    }
+    
+    /**
+     * Valor de _id tal como lo guarda Spring Data para un id String
+     */
+    public static Object storedId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+    
+    /**
+     * _id o referencia a otro documento (userId, categoryId): un ObjectId se lee como hex, igual que en MappingMongoConverter
+     */
+    static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case NULL -> readNull(reader);
+            default -> reader.readString();
+        };
+    }
+    
+    static void writeId(BsonWriter writer, String id) {
+        if (id == null) {
+            return;
+        }
+        writer.writeName("_id");
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+    
+    static String readString(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL ? readNull(reader) : reader.readString();
+    }
+    
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+    
+    static <E extends Enum<E>> E readEnum(BsonReader reader, Class<E> type) {
+        String name = readString(reader);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+    
+    static void writeEnum(BsonWriter writer, String name, Enum<?> value) {
+        if (value != null) {
+            writer.writeString(name, value.name());
+        }
+    }
+    
+    static LocalDate readLocalDate(BsonReader reader) {
+        Instant instant = readInstant(reader);
+        return instant == null ? null : LocalDate.ofInstant(instant, ZoneId.systemDefault());
+    }
+    
+    static void writeLocalDate(BsonWriter writer, String name, LocalDate value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+    
+    static LocalDateTime readLocalDateTime(BsonReader reader) {
+        Instant instant = readInstant(reader);
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+    
+    static void writeLocalDateTime(BsonWriter writer, String name, LocalDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+    
+    /**
+     * Monto en cualquiera de las representaciones que acepta MoneyStorage.read
+     */
+    static BigDecimal readMoney(BsonReader reader) {
+        return MoneyStorage.read(switch (reader.getCurrentBsonType()) {
+            case DECIMAL128 -> reader.readDecimal128();
+            case INT64 -> reader.readInt64();
+            case INT32 -> reader.readInt32();
+            case DOUBLE -> reader.readDouble();
+            case NULL -> readNull(reader);
+            default -> reader.readString();
+        });
+    }
+    
+    static void writeMoney(BsonWriter writer, String name, BigDecimal value, MoneyStorage moneyStorage) {
+        if (value == null) {
+            return;
+        }
+        Object stored = moneyStorage.write(value);
+        writer.writeName(name);
+        if (stored instanceof Decimal128 decimal) {
+            writer.writeDecimal128(decimal);
+        } else {
+            writer.writeInt64((Long) stored);
+        }
+    }
+    
+    private static Instant readInstant(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL
+                ? readNull(reader)
+                : Instant.ofEpochMilli(reader.readDateTime());
+    }
+    
+    private static <T> T readNull(BsonReader reader) {
+        reader.readNull();
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+/**
+ * Expense leído campo a campo desde el stream BSON, sin Document intermedio ni reflexión
+ */
+public class ExpenseCodec implements Codec<Expense> {
+    
+    private final MoneyStorage moneyStorage;
+    
+    public ExpenseCodec(MoneyStorage moneyStorage) {
+        this.moneyStorage = moneyStorage;
+    }
+    
+    @Override
+    public Expense decode(BsonReader reader, DecoderContext decoderContext) {
+        Expense expense = new Expense();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> expense.setId(EntityCodecs.readId(reader));
+                // Los datos de ejemplo (init.js) guardan las referencias como ObjectId
+                case "userId" -> expense.setUserId(EntityCodecs.readId(reader));
+                case "categoryId" -> expense.setCategoryId(EntityCodecs.readId(reader));
+                case "amount" -> expense.setAmount(EntityCodecs.readMoney(reader));
+                case "description" -> expense.setDescription(EntityCodecs.readString(reader));
+                case "paymentMethod" -> expense.setPaymentMethod(EntityCodecs.readEnum(reader, Expense.PaymentMethod.class));
+                case "date" -> expense.setDate(EntityCodecs.readLocalDate(reader));
+                case "createdAt" -> expense.setCreatedAt(EntityCodecs.readLocalDateTime(reader));
+                case "status" -> expense.setStatus(EntityCodecs.readEnum(reader, Expense.ExpenseStatus.class));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return expense;
+    }
+    
+    @Override
+    public void encode(BsonWriter writer, Expense expense, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        EntityCodecs.writeId(writer, expense.getId());
+        EntityCodecs.writeString(writer, "userId", expense.getUserId());
+        EntityCodecs.writeString(writer, "categoryId", expense.getCategoryId());
+        EntityCodecs.writeMoney(writer, "amount", expense.getAmount(), moneyStorage);
+        EntityCodecs.writeString(writer, "description", expense.getDescription());
+        EntityCodecs.writeEnum(writer, "paymentMethod", expense.getPaymentMethod());
+        EntityCodecs.writeLocalDate(writer, "date", expense.getDate());
+        EntityCodecs.writeLocalDateTime(writer, "createdAt", expense.getCreatedAt());
+        EntityCodecs.writeEnum(writer, "status", expense.getStatus());
+        writer.writeString(EntityCodecs.TYPE_KEY, Expense.class.getName());
+        writer.writeEndDocument();
+    }
+    
+    @Override
+    public Class<Expense> getEncoderClass() {
+        return Expense.class;
+    }
+}
@@ -0,0 +1,147 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool y sockets de cada cliente de MongoDB (app.mongo.clients.*).
+ * El cliente sync necesita una conexión por hilo que consulta a la vez; el reactivo multiplexa
+ * todas las peticiones sobre pocas conexiones.
+ */
+@ConfigurationProperties(prefix = "app.mongo.clients")
+public class MongoClientsProperties {
+    
+    private Client sync = new Client(200, 10);
+    private Client reactive = new Client(30, 5);
+    
+    public static class Client {
+        
+        // Conexiones por servidor: máximo, mínimas mantenidas abiertas y establecimientos simultáneos
+        private int maxPoolSize;
+        private int minPoolSize;
+        private int maxConnecting = 2;
+        
+        // Espera máxima por una conexión libre antes de fallar con MongoTimeoutException
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+        
+        private Duration maxConnectionIdleTime = Duration.ofSeconds(30);
+        private Duration maxConnectionLifeTime = Duration.ofMinutes(5);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        
+        // 0 = sin límite de lectura en el socket
+        private Duration readTimeout = Duration.ofSeconds(30);
+        
+        // primary, primaryPreferred, secondary, secondaryPreferred o nearest
+        private String readPreference = "primary";
+        
+        // zlib, snappy o zstd, en orden de preferencia; vacío = sin compresión
+        private List<String> compressors = new ArrayList<>();
+        
+        public Client() {}
+        
+        public Client(int maxPoolSize, int minPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+            this.minPoolSize = minPoolSize;
+        }
+        
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+        
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+        
+        public int getMinPoolSize() {
+            return minPoolSize;
+        }
+        
+        public void setMinPoolSize(int minPoolSize) {
+            this.minPoolSize = minPoolSize;
+        }
+        
+        public int getMaxConnecting() {
+            return maxConnecting;
+        }
+        
+        public void setMaxConnecting(int maxConnecting) {
+            this.maxConnecting = maxConnecting;
+        }
+        
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+        
+        public void setMaxWaitTime(Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+        
+        public Duration getMaxConnectionIdleTime() {
+            return maxConnectionIdleTime;
+        }
+        
+        public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+        
+        public Duration getMaxConnectionLifeTime() {
+            return maxConnectionLifeTime;
+        }
+        
+        public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+            this.maxConnectionLifeTime = maxConnectionLifeTime;
+        }
+        
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+        
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+        
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+        
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+        
+        public String getReadPreference() {
+            return readPreference;
+        }
+        
+        public void setReadPreference(String readPreference) {
+            this.readPreference = readPreference;
+        }
+        
+        public List<String> getCompressors() {
+            return compressors;
+        }
+        
+        public void setCompressors(List<String> compressors) {
+            this.compressors = compressors;
+        }
+    }
+    
+    // Getters y Setters
+    public Client getSync() {
+        return sync;
+    }
+    
+    public void setSync(Client sync) {
+        this.sync = sync;
+    }
+    
+    public Client getReactive() {
+        return reactive;
+    }
+    
+    public void setReactive(Client reactive) {
+        this.reactive = reactive;
+    }
+}
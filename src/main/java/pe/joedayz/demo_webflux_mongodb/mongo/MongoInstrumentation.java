@@ -0,0 +1,72 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoConnectionPoolTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instrumentación de un cliente de MongoDB, etiquetada con client (sync | reactive):
+ * - mongodb.driver.commands: latencia por comando y colección (listener de Micrometer)
+ * - mongodb.driver.pool.*: tamaño, conexiones prestadas y cola de espera del pool (listener de Micrometer)
+ * - mongodb.driver.pool.checkout.wait y mongodb.driver.pool.saturation
+ * - comandos lentos en SlowQueryLog
+ */
+@Component
+public class MongoInstrumentation {
+    
+    public static final String SYNC = "sync";
+    public static final String REACTIVE = "reactive";
+    
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+    
+    public MongoInstrumentation(MeterRegistry meterRegistry, SlowQueryLog slowQueryLog) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = slowQueryLog;
+    }
+    
+    public MongoClientSettingsBuilderCustomizer customizer(String client) {
+        Tag clientTag = Tag.of("client", client);
+        DefaultMongoConnectionPoolTagsProvider poolTags = new DefaultMongoConnectionPoolTagsProvider();
+        
+        return builder -> builder
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry, new ClientCommandTags(clientTag)))
+                .addCommandListener(slowQueryLog.listener(client))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry,
+                                event -> Tags.of(poolTags.connectionPoolTags(event)).and(clientTag)))
+                        .addConnectionPoolListener(new ConnectionPoolWaitListener(client, meterRegistry)));
+    }
+    
+    /**
+     * Etiquetas por defecto (comando, colección, estado, servidor) más el cliente
+     */
+    private static class ClientCommandTags implements MongoCommandTagsProvider {
+        
+        private final DefaultMongoCommandTagsProvider delegate = new DefaultMongoCommandTagsProvider();
+        private final Tag clientTag;
+        
+        ClientCommandTags(Tag clientTag) {
+            this.clientTag = clientTag;
+        }
+        
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            delegate.commandStarted(event);
+        }
+        
+        @Override
+        public Iterable<Tag> commandTags(CommandEvent event) {
+            return Tags.of(delegate.commandTags(event)).and(clientTag);
+        }
+    }
+}
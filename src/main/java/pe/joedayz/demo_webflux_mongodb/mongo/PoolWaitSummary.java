@@ -0,0 +1,81 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Espera acumulada por conexiones del pool de un cliente (mongodb.driver.pool.checkout.wait).
+ * Con since() se obtiene la espera durante una prueba a partir de dos lecturas.
+ */
+public class PoolWaitSummary {
+    
+    private final String client;
+    private final long checkouts;
+    private final long timeouts;
+    private final double totalWaitMillis;
+    private final double maxWaitMillis;
+    
+    private PoolWaitSummary(String client, long checkouts, long timeouts, double totalWaitMillis, double maxWaitMillis) {
+        this.client = client;
+        this.checkouts = checkouts;
+        this.timeouts = timeouts;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+    
+    public static PoolWaitSummary of(MeterRegistry meterRegistry, String client) {
+        long checkouts = 0;
+        long timeouts = 0;
+        double totalWaitMillis = 0;
+        double maxWaitMillis = 0;
+        for (Timer timer : meterRegistry.find("mongodb.driver.pool.checkout.wait").tag("client", client).timers()) {
+            checkouts += timer.count();
+            if ("timeout".equals(timer.getId().getTag("outcome"))) {
+                timeouts += timer.count();
+            }
+            totalWaitMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxWaitMillis = Math.max(maxWaitMillis, timer.max(TimeUnit.MILLISECONDS));
+        }
+        return new PoolWaitSummary(client, checkouts, timeouts, totalWaitMillis, maxWaitMillis);
+    }
+    
+    /**
+     * Diferencia con una lectura anterior; el máximo es el de la ventana reciente del timer
+     */
+    public PoolWaitSummary since(PoolWaitSummary start) {
+        return new PoolWaitSummary(client, checkouts - start.checkouts, timeouts - start.timeouts,
+                totalWaitMillis - start.totalWaitMillis, maxWaitMillis);
+    }
+    
+    public String getClient() {
+        return client;
+    }
+    
+    public long getCheckouts() {
+        return checkouts;
+    }
+    
+    public long getTimeouts() {
+        return timeouts;
+    }
+    
+    public double getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+    
+    public double getMeanWaitMillis() {
+        return checkouts == 0 ? 0 : totalWaitMillis / checkouts;
+    }
+    
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d conexiones, espera media %.3f ms, máxima %.3f ms, %d timeouts",
+                checkouts, getMeanWaitMillis(), maxWaitMillis, timeouts);
+    }
+}
@@ -0,0 +1,75 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.Map;
+
+/**
+ * Forma de la consulta de un comando: mismas claves y operadores, con los valores sustituidos por "?".
+ * Agrupa consultas que solo difieren en los parámetros y evita guardar datos de usuarios en memoria.
+ */
+final class QueryShape {
+    
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+    
+    private QueryShape() {
+    }
+    
+    /**
+     * Forma del filtro o pipeline del comando, o null si el comando no filtra (insert, getMore...)
+     */
+    static String of(String commandName, BsonDocument command) {
+        BsonValue query = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "aggregate" -> command.get("pipeline");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "update" -> firstStatementField(command, "updates", "q");
+            case "delete" -> firstStatementField(command, "deletes", "q");
+            default -> null;
+        };
+        if (query == null) {
+            return null;
+        }
+        return query.isArray()
+                ? new BsonDocument("pipeline", shape(query)).toJson()
+                : shape(query).asDocument().toJson();
+    }
+    
+    static BsonValue shape(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shaped = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                shaped.put(entry.getKey(), shape(entry.getValue()));
+            }
+            return shaped;
+        }
+        if (value.isArray()) {
+            // Subdocumentos ($and, $or, etapas) conservan su forma; listas de valores ($in) quedan en ["?"]
+            BsonArray shaped = new BsonArray();
+            for (BsonValue element : value.asArray()) {
+                if (element.isDocument()) {
+                    shaped.add(shape(element));
+                } else if (shaped.isEmpty()) {
+                    shaped.add(PLACEHOLDER);
+                }
+            }
+            return shaped;
+        }
+        // Las rutas de campo ("$userId") describen la consulta, no los datos
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value;
+        }
+        return PLACEHOLDER;
+    }
+    
+    private static BsonValue firstStatementField(BsonDocument command, String statements, String field) {
+        BsonValue array = command.get(statements);
+        if (array == null || !array.isArray() || array.asArray().isEmpty()) {
+            return null;
+        }
+        return array.asArray().get(0).asDocument().get(field);
+    }
+}
@@ -0,0 +1,63 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import java.time.Instant;
+
+/**
+ * Comando de MongoDB que superó el umbral de lentitud
+ */
+public class SlowQuery {
+    
+    private final Instant finishedAt;
+    private final String client;
+    private final String database;
+    private final String collection;
+    private final String command;
+    private final String shape;
+    private final double durationMillis;
+    private final boolean failed;
+    
+    public SlowQuery(Instant finishedAt, String client, String database, String collection, String command,
+                     String shape, double durationMillis, boolean failed) {
+        this.finishedAt = finishedAt;
+        this.client = client;
+        this.database = database;
+        this.collection = collection;
+        this.command = command;
+        this.shape = shape;
+        this.durationMillis = durationMillis;
+        this.failed = failed;
+    }
+    
+    // Getters
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public String getClient() {
+        return client;
+    }
+    
+    public String getDatabase() {
+        return database;
+    }
+    
+    public String getCollection() {
+        return collection;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public String getShape() {
+        return shape;
+    }
+    
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public boolean isFailed() {
+        return failed;
+    }
+}
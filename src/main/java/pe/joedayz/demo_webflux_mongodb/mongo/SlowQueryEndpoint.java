@@ -0,0 +1,38 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/slowqueries: comandos de MongoDB más lentos que el umbral, del más lento al más rápido.
+ * DELETE vacía el buffer.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    
+    private final SlowQueryLog slowQueryLog;
+    
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("thresholdMillis", slowQueryLog.getThresholdMillis());
+        view.put("recorded", slowQueryLog.getRecorded());
+        view.put("queries", slowQueryLog.snapshot());
+        return view;
+    }
+    
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
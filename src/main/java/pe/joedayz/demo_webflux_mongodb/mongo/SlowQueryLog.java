@@ -0,0 +1,136 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer circular acotado con los últimos comandos que superaron app.mongo.slow-query.threshold.
+ * Al empezar cada comando solo se guarda la forma de su filtro (el documento del comando deja de ser válido
+ * al salir del evento); al terminar se descarta si fue rápido. Se consulta en /actuator/slowqueries.
+ */
+@Component
+public class SlowQueryLog {
+    
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final SlowQuery[] entries;
+    private int next;
+    private long recorded;
+    
+    public SlowQueryLog(@Value("${app.mongo.slow-query.enabled:true}") boolean enabled,
+                        @Value("${app.mongo.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${app.mongo.slow-query.capacity:100}") int capacity) {
+        this.enabled = enabled;
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new SlowQuery[capacity];
+    }
+    
+    /**
+     * Listener de comandos para un cliente concreto (sync o reactive)
+     */
+    public CommandListener listener(String client) {
+        return new SlowQueryListener(client);
+    }
+    
+    /**
+     * Comandos lentos retenidos, del más lento al más rápido
+     */
+    public synchronized List<SlowQuery> snapshot() {
+        List<SlowQuery> snapshot = new ArrayList<>(entries.length);
+        for (SlowQuery entry : entries) {
+            if (entry != null) {
+                snapshot.add(entry);
+            }
+        }
+        snapshot.sort(Comparator.comparingDouble(SlowQuery::getDurationMillis).reversed());
+        return snapshot;
+    }
+    
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+    
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+    
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+    }
+    
+    synchronized void record(SlowQuery slowQuery) {
+        entries[next] = slowQuery;
+        next = (next + 1) % entries.length;
+        recorded++;
+    }
+    
+    private class SlowQueryListener implements CommandListener {
+        
+        private final String client;
+        private final Map<Integer, Started> started = new ConcurrentHashMap<>();
+        
+        SlowQueryListener(String client) {
+            this.client = client;
+        }
+        
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (!enabled) {
+                return;
+            }
+            BsonDocument command = event.getCommand();
+            BsonValue target = command.get(event.getCommandName());
+            String collection = target != null && target.isString() ? target.asString().getValue() : null;
+            started.put(event.getRequestId(), new Started(collection, QueryShape.of(event.getCommandName(), command)));
+        }
+        
+        @Override
+        public void commandSucceeded(CommandSucceededEvent event) {
+            finish(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                    event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+        }
+        
+        @Override
+        public void commandFailed(CommandFailedEvent event) {
+            finish(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                    event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+        }
+        
+        private void finish(int requestId, String database, String commandName, long elapsedNanos, boolean failed) {
+            Started start = started.remove(requestId);
+            if (start == null || elapsedNanos < thresholdNanos) {
+                return;
+            }
+            record(new SlowQuery(Instant.now(), client, database, start.collection, commandName, start.shape,
+                    elapsedNanos / 1_000_000.0, failed));
+        }
+    }
+    
+    private static class Started {
+        
+        private final String collection;
+        private final String shape;
+        
+        Started(String collection, String shape) {
+            this.collection = collection;
+            this.shape = shape;
+        }
+    }
+}
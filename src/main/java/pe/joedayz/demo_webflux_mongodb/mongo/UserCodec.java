@@ -0,0 +1,59 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+/**
+ * User leído campo a campo desde el stream BSON; el saldo se guarda según MoneyStorage
+ */
+public class UserCodec implements Codec<User> {
+    
+    private final MoneyStorage moneyStorage;
+    
+    public UserCodec(MoneyStorage moneyStorage) {
+        this.moneyStorage = moneyStorage;
+    }
+    
+    @Override
+    public User decode(BsonReader reader, DecoderContext decoderContext) {
+        User user = new User();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> user.setId(EntityCodecs.readId(reader));
+                case "username" -> user.setUsername(EntityCodecs.readString(reader));
+                case "email" -> user.setEmail(EntityCodecs.readString(reader));
+                case "fullName" -> user.setFullName(EntityCodecs.readString(reader));
+                case "balance" -> user.setBalance(EntityCodecs.readMoney(reader));
+                case "createdAt" -> user.setCreatedAt(EntityCodecs.readLocalDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return user;
+    }
+    
+    @Override
+    public void encode(BsonWriter writer, User user, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        EntityCodecs.writeId(writer, user.getId());
+        EntityCodecs.writeString(writer, "username", user.getUsername());
+        EntityCodecs.writeString(writer, "email", user.getEmail());
+        EntityCodecs.writeString(writer, "fullName", user.getFullName());
+        EntityCodecs.writeMoney(writer, "balance", user.getBalance(), moneyStorage);
+        EntityCodecs.writeLocalDateTime(writer, "createdAt", user.getCreatedAt());
+        writer.writeString(EntityCodecs.TYPE_KEY, User.class.getName());
+        writer.writeEndDocument();
+    }
+    
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+}
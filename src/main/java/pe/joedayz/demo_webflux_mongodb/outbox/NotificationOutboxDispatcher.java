@@ -0,0 +1,266 @@
+package pe.joedayz.demo_webflux_mongodb.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveNotificationOutboxRepository;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Despachador en segundo plano del outbox de notificaciones, compartido por ambos stacks.
+ * En cada ciclo reclama un lote de entradas vencidas, las entrega con una ventana acotada
+ * de envíos en curso y registra el resultado de todo el lote con un solo bulkWrite.
+ */
+@Component
+public class NotificationOutboxDispatcher implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+    
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveNotificationOutboxRepository outboxRepository;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration claimTimeout;
+    private final SimulationProfile simulation;
+    
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer endToEnd;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    
+    private volatile Disposable subscription;
+    
+    public NotificationOutboxDispatcher(ReactiveMongoTemplate mongoTemplate,
+                                      ReactiveNotificationOutboxRepository outboxRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.outbox.enabled:true}") boolean enabled,
+                                      @Value("${app.outbox.poll-interval:500ms}") Duration pollInterval,
+                                      @Value("${app.outbox.batch-size:100}") int batchSize,
+                                      @Value("${app.outbox.max-in-flight:32}") int maxInFlight,
+                                      @Value("${app.outbox.max-attempts:5}") int maxAttempts,
+                                      @Value("${app.outbox.retry-backoff:1s}") Duration retryBackoff,
+                                      @Value("${app.outbox.claim-timeout:1m}") Duration claimTimeout,
+                                      SimulationProfile simulation) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxRepository = outboxRepository;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimTimeout = claimTimeout;
+        this.simulation = simulation;
+        
+        this.sent = Counter.builder("expense.notifications.dispatched")
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        this.retried = Counter.builder("expense.notifications.dispatched")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        this.failed = Counter.builder("expense.notifications.dispatched")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.endToEnd = Timer.builder("expense.notifications.delay")
+                .description("Tiempo desde que se escribe la notificación hasta que se entrega")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("expense.notifications.outbox.pending", pending, AtomicLong::get)
+                .description("Notificaciones pendientes en el outbox")
+                .register(meterRegistry);
+        Gauge.builder("expense.notifications.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Retraso en segundos de la notificación vencida más antigua")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Despachador del outbox de notificaciones deshabilitado");
+            return;
+        }
+        
+        logger.info("Iniciando despachador del outbox cada {} (lote {}, ventana {})", pollInterval, batchSize, maxInFlight);
+        subscription = Flux.interval(pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(error -> {
+                            logger.warn("Error al despachar el outbox: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+    
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+            subscription = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+    
+    /**
+     * Un ciclo del despachador: reclama, entrega y confirma un lote, y actualiza las métricas de retraso
+     */
+    Mono<Void> drain() {
+        return claimBatch()
+                .flatMap(batch -> batch.isEmpty() ? Mono.empty() : dispatch(batch))
+                .then(refreshBacklogMetrics());
+    }
+    
+    /**
+     * Reclama hasta batchSize entradas vencidas con un token propio; una entrada IN_FLIGHT cuyo
+     * reclamo superó claimTimeout (p. ej. por una caída) vuelve a ser reclamable
+     */
+    private Mono<List<NotificationOutbox>> claimBatch() {
+        Instant now = Instant.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(NotificationOutbox.Status.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(NotificationOutbox.Status.IN_FLIGHT).and("claimedAt").lte(now.minus(claimTimeout)));
+        
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"))
+                .limit(batchSize);
+        candidates.fields().include("id");
+        
+        String claimToken = UUID.randomUUID().toString();
+        return mongoTemplate.find(candidates, NotificationOutbox.class)
+                .map(NotificationOutbox::getId)
+                .collectList()
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(List.<NotificationOutbox>of())
+                        : mongoTemplate.updateMulti(
+                                        Query.query(new Criteria().andOperator(Criteria.where("id").in(ids), claimable)),
+                                        new Update()
+                                                .set("status", NotificationOutbox.Status.IN_FLIGHT)
+                                                .set("claimedAt", now)
+                                                .set("claimToken", claimToken),
+                                        NotificationOutbox.class)
+                                .thenMany(mongoTemplate.find(Query.query(Criteria.where("claimToken").is(claimToken)),
+                                        NotificationOutbox.class))
+                                .collectList());
+    }
+    
+    private Mono<Void> dispatch(List<NotificationOutbox> batch) {
+        ReactiveBulkOperations acknowledgements = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationOutbox.class);
+        
+        return existingExpenseIds(batch)
+                .flatMapMany(existing -> Flux.fromIterable(batch)
+                        .flatMap(entry -> deliver(entry, existing)
+                                .then(Mono.fromRunnable(() -> acknowledgeSent(acknowledgements, entry)))
+                                .onErrorResume(error -> Mono.fromRunnable(() -> acknowledgeFailure(acknowledgements, entry, error))),
+                                maxInFlight))
+                .then(Mono.defer(acknowledgements::execute))
+                .doOnNext(result -> logger.debug("Lote del outbox confirmado: {} entradas", batch.size()))
+                .then();
+    }
+    
+    /**
+     * Entrega simulada; la notificación solo sale si el gasto ya es visible, porque el outbox
+     * se escribe antes que el gasto y este pudo no llegar a guardarse
+     */
+    private Mono<Void> deliver(NotificationOutbox entry, Set<String> existingExpenseIds) {
+        if (!existingExpenseIds.contains(entry.getExpenseId())) {
+            return Mono.error(new IllegalStateException("Gasto no encontrado: " + entry.getExpenseId()));
+        }
+        return simulation.delay(SimulationStage.NOTIFICATION_DELIVERY)
+                .then(simulation.nextFailure(SimulationStage.NOTIFICATION_DELIVERY)
+                        ? Mono.<Void>error(new IllegalStateException("Proveedor de notificaciones no disponible"))
+                        : Mono.<Void>empty())
+                .doOnSuccess(done -> logger.debug("Notificación enviada para gasto: {}", entry.getExpenseId()));
+    }
+    
+    // Una sola consulta $in por lote, proyectada al _id, en vez de un existsById por entrada
+    private Mono<Set<String>> existingExpenseIds(List<NotificationOutbox> batch) {
+        Query query = Query.query(Criteria.where("id").in(batch.stream().map(NotificationOutbox::getExpenseId).distinct().toList()));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Expense.class)
+                .map(Expense::getId)
+                .collect(Collectors.toSet());
+    }
+    
+    // bulkOps no es seguro entre hilos y flatMap puede completar entregas en paralelo
+    private synchronized void acknowledgeSent(ReactiveBulkOperations acknowledgements, NotificationOutbox entry) {
+        Instant now = Instant.now();
+        acknowledgements.updateOne(claimed(entry), new Update()
+                .set("status", NotificationOutbox.Status.SENT)
+                .set("sentAt", now)
+                .inc("attempts", 1)
+                .unset("claimToken"));
+        sent.increment();
+        endToEnd.record(Duration.between(entry.getCreatedAt(), now));
+    }
+    
+    private synchronized void acknowledgeFailure(ReactiveBulkOperations acknowledgements, NotificationOutbox entry, Throwable error) {
+        int attempts = entry.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage())
+                .unset("claimToken");
+        if (attempts >= maxAttempts) {
+            logger.warn("Notificación del gasto {} descartada tras {} intentos: {}", entry.getExpenseId(), attempts, error.getMessage());
+            update.set("status", NotificationOutbox.Status.FAILED);
+            failed.increment();
+        } else {
+            // Backoff exponencial: retryBackoff, 2x, 4x, ...
+            update.set("status", NotificationOutbox.Status.PENDING)
+                    .set("nextAttemptAt", Instant.now().plus(retryBackoff.multipliedBy(1L << (attempts - 1))));
+            retried.increment();
+        }
+        acknowledgements.updateOne(claimed(entry), update);
+    }
+    
+    private static Query claimed(NotificationOutbox entry) {
+        return Query.query(Criteria.where("id").is(entry.getId()).and("claimToken").is(entry.getClaimToken()));
+    }
+    
+    private Mono<Void> refreshBacklogMetrics() {
+        return Mono.when(
+                outboxRepository.countByStatus(NotificationOutbox.Status.PENDING)
+                        .doOnNext(pending::set),
+                outboxRepository.findFirstByStatusOrderByNextAttemptAtAsc(NotificationOutbox.Status.PENDING)
+                        .map(oldest -> Math.max(0, Duration.between(oldest.getNextAttemptAt(), Instant.now()).toMillis()))
+                        .defaultIfEmpty(0L)
+                        .doOnNext(lagMillis::set));
+    }
+}
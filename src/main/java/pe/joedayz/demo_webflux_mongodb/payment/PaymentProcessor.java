@@ -0,0 +1,51 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * SPI de procesadores de pago, uno por método de pago.
+ * Un bean que implemente esta interfaz reemplaza al procesador simulado de su método.
+ */
+public interface PaymentProcessor {
+    
+    Expense.PaymentMethod getPaymentMethod();
+    
+    /**
+     * true si el procesador solo tiene un cliente bloqueante: el stack reactivo usará
+     * processBlocking en el scheduler de pagos en lugar de process
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+    
+    /**
+     * Procesa el pago sin bloquear; usado por el stack reactivo
+     */
+    Mono<Void> process(BigDecimal amount);
+    
+    /**
+     * Procesa el pago bloqueando el hilo actual; usado por el stack tradicional
+     */
+    void processBlocking(BigDecimal amount);
+    
+    /**
+     * Reembolsa un pago ya procesado cuando el gasto no llega a crearse; usado por el stack reactivo
+     */
+    default Mono<Void> refund(BigDecimal amount) {
+        return Mono.error(refundNotSupported());
+    }
+    
+    /**
+     * Reembolsa un pago ya procesado bloqueando el hilo actual; usado por el stack tradicional
+     */
+    default void refundBlocking(BigDecimal amount) {
+        throw refundNotSupported();
+    }
+    
+    private UnsupportedOperationException refundNotSupported() {
+        return new UnsupportedOperationException("El procesador de " + getPaymentMethod() + " no admite reembolsos");
+    }
+}
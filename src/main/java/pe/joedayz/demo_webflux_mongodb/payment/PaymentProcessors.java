@@ -0,0 +1,37 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Procesador de pago por método: los beans PaymentProcessor registrados y, para los métodos sin
+ * implementación, el procesador simulado que sigue el perfil de simulación activo
+ */
+@Component
+public class PaymentProcessors {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessors.class);
+    
+    private final Map<Expense.PaymentMethod, PaymentProcessor> processors = new EnumMap<>(Expense.PaymentMethod.class);
+    
+    public PaymentProcessors(ObjectProvider<PaymentProcessor> registered, SimulationProfile simulation) {
+        registered.orderedStream().forEach(processor -> processors.putIfAbsent(processor.getPaymentMethod(), processor));
+        for (Expense.PaymentMethod paymentMethod : Expense.PaymentMethod.values()) {
+            processors.computeIfAbsent(paymentMethod,
+                    method -> new SimulatedPaymentProcessor(method, simulation));
+        }
+        processors.forEach((method, processor) ->
+                logger.info("Procesador de pago para {}: {}", method, processor.getClass().getSimpleName()));
+    }
+    
+    public PaymentProcessor get(Expense.PaymentMethod paymentMethod) {
+        return processors.get(paymentMethod);
+    }
+}
@@ -0,0 +1,122 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.time.Duration;
+
+/**
+ * Límites de resiliencia de las pasarelas de pago por método (app.payment.*)
+ */
+@ConfigurationProperties(prefix = "app.payment")
+public class PaymentProperties {
+    
+    private Method creditCard = new Method();
+    private Method debitCard = new Method();
+    private Method cash = new Method();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    
+    public Method forMethod(Expense.PaymentMethod paymentMethod) {
+        return switch (paymentMethod) {
+            case CREDIT_CARD -> creditCard;
+            case DEBIT_CARD -> debitCard;
+            case CASH -> cash;
+        };
+    }
+    
+    public static class Method {
+        
+        // Tiempo máximo por llamada y llamadas simultáneas (bulkhead)
+        private Duration timeout = Duration.ofSeconds(1);
+        private int maxConcurrentCalls = 50;
+        
+        public Duration getTimeout() {
+            return timeout;
+        }
+        
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+        
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+        
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+    
+    public static class CircuitBreaker {
+        
+        private float failureRateThreshold = 50;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+        
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+        
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+        
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+        
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+        
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+        
+        public Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+        
+        public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+        }
+    }
+    
+    // Getters y Setters
+    public Method getCreditCard() {
+        return creditCard;
+    }
+    
+    public void setCreditCard(Method creditCard) {
+        this.creditCard = creditCard;
+    }
+    
+    public Method getDebitCard() {
+        return debitCard;
+    }
+    
+    public void setDebitCard(Method debitCard) {
+        this.debitCard = debitCard;
+    }
+    
+    public Method getCash() {
+        return cash;
+    }
+    
+    public void setCash(Method cash) {
+        this.cash = cash;
+    }
+    
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+}
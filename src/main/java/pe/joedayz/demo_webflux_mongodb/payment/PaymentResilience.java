@@ -0,0 +1,71 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkhead, límite de tiempo y circuit breaker de un método de pago en un stack.
+ * Cada stack y método tiene instancias propias (p. ej. "reactive.CREDIT_CARD"), de modo que una
+ * pasarela lenta solo agota sus propios permisos y no los de los demás métodos.
+ */
+final class PaymentResilience {
+    
+    final Bulkhead bulkhead;
+    final TimeLimiter timeLimiter;
+    final CircuitBreaker circuitBreaker;
+    
+    private PaymentResilience(Bulkhead bulkhead, TimeLimiter timeLimiter, CircuitBreaker circuitBreaker) {
+        this.bulkhead = bulkhead;
+        this.timeLimiter = timeLimiter;
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    static Map<Expense.PaymentMethod, PaymentResilience> forStack(String stack,
+                                                                  PaymentProperties properties,
+                                                                  BulkheadRegistry bulkheadRegistry,
+                                                                  TimeLimiterRegistry timeLimiterRegistry,
+                                                                  CircuitBreakerRegistry circuitBreakerRegistry) {
+        PaymentProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitDurationInOpenState())
+                // Un bulkhead lleno es carga local, no una falla de la pasarela
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+        
+        Map<Expense.PaymentMethod, PaymentResilience> resilience = new EnumMap<>(Expense.PaymentMethod.class);
+        for (Expense.PaymentMethod paymentMethod : Expense.PaymentMethod.values()) {
+            PaymentProperties.Method settings = properties.forMethod(paymentMethod);
+            String name = stack + "." + paymentMethod.name();
+            
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                    .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                    // Sin espera: si no hay permiso se rechaza en vez de retener el hilo o la suscripción
+                    .maxWaitDuration(Duration.ZERO)
+                    .build());
+            TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(name, TimeLimiterConfig.custom()
+                    .timeoutDuration(settings.getTimeout())
+                    .cancelRunningFuture(true)
+                    .build());
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, circuitBreakerConfig);
+            
+            resilience.put(paymentMethod, new PaymentResilience(bulkhead, timeLimiter, circuitBreaker));
+        }
+        return resilience;
+    }
+}
@@ -0,0 +1,65 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.scheduler.ReactorSchedulers;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Punto de entrada del stack reactivo a las pasarelas de pago
+ */
+@Component
+public class ReactivePaymentGateway {
+    
+    private final PaymentProcessors processors;
+    private final ReactorSchedulers schedulers;
+    private final Map<Expense.PaymentMethod, PaymentResilience> resilience;
+    
+    public ReactivePaymentGateway(PaymentProcessors processors,
+                                ReactorSchedulers schedulers,
+                                PaymentProperties properties,
+                                BulkheadRegistry bulkheadRegistry,
+                                TimeLimiterRegistry timeLimiterRegistry,
+                                CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.processors = processors;
+        this.schedulers = schedulers;
+        this.resilience = PaymentResilience.forStack("reactive", properties,
+                bulkheadRegistry, timeLimiterRegistry, circuitBreakerRegistry);
+    }
+    
+    public Mono<Void> process(Expense.PaymentMethod paymentMethod, BigDecimal amount) {
+        PaymentResilience guard = resilience.get(paymentMethod);
+        PaymentProcessor processor = processors.get(paymentMethod);
+        
+        // Solo los procesadores bloqueantes salen del hilo del llamador, y a un scheduler acotado propio
+        Mono<Void> call = processor.isBlocking()
+                ? Mono.<Void>fromRunnable(() -> processor.processBlocking(amount)).subscribeOn(schedulers.payments())
+                : Mono.defer(() -> processor.process(amount));
+        
+        // El timeout cancela la llamada y libera su permiso del bulkhead; el circuit breaker ve el resultado final
+        return call
+                .transformDeferred(BulkheadOperator.of(guard.bulkhead))
+                .transformDeferred(TimeLimiterOperator.of(guard.timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker));
+    }
+    
+    /**
+     * Compensa un pago ya procesado. Va directo al procesador, sin bulkhead ni circuit breaker,
+     * para que una pasarela saturada no impida deshacer el cobro.
+     */
+    public Mono<Void> refund(Expense.PaymentMethod paymentMethod, BigDecimal amount) {
+        PaymentProcessor processor = processors.get(paymentMethod);
+        return processor.isBlocking()
+                ? Mono.<Void>fromRunnable(() -> processor.refundBlocking(amount)).subscribeOn(schedulers.payments())
+                : Mono.defer(() -> processor.refund(amount));
+    }
+}
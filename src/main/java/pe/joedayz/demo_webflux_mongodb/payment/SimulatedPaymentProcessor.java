@@ -0,0 +1,75 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Pasarela local simulada: latencia y tasa de error según el perfil de simulación activo
+ */
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedPaymentProcessor.class);
+    
+    private final Expense.PaymentMethod paymentMethod;
+    private final SimulationStage stage;
+    private final SimulationProfile simulation;
+    
+    public SimulatedPaymentProcessor(Expense.PaymentMethod paymentMethod, SimulationProfile simulation) {
+        this.paymentMethod = paymentMethod;
+        this.stage = SimulationStage.forPayment(paymentMethod);
+        this.simulation = simulation;
+    }
+    
+    @Override
+    public Expense.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    @Override
+    public Mono<Void> process(BigDecimal amount) {
+        return simulation.delay(stage)
+                .then(Mono.defer(() -> complete(amount) ? Mono.<Void>empty() : Mono.error(declined())));
+    }
+    
+    @Override
+    public void processBlocking(BigDecimal amount) {
+        try {
+            simulation.sleep(stage);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Procesamiento de pago interrumpido");
+        }
+        if (!complete(amount)) {
+            throw declined();
+        }
+    }
+    
+    @Override
+    public Mono<Void> refund(BigDecimal amount) {
+        return Mono.fromRunnable(() -> refundBlocking(amount));
+    }
+    
+    @Override
+    public void refundBlocking(BigDecimal amount) {
+        logger.debug("Pago simulado reembolsado ({}) por monto: {}", paymentMethod, amount);
+    }
+    
+    private boolean complete(BigDecimal amount) {
+        if (simulation.nextFailure(stage)) {
+            logger.debug("Pago simulado rechazado ({}) por monto: {}", paymentMethod, amount);
+            return false;
+        }
+        logger.debug("Pago simulado procesado ({}) por monto: {}", paymentMethod, amount);
+        return true;
+    }
+    
+    private RuntimeException declined() {
+        return new RuntimeException("Pago rechazado por la pasarela de " + paymentMethod);
+    }
+}
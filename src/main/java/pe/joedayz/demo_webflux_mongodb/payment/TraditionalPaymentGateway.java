@@ -0,0 +1,72 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Punto de entrada del stack tradicional a las pasarelas de pago.
+ * La llamada bloqueante corre en un hilo virtual para poder cortarla al vencer el timeout.
+ */
+@Component
+public class TraditionalPaymentGateway {
+    
+    private final PaymentProcessors processors;
+    private final AsyncTaskExecutor pipelineExecutor;
+    private final Map<Expense.PaymentMethod, PaymentResilience> resilience;
+    
+    public TraditionalPaymentGateway(PaymentProcessors processors,
+                                   PaymentProperties properties,
+                                   @Qualifier("traditionalPipelineExecutor") AsyncTaskExecutor pipelineExecutor,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   TimeLimiterRegistry timeLimiterRegistry,
+                                   CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.processors = processors;
+        this.pipelineExecutor = pipelineExecutor;
+        this.resilience = PaymentResilience.forStack("traditional", properties,
+                bulkheadRegistry, timeLimiterRegistry, circuitBreakerRegistry);
+    }
+    
+    public void process(Expense.PaymentMethod paymentMethod, BigDecimal amount) {
+        PaymentResilience guard = resilience.get(paymentMethod);
+        PaymentProcessor processor = processors.get(paymentMethod);
+        
+        Callable<Void> timed = TimeLimiter.decorateFutureSupplier(guard.timeLimiter,
+                () -> pipelineExecutor.submit(() -> {
+                    processor.processBlocking(amount);
+                    return null;
+                }));
+        Callable<Void> guarded = CircuitBreaker.decorateCallable(guard.circuitBreaker,
+                Bulkhead.decorateCallable(guard.bulkhead, timed));
+        
+        try {
+            guarded.call();
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Tiempo de espera agotado en la pasarela de " + paymentMethod);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error en la pasarela de " + paymentMethod + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Compensa un pago ya procesado. Va directo al procesador, sin bulkhead ni circuit breaker,
+     * para que una pasarela saturada no impida deshacer el cobro.
+     */
+    public void refund(Expense.PaymentMethod paymentMethod, BigDecimal amount) {
+        processors.get(paymentMethod).refundBlocking(amount);
+    }
+}
@@ -0,0 +1,41 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+/**
+ * Fragmentos de pipeline compartidos por los repositorios de gastos reactivo y tradicional.
+ * El monto se normaliza con $toDecimal porque puede estar guardado como double, string o Decimal128;
+ * solo los long son céntimos (MoneyStorage.CENTS) y se dividen entre 100; un int32 son unidades.
+ */
+final class ExpenseAggregations {
+    
+    static final String AMOUNT = "{ '$cond': [ { '$eq': [ { '$type': '$amount' }, 'long' ] }, "
+            + "{ '$divide': [ { '$toDecimal': '$amount' }, 100 ] }, { '$toDecimal': '$amount' } ] }";
+    
+    static final String STATS_FIELDS = "'total': { '$sum': " + AMOUNT + " }, "
+            + "'count': { '$sum': 1 }, "
+            + "'average': { '$avg': " + AMOUNT + " }, "
+            + "'min': { '$min': " + AMOUNT + " }, "
+            + "'max': { '$max': " + AMOUNT + " }";
+    
+    static final String MATCH_USER = "{ '$match': { 'userId': ?0 } }";
+    
+    static final String SUM_AMOUNT = "{ '$group': { '_id': null, 'total': { '$sum': " + AMOUNT + " } } }";
+    
+    // Solo con montos en céntimos: suma de longs sin conversión, el resultado llega como primitivo
+    static final String SUM_CENTS = "{ '$group': { '_id': null, 'total': { '$sum': '$amount' } } }";
+    
+    static final String GROUP_BY_USER = "{ '$group': { '_id': '$userId', " + STATS_FIELDS + " } }";
+    
+    static final String GROUP_BY_CATEGORY = "{ '$group': { '_id': '$categoryId', " + STATS_FIELDS + " } }";
+    
+    static final String GROUP_BY_PAYMENT_METHOD = "{ '$group': { '_id': '$paymentMethod', " + STATS_FIELDS + " } }";
+    
+    static final String GROUP_BY_DATE_BUCKET = "{ '$group': { '_id': { '$dateToString': { 'format': ?0, 'date': '$date' } }, "
+            + STATS_FIELDS + " } }";
+    
+    static final String SORT_BY_TOTAL = "{ '$sort': { 'total': -1 } }";
+    
+    static final String SORT_BY_ID = "{ '$sort': { '_id': 1 } }";
+    
+    private ExpenseAggregations() {
+    }
+}
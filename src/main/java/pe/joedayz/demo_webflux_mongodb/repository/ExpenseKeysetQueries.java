@@ -0,0 +1,20 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+/**
+ * Filtros de paginación por clave compartidos por los repositorios de gastos.
+ * Devuelven los gastos posteriores al cursor (date, _id) en orden date desc, _id desc,
+ * de modo que cada página es un recorrido acotado del índice en lugar de un skip.
+ */
+final class ExpenseKeysetQueries {
+    
+    static final String ALL_AFTER = "{ '$or': [ { 'date': { '$lt': ?0 } }, { 'date': ?0, '_id': { '$lt': ?1 } } ] }";
+    
+    static final String BY_USER_AFTER = "{ 'userId': ?0, "
+            + "'$or': [ { 'date': { '$lt': ?1 } }, { 'date': ?1, '_id': { '$lt': ?2 } } ] }";
+    
+    static final String BY_PAYMENT_METHOD_AFTER = "{ 'paymentMethod': ?0, "
+            + "'$or': [ { 'date': { '$lt': ?1 } }, { 'date': ?1, '_id': { '$lt': ?2 } } ] }";
+    
+    private ExpenseKeysetQueries() {
+    }
+}
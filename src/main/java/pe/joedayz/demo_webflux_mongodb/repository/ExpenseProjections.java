@@ -0,0 +1,22 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+/**
+ * Proyecciones de lectura de los listados de gastos.
+ * ExpenseResponse usa todos los campos del gasto, así que lo único que sobra en cada fila es
+ * la clave de tipo _class que escribe Spring Data; se excluye en el servidor y no viaja ni se decodifica.
+ */
+public final class ExpenseProjections {
+    
+    public static final String TYPE_KEY = "_class";
+    
+    static final String LIST_FIELDS = "{ '" + TYPE_KEY + "': 0 }";
+    
+    static final String ALL = "{}";
+    
+    static final String BY_USER = "{ 'userId': ?0 }";
+    
+    static final String BY_PAYMENT_METHOD = "{ 'paymentMethod': ?0 }";
+    
+    private ExpenseProjections() {
+    }
+}
@@ -0,0 +1,65 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upserts $inc de los resúmenes de gastos compartidos por los repositorios reactivo y tradicional.
+ * Los gastos de un lote se agrupan por clave para enviar una sola actualización por resumen.
+ */
+final class ExpenseSummaryUpdates {
+    
+    private ExpenseSummaryUpdates() {
+    }
+    
+    static List<Pair<Query, Update>> upserts(Collection<Expense> expenses) {
+        Map<String, ExpenseSummary> deltas = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getUserId() == null || expense.getCategoryId() == null || expense.getDate() == null) {
+                continue;
+            }
+            YearMonth month = YearMonth.from(expense.getDate());
+            ExpenseSummary delta = deltas.computeIfAbsent(
+                    ExpenseSummary.idOf(expense.getUserId(), expense.getCategoryId(), month), id -> {
+                        ExpenseSummary summary = new ExpenseSummary();
+                        summary.setId(id);
+                        summary.setUserId(expense.getUserId());
+                        summary.setCategoryId(expense.getCategoryId());
+                        summary.setMonth(month.toString());
+                        summary.setTotal(BigDecimal.ZERO);
+                        return summary;
+                    });
+            delta.setTotal(delta.getTotal().add(expense.getAmount()));
+            delta.setCount(delta.getCount() + 1);
+        }
+        
+        Instant now = Instant.now();
+        List<Pair<Query, Update>> upserts = new ArrayList<>(deltas.size());
+        for (ExpenseSummary delta : deltas.values()) {
+            // Con igualdad sobre _id el servidor reintenta el upsert si dos inserciones chocan
+            upserts.add(Pair.of(
+                    Query.query(Criteria.where("id").is(delta.getId())),
+                    new Update()
+                            .inc("total", delta.getTotal())
+                            .inc("count", delta.getCount())
+                            .setOnInsert("userId", delta.getUserId())
+                            .setOnInsert("categoryId", delta.getCategoryId())
+                            .setOnInsert("month", delta.getMonth())
+                            .set("updatedAt", now)));
+        }
+        return upserts;
+    }
+}
@@ -2,11 +2,22 @@ package pe.joedayz.demo_webflux_mongodb.repository;
 
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
 import pe.joedayz.demo_webflux_mongodb.model.Category;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
-public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String> {
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String>, ReactiveCategoryRepositoryCustom {
+    
+    // Lectura con el codec de la entidad (ver ReactiveCategoryRepositoryCustom); se redeclara para resolver la sobrecarga de CrudRepository
+    @Override
+    Mono<Category> findById(String id);
     
     Mono<Category> findByName(String name);
+    
+    // Proyección cerrada para la caché de enriquecimiento: solo _id y name
+    Flux<CategoryNameView> findNamesByIdIn(Collection<String> ids);
 }
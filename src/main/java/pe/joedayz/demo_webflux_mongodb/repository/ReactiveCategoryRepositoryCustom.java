@@ -0,0 +1,15 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas de categoría decodificadas con CategoryCodec
+ */
+public interface ReactiveCategoryRepositoryCustom {
+    
+    /**
+     * Sustituye al findById de Spring Data (redeclarado en el repositorio): el documento se decodifica con CategoryCodec, sin MappingMongoConverter
+     */
+    Mono<Category> findById(String id);
+}
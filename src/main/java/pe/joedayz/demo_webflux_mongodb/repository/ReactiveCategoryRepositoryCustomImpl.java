@@ -0,0 +1,24 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import com.mongodb.client.model.Filters;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.mongo.EntityCodecs;
+import reactor.core.publisher.Mono;
+
+class ReactiveCategoryRepositoryCustomImpl implements ReactiveCategoryRepositoryCustom {
+    
+    private final ReactiveMongoTemplate mongoTemplate;
+    
+    ReactiveCategoryRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Mono<Category> findById(String id) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Category.class))
+                .flatMap(categories -> Mono.from(categories.withDocumentClass(Category.class)
+                        .find(Filters.eq("_id", EntityCodecs.storedId(id)))
+                        .first()));
+    }
+}
@@ -1,16 +1,28 @@
 package pe.joedayz.demo_webflux_mongodb.repository;
 
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseStats;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 @Repository
 public interface ReactiveExpenseRepository extends ReactiveMongoRepository<Expense, String> {
     
+    // Listados: proyección sin _class (ver ExpenseProjections)
+    
+    @Query(value = ExpenseProjections.BY_USER, fields = ExpenseProjections.LIST_FIELDS)
     Flux<Expense> findByUserId(String userId);
     
+    @Query(value = ExpenseProjections.BY_PAYMENT_METHOD, fields = ExpenseProjections.LIST_FIELDS)
     Flux<Expense> findByPaymentMethod(Expense.PaymentMethod paymentMethod);
     
     Flux<Expense> findByCategoryId(String categoryId);
@@ -20,4 +32,48 @@ public interface ReactiveExpenseRepository extends ReactiveMongoRepository<Expen
     Mono<Long> countByUserId(String userId);
     
     Mono<Long> countByPaymentMethod(Expense.PaymentMethod paymentMethod);
+    
+    // Paginación por clave sobre (date, _id); el Pageable aporta solo el límite y el orden
+    
+    @Query(value = ExpenseProjections.ALL, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findAllBy(Pageable pageable);
+    
+    @Query(value = ExpenseKeysetQueries.ALL_AFTER, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findAllAfter(LocalDate date, ObjectId id, Pageable pageable);
+    
+    @Query(value = ExpenseProjections.BY_USER, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findByUserId(String userId, Pageable pageable);
+    
+    @Query(value = ExpenseKeysetQueries.BY_USER_AFTER, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findByUserIdAfter(String userId, LocalDate date, ObjectId id, Pageable pageable);
+    
+    @Query(value = ExpenseProjections.BY_PAYMENT_METHOD, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findByPaymentMethod(Expense.PaymentMethod paymentMethod, Pageable pageable);
+    
+    @Query(value = ExpenseKeysetQueries.BY_PAYMENT_METHOD_AFTER, fields = ExpenseProjections.LIST_FIELDS)
+    Flux<Expense> findByPaymentMethodAfter(Expense.PaymentMethod paymentMethod, LocalDate date, ObjectId id, Pageable pageable);
+    
+    // Estadísticas calculadas en el servidor con $group (sin traer los documentos a la JVM)
+    
+    // Resultado como Decimal128 (tipo simple de MongoDB): con BigDecimal Spring Data lo mapearía como entidad
+    @Aggregation(pipeline = {ExpenseAggregations.MATCH_USER, ExpenseAggregations.SUM_AMOUNT})
+    Mono<Decimal128> sumAmountByUser(String userId);
+    
+    @Aggregation(pipeline = {ExpenseAggregations.MATCH_USER, ExpenseAggregations.SUM_CENTS})
+    Mono<Long> sumAmountCentsByUser(String userId);
+    
+    @Aggregation(pipeline = {ExpenseAggregations.MATCH_USER, ExpenseAggregations.GROUP_BY_USER})
+    Mono<ExpenseStats> aggregateStatsByUser(String userId);
+    
+    @Aggregation(pipeline = {ExpenseAggregations.GROUP_BY_USER, ExpenseAggregations.SORT_BY_TOTAL})
+    Flux<ExpenseStats> aggregateStatsByUsers();
+    
+    @Aggregation(pipeline = {ExpenseAggregations.GROUP_BY_CATEGORY, ExpenseAggregations.SORT_BY_TOTAL})
+    Flux<ExpenseStats> aggregateStatsByCategory();
+    
+    @Aggregation(pipeline = {ExpenseAggregations.GROUP_BY_PAYMENT_METHOD, ExpenseAggregations.SORT_BY_TOTAL})
+    Flux<ExpenseStats> aggregateStatsByPaymentMethod();
+    
+    @Aggregation(pipeline = {ExpenseAggregations.GROUP_BY_DATE_BUCKET, ExpenseAggregations.SORT_BY_ID})
+    Flux<ExpenseStats> aggregateStatsByDateBucket(String dateFormat);
 }
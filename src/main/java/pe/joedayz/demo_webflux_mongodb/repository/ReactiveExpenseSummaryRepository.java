@@ -0,0 +1,14 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveExpenseSummaryRepository extends ReactiveMongoRepository<ExpenseSummary, String>,
+        ReactiveExpenseSummaryRepositoryCustom {
+    
+    // Un resumen por categoría: lectura acotada por el índice (userId, month)
+    Flux<ExpenseSummary> findByUserIdAndMonth(String userId, String month);
+}
@@ -0,0 +1,17 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Mantenimiento incremental de los resúmenes de gastos
+ */
+public interface ReactiveExpenseSummaryRepositoryCustom {
+    
+    /**
+     * Suma los gastos a sus resúmenes (usuario, categoría, mes) con upserts $inc en un único bulkWrite
+     */
+    Mono<Void> incrementAll(Collection<Expense> expenses);
+}
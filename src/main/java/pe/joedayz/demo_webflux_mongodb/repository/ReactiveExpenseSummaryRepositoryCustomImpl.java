@@ -0,0 +1,37 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+class ReactiveExpenseSummaryRepositoryCustomImpl implements ReactiveExpenseSummaryRepositoryCustom {
+    
+    private final ReactiveMongoTemplate mongoTemplate;
+    
+    ReactiveExpenseSummaryRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Mono<Void> incrementAll(Collection<Expense> expenses) {
+        return Mono.defer(() -> {
+            List<Pair<Query, Update>> upserts = ExpenseSummaryUpdates.upserts(expenses);
+            if (upserts.isEmpty()) {
+                return Mono.empty();
+            }
+            
+            ReactiveBulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseSummary.class);
+            upserts.forEach(upsert -> bulkOperations.upsert(upsert.getFirst(), upsert.getSecond()));
+            return bulkOperations.execute().then();
+        });
+    }
+}
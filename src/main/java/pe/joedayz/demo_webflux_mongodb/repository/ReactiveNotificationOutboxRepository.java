@@ -0,0 +1,14 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveNotificationOutboxRepository extends ReactiveMongoRepository<NotificationOutbox, String> {
+    
+    Mono<Long> countByStatus(NotificationOutbox.Status status);
+    
+    Mono<NotificationOutbox> findFirstByStatusOrderByNextAttemptAtAsc(NotificationOutbox.Status status);
+}
@@ -2,13 +2,24 @@ package pe.joedayz.demo_webflux_mongodb.repository;
 
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
 import pe.joedayz.demo_webflux_mongodb.model.User;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
-public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+    
+    // Lectura con el codec de la entidad (ver ReactiveUserRepositoryCustom); se redeclara para resolver la sobrecarga de CrudRepository
+    @Override
+    Mono<User> findById(String id);
     
     Mono<User> findByUsername(String username);
     
     Mono<User> findByEmail(String email);
+    
+    // Proyección cerrada para la caché de enriquecimiento: solo _id y fullName
+    Flux<UserNameView> findNamesByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,22 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Operaciones de usuario que no se expresan como consultas derivadas
+ */
+public interface ReactiveUserRepositoryCustom {
+    
+    /**
+     * Suma delta al saldo con un único $inc atómico en el servidor; emite la cantidad de documentos modificados
+     */
+    Mono<Long> incrementBalance(String userId, BigDecimal delta);
+    
+    /**
+     * Sustituye al findById de Spring Data (redeclarado en el repositorio): el documento se decodifica con UserCodec, sin MappingMongoConverter
+     */
+    Mono<User> findById(String id);
+}
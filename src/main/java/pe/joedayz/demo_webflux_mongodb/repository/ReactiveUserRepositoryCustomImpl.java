@@ -0,0 +1,39 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.mongo.EntityCodecs;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+    
+    private final ReactiveMongoTemplate mongoTemplate;
+    
+    ReactiveUserRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Mono<Long> incrementBalance(String userId, BigDecimal delta) {
+        return mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(userId)),
+                        new Update().inc("balance", delta),
+                        User.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+    
+    @Override
+    public Mono<User> findById(String id) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .flatMap(users -> Mono.from(users.withDocumentClass(User.class)
+                        .find(Filters.eq("_id", EntityCodecs.storedId(id)))
+                        .first()));
+    }
+}
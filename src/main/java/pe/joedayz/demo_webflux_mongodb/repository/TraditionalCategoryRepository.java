@@ -2,12 +2,22 @@ package pe.joedayz.demo_webflux_mongodb.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
 import pe.joedayz.demo_webflux_mongodb.model.Category;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TraditionalCategoryRepository extends MongoRepository<Category, String> {
+public interface TraditionalCategoryRepository extends MongoRepository<Category, String>, TraditionalCategoryRepositoryCustom {
+    
+    // Lectura con el codec de la entidad (ver TraditionalCategoryRepositoryCustom); se redeclara para resolver la sobrecarga de CrudRepository
+    @Override
+    Optional<Category> findById(String id);
     
     Optional<Category> findByName(String name);
+    
+    // Proyección cerrada para la caché de enriquecimiento: solo _id y name
+    List<CategoryNameView> findNamesByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,16 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+
+import java.util.Optional;
+
+/**
+ * Lecturas de categoría decodificadas con CategoryCodec
+ */
+public interface TraditionalCategoryRepositoryCustom {
+    
+    /**
+     * Sustituye al findById de Spring Data (redeclarado en el repositorio): el documento se decodifica con CategoryCodec, sin MappingMongoConverter
+     */
+    Optional<Category> findById(String id);
+}
@@ -0,0 +1,25 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import com.mongodb.client.model.Filters;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.mongo.EntityCodecs;
+
+import java.util.Optional;
+
+class TraditionalCategoryRepositoryCustomImpl implements TraditionalCategoryRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    TraditionalCategoryRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Optional<Category> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Category.class))
+                .withDocumentClass(Category.class)
+                .find(Filters.eq("_id", EntityCodecs.storedId(id)))
+                .first());
+    }
+}
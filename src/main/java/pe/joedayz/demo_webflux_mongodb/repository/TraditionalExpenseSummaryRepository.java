@@ -0,0 +1,15 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+
+import java.util.List;
+
+@Repository
+public interface TraditionalExpenseSummaryRepository extends MongoRepository<ExpenseSummary, String>,
+        TraditionalExpenseSummaryRepositoryCustom {
+    
+    // Un resumen por categoría: lectura acotada por el índice (userId, month)
+    List<ExpenseSummary> findByUserIdAndMonth(String userId, String month);
+}
@@ -0,0 +1,16 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.util.Collection;
+
+/**
+ * Mantenimiento incremental de los resúmenes de gastos
+ */
+public interface TraditionalExpenseSummaryRepositoryCustom {
+    
+    /**
+     * Suma los gastos a sus resúmenes (usuario, categoría, mes) con upserts $inc en un único bulkWrite
+     */
+    void incrementAll(Collection<Expense> expenses);
+}
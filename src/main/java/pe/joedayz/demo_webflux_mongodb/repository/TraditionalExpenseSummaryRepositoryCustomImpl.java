@@ -0,0 +1,33 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+class TraditionalExpenseSummaryRepositoryCustomImpl implements TraditionalExpenseSummaryRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    TraditionalExpenseSummaryRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public void incrementAll(Collection<Expense> expenses) {
+        List<Pair<Query, Update>> upserts = ExpenseSummaryUpdates.upserts(expenses);
+        if (upserts.isEmpty()) {
+            return;
+        }
+        
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseSummary.class);
+        upserts.forEach(upsert -> bulkOperations.upsert(upsert.getFirst(), upsert.getSecond()));
+        bulkOperations.execute();
+    }
+}
@@ -0,0 +1,9 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+
+@Repository
+public interface TraditionalNotificationOutboxRepository extends MongoRepository<NotificationOutbox, String> {
+}
@@ -2,14 +2,24 @@ package pe.joedayz.demo_webflux_mongodb.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
 import pe.joedayz.demo_webflux_mongodb.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TraditionalUserRepository extends MongoRepository<User, String> {
+public interface TraditionalUserRepository extends MongoRepository<User, String>, TraditionalUserRepositoryCustom {
+    
+    // Lectura con el codec de la entidad (ver TraditionalUserRepositoryCustom); se redeclara para resolver la sobrecarga de CrudRepository
+    @Override
+    Optional<User> findById(String id);
     
     Optional<User> findByUsername(String username);
     
     Optional<User> findByEmail(String email);
+    
+    // Proyección cerrada para la caché de enriquecimiento: solo _id y fullName
+    List<UserNameView> findNamesByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,22 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import pe.joedayz.demo_webflux_mongodb.model.User;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Operaciones de usuario que no se expresan como consultas derivadas
+ */
+public interface TraditionalUserRepositoryCustom {
+    
+    /**
+     * Suma delta al saldo con un único $inc atómico en el servidor; devuelve la cantidad de documentos modificados
+     */
+    long incrementBalance(String userId, BigDecimal delta);
+    
+    /**
+     * Sustituye al findById de Spring Data (redeclarado en el repositorio): el documento se decodifica con UserCodec, sin MappingMongoConverter
+     */
+    Optional<User> findById(String id);
+}
@@ -0,0 +1,38 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import com.mongodb.client.model.Filters;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.mongo.EntityCodecs;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+class TraditionalUserRepositoryCustomImpl implements TraditionalUserRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    TraditionalUserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public long incrementBalance(String userId, BigDecimal delta) {
+        return mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(userId)),
+                        new Update().inc("balance", delta),
+                        User.class)
+                .getModifiedCount();
+    }
+    
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .withDocumentClass(User.class)
+                .find(Filters.eq("_id", EntityCodecs.storedId(id)))
+                .first());
+    }
+}
@@ -0,0 +1,59 @@
+package pe.joedayz.demo_webflux_mongodb.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedulers nombrados para el trabajo realmente bloqueante del stack reactivo.
+ * Cada uno es un boundedElastic propio, así una pasarela de pago bloqueante no compite con la E/S
+ * de archivos ni con Schedulers.boundedElastic() compartido.
+ * Métricas: app.scheduler.tasks.{submitted,pending,active,completed} con la etiqueta scheduler.
+ */
+@Component
+public class ReactorSchedulers implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactorSchedulers.class);
+    
+    private final Scheduler payments;
+    private final Scheduler blockingBridge;
+    
+    public ReactorSchedulers(SchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.payments = create("payments", properties.getPayments(), meterRegistry);
+        this.blockingBridge = create("blocking-bridge", properties.getBlockingBridge(), meterRegistry);
+    }
+    
+    /**
+     * Llamadas a procesadores de pago que solo ofrecen un cliente bloqueante
+     */
+    public Scheduler payments() {
+        return payments;
+    }
+    
+    /**
+     * E/S bloqueante puntual (archivos, APIs síncronas) invocada desde el stack reactivo
+     */
+    public Scheduler blockingBridge() {
+        return blockingBridge;
+    }
+    
+    @Override
+    public void destroy() {
+        payments.dispose();
+        blockingBridge.dispose();
+    }
+    
+    private static Scheduler create(String name, SchedulerProperties.Pool pool, MeterRegistry meterRegistry) {
+        logger.info("Scheduler {}: {} hilos, {} tareas en cola", name, pool.getThreads(), pool.getQueueCapacity());
+        
+        Scheduler scheduler = Schedulers.newBoundedElastic(pool.getThreads(), pool.getQueueCapacity(),
+                name, (int) pool.getTtl().toSeconds(), true);
+        return Micrometer.timedScheduler(scheduler, meterRegistry, "app", Tags.of("scheduler", name));
+    }
+}
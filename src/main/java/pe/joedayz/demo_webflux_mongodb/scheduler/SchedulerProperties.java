@@ -0,0 +1,71 @@
+package pe.joedayz.demo_webflux_mongodb.scheduler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tamaño de los schedulers nombrados de Reactor (app.schedulers.*)
+ */
+@ConfigurationProperties(prefix = "app.schedulers")
+public class SchedulerProperties {
+    
+    private Pool payments = new Pool(32, 1000);
+    private Pool blockingBridge = new Pool(16, 1000);
+    
+    public static class Pool {
+        
+        // Hilos máximos y tareas encoladas cuando todos están ocupados (al superarse se rechaza)
+        private int threads;
+        private int queueCapacity;
+        private Duration ttl = Duration.ofSeconds(60);
+        
+        public Pool() {}
+        
+        public Pool(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+    
+    // Getters y Setters
+    public Pool getPayments() {
+        return payments;
+    }
+    
+    public void setPayments(Pool payments) {
+        this.payments = payments;
+    }
+    
+    public Pool getBlockingBridge() {
+        return blockingBridge;
+    }
+    
+    public void setBlockingBridge(Pool blockingBridge) {
+        this.blockingBridge = blockingBridge;
+    }
+}
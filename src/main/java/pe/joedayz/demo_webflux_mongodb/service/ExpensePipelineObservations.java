@@ -0,0 +1,79 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Observaciones por etapa de createExpense (timer expense.pipeline.stage en /actuator/prometheus).
+ * Etiquetas: stack (reactive | traditional), stage, payment.method, reactor.type y reactor.status.
+ * El lado reactivo usa Micrometer.observation de Reactor, que añade reactor.type y reactor.status;
+ * el tradicional declara las mismas claves (reactor.type=blocking) porque Prometheus exige
+ * el mismo conjunto de etiquetas para todas las series de un mismo nombre.
+ */
+@Component
+public class ExpensePipelineObservations {
+    
+    public static final String NAME = "expense.pipeline.stage";
+    
+    public enum Stage {
+        VALIDATE, PAYMENT, NOTIFY, PERSIST, BALANCE, SUMMARY, ENRICH;
+        
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+    
+    private final ObservationRegistry observationRegistry;
+    
+    public ExpensePipelineObservations(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+    
+    public <T> Mono<T> observe(Mono<T> stage, Stage name, Expense.PaymentMethod paymentMethod) {
+        return stage.name(NAME)
+                .tag("stack", "reactive")
+                .tag("stage", name.tagValue())
+                .tag("payment.method", paymentMethodTag(paymentMethod))
+                .tap(Micrometer.observation(observationRegistry));
+    }
+    
+    public <T> T observe(Stage name, Expense.PaymentMethod paymentMethod, Supplier<T> stage) {
+        Observation observation = Observation.createNotStarted(NAME, observationRegistry)
+                .lowCardinalityKeyValue("stack", "traditional")
+                .lowCardinalityKeyValue("stage", name.tagValue())
+                .lowCardinalityKeyValue("payment.method", paymentMethodTag(paymentMethod))
+                .lowCardinalityKeyValue("reactor.type", "blocking")
+                .start();
+        
+        try {
+            // scoped abre el scope de la observación (trazas y MDC) solo mientras corre la etapa
+            T result = observation.scoped(stage);
+            // Mismos valores que Reactor: completedEmpty cuando la etapa no produce resultado
+            observation.lowCardinalityKeyValue("reactor.status", result == null ? "completedEmpty" : "completed");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("reactor.status", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+    
+    public void observe(Stage name, Expense.PaymentMethod paymentMethod, Runnable stage) {
+        observe(name, paymentMethod, () -> {
+            stage.run();
+            return null;
+        });
+    }
+    
+    private static String paymentMethodTag(Expense.PaymentMethod paymentMethod) {
+        return paymentMethod != null ? paymentMethod.name() : "none";
+    }
+}
@@ -0,0 +1,260 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva reactiva de gastos por lotes: una consulta $in para validar usuarios,
+ * un insertMany no ordenado y un bulkWrite de $inc por usuario para los saldos y otro para los resúmenes.
+ */
+@Service
+public class ReactiveBulkExpenseService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBulkExpenseService.class);
+    
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(10000);
+    
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveExpenseSummaryRepository summaryRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final int batchSize;
+    
+    public ReactiveBulkExpenseService(ReactiveUserRepository userRepository,
+                                    ReactiveExpenseSummaryRepository summaryRepository,
+                                    ReactiveMongoTemplate mongoTemplate,
+                                    Validator validator,
+                                    @Value("${app.bulk.batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+    
+    public Mono<BulkExpenseResult> createExpenses(Flux<CreateExpenseRequest> requests) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            BulkExpenseResult result = new BulkExpenseResult();
+            
+            // concatMap procesa un lote a la vez, así que el resultado se actualiza sin concurrencia
+            return requests.index()
+                    .buffer(batchSize)
+                    .concatMap(batch -> processBatch(batch, result))
+                    .then(Mono.fromSupplier(() -> {
+                        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                        logger.info("Carga masiva reactiva: {} recibidos, {} insertados, {} fallidos en {} ms",
+                                result.getReceived(), result.getInserted(), result.getFailed(), result.getElapsedMillis());
+                        return result;
+                    }));
+        });
+    }
+    
+    private Mono<Void> processBatch(List<Tuple2<Long, CreateExpenseRequest>> batch, BulkExpenseResult result) {
+        result.recordReceived(batch.size());
+        
+        List<Tuple2<Long, CreateExpenseRequest>> valid = new ArrayList<>(batch.size());
+        for (Tuple2<Long, CreateExpenseRequest> item : batch) {
+            String error = validate(item.getT2());
+            if (error != null) {
+                result.recordFailure(item.getT1(), item.getT2().getUserId(), error);
+            } else {
+                valid.add(item);
+            }
+        }
+        if (valid.isEmpty()) {
+            return Mono.empty();
+        }
+        
+        Set<String> userIds = valid.stream()
+                .map(item -> item.getT2().getUserId())
+                .collect(Collectors.toSet());
+        
+        return userRepository.findAllById(userIds)
+                .map(User::getId)
+                .collect(Collectors.toSet())
+                .flatMap(existingUserIds -> {
+                    List<Long> indexes = new ArrayList<>(valid.size());
+                    List<Expense> expenses = new ArrayList<>(valid.size());
+                    for (Tuple2<Long, CreateExpenseRequest> item : valid) {
+                        CreateExpenseRequest request = item.getT2();
+                        if (!existingUserIds.contains(request.getUserId())) {
+                            result.recordFailure(item.getT1(), request.getUserId(), "Usuario no encontrado");
+                            continue;
+                        }
+                        indexes.add(item.getT1());
+                        expenses.add(toExpense(request));
+                    }
+                    if (expenses.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    // Tras insertar, un fallo en saldos o resúmenes se anota en el resultado sin cortar la carga
+                    return insertAll(indexes, expenses, result)
+                            .flatMap(inserted -> Mono.when(applyBalanceDeltas(inserted, indexById(indexes, expenses), result),
+                                    updateSummaries(inserted, result)));
+                });
+    }
+    
+    private Mono<List<Expense>> insertAll(List<Long> indexes, List<Expense> expenses, BulkExpenseResult result) {
+        ReactiveBulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+        bulkOperations.insert(expenses);
+        
+        return bulkOperations.execute()
+                .map(writeResult -> {
+                    result.recordInserted(expenses.size());
+                    return expenses;
+                })
+                .onErrorResume(error -> writeErrors(error) != null, error -> {
+                    // Con inserción no ordenada el resto del lote se escribe; solo se descartan los índices con error
+                    Set<Integer> failedPositions = new HashSet<>();
+                    for (BulkWriteError writeError : writeErrors(error)) {
+                        failedPositions.add(writeError.getIndex());
+                        Expense expense = expenses.get(writeError.getIndex());
+                        result.recordFailure(indexes.get(writeError.getIndex()), expense.getUserId(), writeError.getMessage());
+                    }
+                    List<Expense> inserted = new ArrayList<>(expenses.size() - failedPositions.size());
+                    for (int i = 0; i < expenses.size(); i++) {
+                        if (!failedPositions.contains(i)) {
+                            inserted.add(expenses.get(i));
+                        }
+                    }
+                    result.recordInserted(inserted.size());
+                    return Mono.just(inserted);
+                });
+    }
+    
+    private Mono<Void> applyBalanceDeltas(List<Expense> inserted, Map<String, Long> indexById, BulkExpenseResult result) {
+        if (inserted.isEmpty()) {
+            return Mono.empty();
+        }
+        
+        Map<String, BigDecimal> deltas = inserted.stream()
+                .collect(Collectors.groupingBy(Expense::getUserId,
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)));
+        // El índice de cada error del bulkWrite es la posición del updateOne en esta lista
+        List<String> userIds = new ArrayList<>(deltas.keySet());
+        
+        ReactiveBulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        userIds.forEach(userId -> bulkOperations.updateOne(
+                Query.query(Criteria.where("id").is(userId)),
+                new Update().inc("balance", deltas.get(userId).negate())));
+        
+        return bulkOperations.execute()
+                .doOnNext(writeResult -> logger.debug("Saldos actualizados para {} usuarios", writeResult.getModifiedCount()))
+                .then()
+                .onErrorResume(error -> {
+                    Map<String, String> failedUsers = failedUsers(error, userIds);
+                    logger.warn("Saldo sin actualizar para {} usuarios con gastos ya insertados: {}",
+                            failedUsers.size(), error.getMessage());
+                    for (Expense expense : inserted) {
+                        String message = failedUsers.get(expense.getUserId());
+                        if (message != null) {
+                            result.recordBalanceFailure(indexById.get(expense.getId()), expense.getUserId(), message);
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+    
+    private Mono<Void> updateSummaries(List<Expense> inserted, BulkExpenseResult result) {
+        return summaryRepository.incrementAll(inserted)
+                .onErrorResume(error -> {
+                    logger.warn("Resúmenes sin actualizar para {} gastos insertados: {}", inserted.size(), error.getMessage());
+                    result.setSummariesStale(true);
+                    return Mono.empty();
+                });
+    }
+    
+    /**
+     * Mensaje por usuario cuyo $inc no se aplicó: los de cada error del bulkWrite o, si falló el comando entero, todos
+     */
+    private static Map<String, String> failedUsers(Throwable error, List<String> userIds) {
+        Map<String, String> failedUsers = new HashMap<>();
+        List<BulkWriteError> writeErrors = writeErrors(error);
+        if (writeErrors == null) {
+            userIds.forEach(userId -> failedUsers.put(userId, error.getMessage()));
+        } else {
+            writeErrors.forEach(writeError -> failedUsers.put(userIds.get(writeError.getIndex()), writeError.getMessage()));
+        }
+        return failedUsers;
+    }
+    
+    private static Map<String, Long> indexById(List<Long> indexes, List<Expense> expenses) {
+        Map<String, Long> indexById = new HashMap<>();
+        for (int i = 0; i < expenses.size(); i++) {
+            indexById.put(expenses.get(i).getId(), indexes.get(i));
+        }
+        return indexById;
+    }
+    
+    private String validate(CreateExpenseRequest request) {
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getAmount().compareTo(MAX_AMOUNT) > 0) {
+            return "Monto excede el límite permitido";
+        }
+        return null;
+    }
+    
+    private static Expense toExpense(CreateExpenseRequest request) {
+        Expense expense = new Expense(
+                request.getUserId(),
+                request.getCategoryId(),
+                request.getAmount(),
+                request.getDescription(),
+                request.getPaymentMethod(),
+                request.getDate()
+        );
+        // El id se asigna antes de insertar para relacionar cada error del bulkWrite con su elemento
+        expense.setId(new ObjectId().toHexString());
+        return expense;
+    }
+    
+    private static List<BulkWriteError> writeErrors(Throwable error) {
+        if (error instanceof BulkOperationException bulkError) {
+            return bulkError.getErrors();
+        }
+        if (error instanceof MongoBulkWriteException bulkError) {
+            return bulkError.getWriteErrors();
+        }
+        return null;
+    }
+}
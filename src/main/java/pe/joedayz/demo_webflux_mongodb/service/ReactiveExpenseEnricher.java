@@ -0,0 +1,79 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.cache.ReactiveReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Enriquece gastos con el nombre del usuario y de la categoría por ventanas.
+ * Cada ventana de gastos se resuelve contra la caché de datos de referencia;
+ * solo las entradas faltantes van a MongoDB, con una consulta $in por colección.
+ */
+@Component
+public class ReactiveExpenseEnricher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExpenseEnricher.class);
+    
+    private final ReactiveReferenceDataCache referenceDataCache;
+    private final int batchSize;
+    
+    public ReactiveExpenseEnricher(ReactiveReferenceDataCache referenceDataCache,
+                                 @Value("${app.enrichment.batch-size:100}") int batchSize) {
+        this.referenceDataCache = referenceDataCache;
+        this.batchSize = batchSize;
+    }
+    
+    public Flux<ExpenseResponse> enrichAll(Flux<Expense> expenses) {
+        return expenses
+                .buffer(batchSize)
+                .concatMap(this::enrichBatch);
+    }
+    
+    public Mono<ExpenseResponse> enrich(Expense expense) {
+        return enrichBatch(List.of(expense)).next();
+    }
+    
+    private Flux<ExpenseResponse> enrichBatch(List<Expense> batch) {
+        Set<String> userIds = batch.stream()
+                .map(Expense::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> categoryIds = batch.stream()
+                .map(Expense::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        
+        logger.debug("Enriqueciendo ventana de {} gastos ({} usuarios, {} categorías)",
+                batch.size(), userIds.size(), categoryIds.size());
+        
+        return Mono.zip(
+                referenceDataCache.getUserNames(userIds),
+                referenceDataCache.getCategoryNames(categoryIds)
+        ).flatMapIterable(tuple -> toResponses(batch, tuple.getT1(), tuple.getT2()));
+    }
+    
+    private List<ExpenseResponse> toResponses(List<Expense> batch,
+                                              Map<String, String> userNames,
+                                              Map<String, String> categoryNames) {
+        // Igual que con Mono.zip, un gasto sin usuario o categoría no se emite
+        return batch.stream()
+                .filter(expense -> userNames.containsKey(expense.getUserId())
+                        && categoryNames.containsKey(expense.getCategoryId()))
+                .map(expense -> new ExpenseResponse(expense,
+                        userNames.get(expense.getUserId()),
+                        categoryNames.get(expense.getCategoryId())))
+                .collect(Collectors.toList());
+    }
+}
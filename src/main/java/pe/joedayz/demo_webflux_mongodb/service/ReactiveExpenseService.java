@@ -1,23 +1,49 @@
 package pe.joedayz.demo_webflux_mongodb.service;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.stereotype.Service;
 import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseCursor;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpensePage;
 import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
-import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseStats;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
-import pe.joedayz.demo_webflux_mongodb.model.User;
-import pe.joedayz.demo_webflux_mongodb.repository.ReactiveCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+import pe.joedayz.demo_webflux_mongodb.payment.ReactivePaymentGateway;
+import pe.joedayz.demo_webflux_mongodb.repository.ExpenseProjections;
 import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveNotificationOutboxRepository;
 import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import pe.joedayz.demo_webflux_mongodb.service.ExpensePipelineObservations.Stage;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import pe.joedayz.demo_webflux_mongodb.singleflight.ReactiveSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
+import pe.joedayz.demo_webflux_mongodb.summary.ExpenseSummaryRebuild;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.publisher.Signal;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class ReactiveExpenseService {
@@ -26,141 +52,352 @@ public class ReactiveExpenseService {
     
     private final ReactiveExpenseRepository expenseRepository;
     private final ReactiveUserRepository userRepository;
-    private final ReactiveCategoryRepository categoryRepository;
+    private final ReactiveExpenseEnricher expenseEnricher;
+    private final ReactiveNotificationOutboxRepository outboxRepository;
+    private final ReactiveExpenseSummaryRepository summaryRepository;
+    private final ExpenseSummaryRebuild summaryRebuild;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactivePaymentGateway paymentGateway;
+    private final SimulationProfile simulation;
+    private final MoneyStorage moneyStorage;
+    private final ReactiveSingleFlight singleFlight;
+    private final ExpensePipelineObservations observations;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int exportBatchSize;
+    private final int exportPrefetch;
     
     public ReactiveExpenseService(ReactiveExpenseRepository expenseRepository,
                                 ReactiveUserRepository userRepository,
-                                ReactiveCategoryRepository categoryRepository) {
+                                ReactiveExpenseEnricher expenseEnricher,
+                                ReactiveNotificationOutboxRepository outboxRepository,
+                                ReactiveExpenseSummaryRepository summaryRepository,
+                                ExpenseSummaryRebuild summaryRebuild,
+                                ReactiveMongoTemplate mongoTemplate,
+                                ReactivePaymentGateway paymentGateway,
+                                SimulationProfile simulation,
+                                MoneyStorage moneyStorage,
+                                ReactiveSingleFlight singleFlight,
+                                ExpensePipelineObservations observations,
+                                @Value("${app.pagination.default-size:50}") int defaultPageSize,
+                                @Value("${app.pagination.max-size:200}") int maxPageSize,
+                                @Value("${app.export.batch-size:500}") int exportBatchSize,
+                                @Value("${app.export.prefetch:256}") int exportPrefetch) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
-        this.categoryRepository = categoryRepository;
+        this.expenseEnricher = expenseEnricher;
+        this.outboxRepository = outboxRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryRebuild = summaryRebuild;
+        this.mongoTemplate = mongoTemplate;
+        this.paymentGateway = paymentGateway;
+        this.simulation = simulation;
+        this.moneyStorage = moneyStorage;
+        this.singleFlight = singleFlight;
+        this.observations = observations;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.exportBatchSize = exportBatchSize;
+        this.exportPrefetch = exportPrefetch;
     }
     
     public Mono<ExpenseResponse> createExpense(CreateExpenseRequest request) {
-        logger.info("Creando gasto reactivo para usuario: {}", request.getUserId());
+        logger.debug("Creando gasto reactivo para usuario: {}", request.getUserId());
         
+        // Todo el pipeline es no bloqueante: corre en el hilo que lo suscribe, sin saltos a boundedElastic
+        // Cada etapa se mide con su propia observación (timer expense.pipeline.stage)
         return Mono.defer(() -> {
-            // Simular procesamiento complejo de validación
-            return validateExpenseRequest(request)
-                    .then(processPaymentMethod(request))
+            Expense.PaymentMethod method = request.getPaymentMethod();
+            
+            // Las comprobaciones sin E/S (límite del monto, método de pago) van antes del cobro; la validación
+            // del usuario y el pago no dependen entre sí y se ejecutan a la vez, esperando a ambos para
+            // reembolsar el pago si la validación falla
+            return checkRequestLimits(request)
+                    .then(Mono.zip(observations.observe(validateExpenseRequest(request), Stage.VALIDATE, method).materialize(),
+                                    observations.observe(processPaymentMethod(request), Stage.PAYMENT, method).materialize())
+                            .flatMap(results -> settlePayment(request, results.getT1(), results.getT2())))
                     .then(createExpenseEntity(request))
-                    .flatMap(expense -> {
-                        // Simular operaciones adicionales como notificaciones
-                        return sendNotifications(expense)
-                                .then(updateUserBalance(expense))
-                                .then(Mono.just(expense));
-                    })
-                    .flatMap(this::enrichExpenseResponse);
-        }).subscribeOn(Schedulers.boundedElastic());
+                    // Las notificaciones salen del outbox en segundo plano; aquí solo quedan el saldo y el resumen
+                    .flatMap(expense -> Mono.when(
+                                    observations.observe(updateUserBalance(expense), Stage.BALANCE, method),
+                                    observations.observe(summaryRepository.incrementAll(List.of(expense)), Stage.SUMMARY, method))
+                            .thenReturn(expense))
+                    .flatMap(expense -> observations.observe(expenseEnricher.enrich(expense), Stage.ENRICH, method));
+        });
     }
     
+    /**
+     * Gastos más recientes, acotados a app.pagination.max-size; el listado completo va por getExpensesPage o streamExpenses
+     */
     public Flux<ExpenseResponse> getAllExpenses() {
-        logger.info("Obteniendo todos los gastos de forma reactiva");
+        logger.debug("Obteniendo todos los gastos de forma reactiva");
+        
+        Flux<ExpenseResponse> expenses = expenseEnricher.enrichAll(expenseRepository.findAllBy(newestFirst(maxPageSize)));
         
-        return expenseRepository.findAll()
-                .flatMap(this::enrichExpenseResponse)
-                .delayElements(Duration.ofMillis(10)) // Simular procesamiento
-                .doOnNext(expense -> logger.debug("Procesando gasto: {}", expense.getId()));
+        // Procesamiento por elemento simulado solo si el perfil activo lo pide
+        if (simulation.isActive(SimulationStage.LIST_ELEMENT)) {
+            expenses = expenses.concatMap(expense -> simulation.delay(SimulationStage.LIST_ELEMENT).thenReturn(expense));
+        }
+        return debugEach(expenses, "Procesando gasto: {}", ExpenseResponse::getId);
     }
     
     public Flux<ExpenseResponse> getExpensesByUser(String userId) {
-        logger.info("Obteniendo gastos del usuario: {} de forma reactiva", userId);
+        logger.debug("Obteniendo gastos del usuario: {} de forma reactiva", userId);
         
-        return expenseRepository.findByUserId(userId)
-                .flatMap(this::enrichExpenseResponse)
-                .doOnNext(expense -> logger.debug("Procesando gasto del usuario: {}", expense.getId()));
+        return debugEach(expenseEnricher.enrichAll(expenseRepository.findByUserId(userId)),
+                "Procesando gasto del usuario: {}", ExpenseResponse::getId);
     }
     
     public Flux<ExpenseResponse> getExpensesByPaymentMethod(Expense.PaymentMethod paymentMethod) {
-        logger.info("Obteniendo gastos por método de pago: {} de forma reactiva", paymentMethod);
+        logger.debug("Obteniendo gastos por método de pago: {} de forma reactiva", paymentMethod);
+        
+        return debugEach(expenseEnricher.enrichAll(expenseRepository.findByPaymentMethod(paymentMethod)),
+                "Procesando gasto con método: {}", ExpenseResponse::getPaymentMethod);
+    }
+    
+    public Mono<ExpensePage> getExpensesPage(String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos de forma reactiva");
+        
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(size);
+            Pageable pageable = keysetPageable(pageSize);
+            Flux<Expense> expenses = cursor == null
+                    ? expenseRepository.findAllBy(pageable)
+                    : findAllAfter(ExpenseCursor.decode(cursor), pageable);
+            return toPage(expenses, pageSize);
+        });
+    }
+    
+    public Mono<ExpensePage> getExpensesPageByUser(String userId, String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos del usuario: {} de forma reactiva", userId);
+        
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(size);
+            Pageable pageable = keysetPageable(pageSize);
+            if (cursor == null) {
+                return toPage(expenseRepository.findByUserId(userId, pageable), pageSize);
+            }
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            return toPage(expenseRepository.findByUserIdAfter(userId, after.getDate(), after.getId(), pageable), pageSize);
+        });
+    }
+    
+    public Mono<ExpensePage> getExpensesPageByPaymentMethod(Expense.PaymentMethod paymentMethod, String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos por método de pago: {} de forma reactiva", paymentMethod);
+        
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(size);
+            Pageable pageable = keysetPageable(pageSize);
+            if (cursor == null) {
+                return toPage(expenseRepository.findByPaymentMethod(paymentMethod, pageable), pageSize);
+            }
+            ExpenseCursor after = ExpenseCursor.decode(cursor);
+            return toPage(expenseRepository.findByPaymentMethodAfter(paymentMethod, after.getDate(), after.getId(), pageable), pageSize);
+        });
+    }
+    
+    /**
+     * Exportación completa con contrapresión: la demanda del cliente HTTP llega hasta el cursor de MongoDB,
+     * que trae lotes de exportBatchSize documentos; limitRate acota cuántos se piden por adelantado.
+     */
+    public Flux<ExpenseResponse> streamExpenses(String userId) {
+        logger.debug("Exportando gastos en streaming de forma reactiva (usuario: {})", userId);
+        
+        // Los documentos se decodifican con ExpenseCodec directamente desde el stream BSON
+        Bson filter = userId == null ? new Document() : Filters.eq("userId", userId);
+        Flux<Expense> expenses = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Expense.class))
+                .flatMapMany(collection -> collection.withDocumentClass(Expense.class)
+                        .find(filter)
+                        .projection(Projections.exclude(ExpenseProjections.TYPE_KEY))
+                        .sort(Sorts.descending("date", "_id"))
+                        .batchSize(exportBatchSize));
         
-        return expenseRepository.findByPaymentMethod(paymentMethod)
-                .flatMap(this::enrichExpenseResponse)
-                .doOnNext(expense -> logger.debug("Procesando gasto con método: {}", expense.getPaymentMethod()));
+        return expenseEnricher.enrichAll(expenses.limitRate(exportPrefetch));
     }
     
     public Mono<ExpenseResponse> getExpenseById(String id) {
-        logger.info("Obteniendo gasto por ID: {} de forma reactiva", id);
+        logger.debug("Obteniendo gasto por ID: {} de forma reactiva", id);
         
         return expenseRepository.findById(id)
-                .flatMap(this::enrichExpenseResponse)
+                .flatMap(expenseEnricher::enrich)
                 .doOnNext(expense -> logger.debug("Gasto encontrado: {}", expense.getId()));
     }
     
     public Mono<BigDecimal> getTotalExpensesByUser(String userId) {
-        logger.info("Calculando total de gastos del usuario: {} de forma reactiva", userId);
+        logger.debug("Calculando total de gastos del usuario: {} de forma reactiva", userId);
+        
+        // Con céntimos la suma llega como un long y solo se crea un BigDecimal al final;
+        // peticiones simultáneas del mismo usuario comparten una sola agregación
+        Mono<BigDecimal> sum = singleFlight.execute(SingleFlightProperties.USER_TOTAL, userId,
+                () -> moneyStorage == MoneyStorage.CENTS
+                        ? expenseRepository.sumAmountCentsByUser(userId).map(MoneyStorage::fromCents)
+                        : expenseRepository.sumAmountByUser(userId).map(MoneyStorage::read));
+        
+        return sum
+                .defaultIfEmpty(BigDecimal.ZERO)
+                .doOnNext(total -> logger.debug("Total de gastos del usuario {}: {}", userId, total));
+    }
+    
+    public Mono<ExpenseStats> getStatsByUser(String userId) {
+        logger.debug("Calculando estadísticas del usuario: {} de forma reactiva", userId);
+        
+        return expenseRepository.aggregateStatsByUser(userId);
+    }
+    
+    public Flux<ExpenseStats> getStatsByUsers() {
+        logger.debug("Calculando estadísticas por usuario de forma reactiva");
+        
+        return expenseRepository.aggregateStatsByUsers();
+    }
+    
+    public Flux<ExpenseStats> getStatsByCategory() {
+        logger.debug("Calculando estadísticas por categoría de forma reactiva");
+        
+        return expenseRepository.aggregateStatsByCategory();
+    }
+    
+    public Flux<ExpenseStats> getStatsByPaymentMethod() {
+        logger.debug("Calculando estadísticas por método de pago de forma reactiva");
+        
+        return expenseRepository.aggregateStatsByPaymentMethod();
+    }
+    
+    public Flux<ExpenseStats> getStatsByDateBucket(ExpenseStats.DateBucket bucket) {
+        logger.debug("Calculando estadísticas por periodo ({}) de forma reactiva", bucket);
+        
+        return expenseRepository.aggregateStatsByDateBucket(bucket.getFormat());
+    }
+    
+    public Flux<ExpenseSummary> getMonthlySummary(String userId, YearMonth month) {
+        logger.debug("Obteniendo resumen de {} del usuario: {} de forma reactiva", month, userId);
+        
+        return summaryRepository.findByUserIdAndMonth(userId, month.toString());
+    }
+    
+    public Mono<ExpenseSummary> getCategorySummary(String userId, String categoryId, YearMonth month) {
+        logger.debug("Obteniendo resumen de {} del usuario: {} en la categoría: {} de forma reactiva", month, userId, categoryId);
         
-        return expenseRepository.findByUserId(userId)
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .doOnNext(total -> logger.info("Total de gastos del usuario {}: {}", userId, total));
+        return summaryRepository.findById(ExpenseSummary.idOf(userId, categoryId, month));
+    }
+    
+    public Mono<Long> rebuildSummaries() {
+        logger.info("Reconstruyendo resúmenes de gastos de forma reactiva");
+        
+        return Mono.defer(() -> {
+            Date rebuiltAt = new Date();
+            return mongoTemplate.getCollection("expenses")
+                    .flatMap(expenses -> Mono.from(expenses.aggregate(summaryRebuild.pipeline(rebuiltAt)).toCollection()))
+                    .then(mongoTemplate.getCollection(ExpenseSummaryRebuild.COLLECTION))
+                    .flatMap(summaries -> Mono.from(summaries.deleteMany(ExpenseSummaryRebuild.staleFilter(rebuiltAt)))
+                            .then(Mono.from(summaries.countDocuments())))
+                    .doOnNext(count -> logger.info("Resúmenes reconstruidos: {}", count));
+        });
     }
     
     public Mono<Long> getExpenseCountByPaymentMethod(Expense.PaymentMethod paymentMethod) {
-        logger.info("Contando gastos por método de pago: {} de forma reactiva", paymentMethod);
+        logger.debug("Contando gastos por método de pago: {} de forma reactiva", paymentMethod);
         
         return expenseRepository.countByPaymentMethod(paymentMethod)
-                .doOnNext(count -> logger.info("Total de gastos con {}: {}", paymentMethod, count));
+                .doOnNext(count -> logger.debug("Total de gastos con {}: {}", paymentMethod, count));
     }
     
     // Métodos privados con lógica de negocio compleja
     
+    private Flux<Expense> findAllAfter(ExpenseCursor after, Pageable pageable) {
+        return expenseRepository.findAllAfter(after.getDate(), after.getId(), pageable);
+    }
+    
+    private int resolvePageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+    
+    /**
+     * Se pide un elemento de más para saber si existe una página siguiente sin contar documentos
+     */
+    private static Pageable keysetPageable(int pageSize) {
+        return newestFirst(pageSize + 1);
+    }
+    
+    private static Pageable newestFirst(int limit) {
+        return PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "date", "id"));
+    }
+    
+    private Mono<ExpensePage> toPage(Flux<Expense> expenses, int pageSize) {
+        return expenses.collectList()
+                .flatMap(window -> {
+                    boolean hasMore = window.size() > pageSize;
+                    List<Expense> page = hasMore ? window.subList(0, pageSize) : window;
+                    // El cursor se toma del último documento leído, no de la respuesta enriquecida
+                    String nextCursor = hasMore ? ExpenseCursor.after(page.get(page.size() - 1)).encode() : null;
+                    return expenseEnricher.enrichAll(Flux.fromIterable(page))
+                            .collectList()
+                            .map(items -> new ExpensePage(items, nextCursor));
+                });
+    }
+    
+    /**
+     * Log por elemento protegido: el doOnNext solo se ensambla si DEBUG está activo al armar el pipeline,
+     * así con INFO o superior no hay ni lambda ni comprobación de nivel por cada gasto emitido
+     */
+    private static <T> Flux<T> debugEach(Flux<T> flux, String message, Function<T, Object> argument) {
+        if (!logger.isDebugEnabled()) {
+            return flux;
+        }
+        return flux.doOnNext(element -> logger.debug(message, argument.apply(element)));
+    }
+    
     private Mono<Void> validateExpenseRequest(CreateExpenseRequest request) {
         return Mono.defer(() -> {
             logger.debug("Validando solicitud de gasto para usuario: {}", request.getUserId());
             
-            // Simular validaciones complejas
-            if (request.getAmount().compareTo(BigDecimal.valueOf(10000)) > 0) {
-                return Mono.error(new RuntimeException("Monto excede el límite permitido"));
-            }
-            
             // Simular validación de usuario
-            return userRepository.findById(request.getUserId())
+            return singleFlight.execute(SingleFlightProperties.USER_BY_ID, request.getUserId(),
+                            () -> userRepository.findById(request.getUserId()))
                     .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
                     .then();
         });
     }
     
-    private Mono<Void> processPaymentMethod(CreateExpenseRequest request) {
+    private Mono<Void> checkRequestLimits(CreateExpenseRequest request) {
         return Mono.defer(() -> {
-            logger.debug("Procesando método de pago: {}", request.getPaymentMethod());
-            
-            // Simular lógica de procesamiento según el método de pago
-            switch (request.getPaymentMethod()) {
-                case CREDIT_CARD:
-                    return simulateCreditCardProcessing(request.getAmount());
-                case DEBIT_CARD:
-                    return simulateDebitCardProcessing(request.getAmount());
-                case CASH:
-                    return simulateCashProcessing(request.getAmount());
-                default:
-                    return Mono.error(new RuntimeException("Método de pago no válido"));
+            if (request.getAmount().compareTo(BigDecimal.valueOf(10000)) > 0) {
+                return Mono.error(new RuntimeException("Monto excede el límite permitido"));
             }
+            if (request.getPaymentMethod() == null) {
+                return Mono.error(new RuntimeException("Método de pago no válido"));
+            }
+            return Mono.empty();
         });
     }
     
-    private Mono<Void> simulateCreditCardProcessing(BigDecimal amount) {
-        return Mono.delay(Duration.ofMillis(200)) // Simular procesamiento de tarjeta de crédito
-                .then(Mono.defer(() -> {
-                    logger.debug("Procesando tarjeta de crédito por monto: {}", amount);
-                    return Mono.empty();
-                }));
+    private Mono<Void> processPaymentMethod(CreateExpenseRequest request) {
+        return Mono.defer(() -> {
+            logger.debug("Procesando método de pago: {}", request.getPaymentMethod());
+            return paymentGateway.process(request.getPaymentMethod(), request.getAmount());
+        });
     }
     
-    private Mono<Void> simulateDebitCardProcessing(BigDecimal amount) {
-        return Mono.delay(Duration.ofMillis(150)) // Simular procesamiento de tarjeta de débito
-                .then(Mono.defer(() -> {
-                    logger.debug("Procesando tarjeta de débito por monto: {}", amount);
-                    return Mono.empty();
-                }));
+    /**
+     * Combina el resultado de la validación y del pago: si la validación falla con el pago ya cobrado,
+     * se reembolsa antes de propagar el error de validación
+     */
+    private Mono<Void> settlePayment(CreateExpenseRequest request, Signal<Void> validation, Signal<Void> payment) {
+        if (validation.isOnError()) {
+            Mono<Void> failed = Mono.error(validation.getThrowable());
+            return payment.isOnError() ? failed : refundPayment(request).then(failed);
+        }
+        return payment.isOnError() ? Mono.error(payment.getThrowable()) : Mono.empty();
     }
     
-    private Mono<Void> simulateCashProcessing(BigDecimal amount) {
-        return Mono.delay(Duration.ofMillis(50)) // Simular procesamiento en efectivo
-                .then(Mono.defer(() -> {
-                    logger.debug("Procesando pago en efectivo por monto: {}", amount);
+    private Mono<Void> refundPayment(CreateExpenseRequest request) {
+        return paymentGateway.refund(request.getPaymentMethod(), request.getAmount())
+                .doOnSuccess(ignored -> logger.debug("Pago reembolsado: el gasto del usuario {} no se creó", request.getUserId()))
+                // El error original es el que se propaga; el cobro queda pendiente de conciliación
+                .onErrorResume(error -> {
+                    logger.error("No se pudo reembolsar el pago de {} ({}) del usuario {}: {}", request.getAmount(),
+                            request.getPaymentMethod(), request.getUserId(), error.getMessage());
                     return Mono.empty();
-                }));
+                });
     }
     
     private Mono<Expense> createExpenseEntity(CreateExpenseRequest request) {
@@ -173,38 +410,18 @@ public class ReactiveExpenseService {
                 request.getDate()
         );
         
-        return expenseRepository.save(expense)
-                .doOnNext(savedExpense -> logger.info("Gasto creado con ID: {}", savedExpense.getId()));
-    }
-    
-    private Mono<Void> sendNotifications(Expense expense) {
-        return Mono.defer(() -> {
-            logger.debug("Enviando notificaciones para gasto: {}", expense.getId());
-            
-            // Simular envío de notificaciones
-            return Mono.delay(Duration.ofMillis(100))
-                    .then(Mono.empty());
-        });
+        // MongoDB standalone no tiene transacciones multi-documento: la notificación pendiente se escribe
+        // antes que el gasto (con su id ya asignado) y el despachador solo la entrega si el gasto existe
+        expense.setId(new ObjectId().toHexString());
+        
+        return observations.observe(outboxRepository.save(new NotificationOutbox(expense)), Stage.NOTIFY, expense.getPaymentMethod())
+                .then(observations.observe(expenseRepository.insert(expense), Stage.PERSIST, expense.getPaymentMethod()))
+                .doOnNext(savedExpense -> logger.debug("Gasto creado con ID: {}", savedExpense.getId()));
     }
     
     private Mono<Void> updateUserBalance(Expense expense) {
-        return userRepository.findById(expense.getUserId())
-                .flatMap(user -> {
-                    BigDecimal newBalance = user.getBalance().subtract(expense.getAmount());
-                    user.setBalance(newBalance);
-                    return userRepository.save(user);
-                })
+        // $inc atómico: un solo viaje a MongoDB y sin actualizaciones perdidas entre gastos concurrentes
+        return userRepository.incrementBalance(expense.getUserId(), expense.getAmount().negate())
                 .then();
     }
-    
-    private Mono<ExpenseResponse> enrichExpenseResponse(Expense expense) {
-        return Mono.zip(
-                userRepository.findById(expense.getUserId()),
-                categoryRepository.findById(expense.getCategoryId())
-        ).map(tuple -> {
-            User user = tuple.getT1();
-            Category category = tuple.getT2();
-            return new ExpenseResponse(expense, user.getFullName(), category.getName());
-        });
-    }
 }
@@ -0,0 +1,246 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Versión bloqueante de la carga masiva de gastos.
+ * Recorre la entrada por lotes para no retener la petición completa en memoria.
+ */
+@Service
+public class TraditionalBulkExpenseService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraditionalBulkExpenseService.class);
+    
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(10000);
+    
+    private final TraditionalUserRepository userRepository;
+    private final TraditionalExpenseSummaryRepository summaryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final int batchSize;
+    
+    public TraditionalBulkExpenseService(TraditionalUserRepository userRepository,
+                                       TraditionalExpenseSummaryRepository summaryRepository,
+                                       MongoTemplate mongoTemplate,
+                                       Validator validator,
+                                       @Value("${app.bulk.batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+    
+    public BulkExpenseResult createExpenses(Iterable<CreateExpenseRequest> requests) {
+        long startNanos = System.nanoTime();
+        BulkExpenseResult result = new BulkExpenseResult();
+        
+        long index = 0;
+        List<CreateExpenseRequest> batch = new ArrayList<>(batchSize);
+        for (CreateExpenseRequest request : requests) {
+            batch.add(request);
+            if (batch.size() == batchSize) {
+                processBatch(index, batch, result);
+                index += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            processBatch(index, batch, result);
+        }
+        
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        logger.info("Carga masiva tradicional: {} recibidos, {} insertados, {} fallidos en {} ms",
+                result.getReceived(), result.getInserted(), result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+    
+    private void processBatch(long firstIndex, List<CreateExpenseRequest> batch, BulkExpenseResult result) {
+        result.recordReceived(batch.size());
+        
+        List<Long> validIndexes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            String error = validate(batch.get(i));
+            if (error != null) {
+                result.recordFailure(firstIndex + i, batch.get(i).getUserId(), error);
+            } else {
+                validIndexes.add(firstIndex + i);
+            }
+        }
+        if (validIndexes.isEmpty()) {
+            return;
+        }
+        
+        Set<String> userIds = validIndexes.stream()
+                .map(index -> batch.get((int) (index - firstIndex)).getUserId())
+                .collect(Collectors.toSet());
+        Set<String> existingUserIds = StreamSupport.stream(userRepository.findAllById(userIds).spliterator(), false)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        
+        List<Long> indexes = new ArrayList<>(validIndexes.size());
+        List<Expense> expenses = new ArrayList<>(validIndexes.size());
+        for (Long index : validIndexes) {
+            CreateExpenseRequest request = batch.get((int) (index - firstIndex));
+            if (!existingUserIds.contains(request.getUserId())) {
+                result.recordFailure(index, request.getUserId(), "Usuario no encontrado");
+                continue;
+            }
+            indexes.add(index);
+            expenses.add(toExpense(request));
+        }
+        if (expenses.isEmpty()) {
+            return;
+        }
+        
+        // Tras insertar, un fallo en saldos o resúmenes se anota en el resultado sin cortar la carga
+        List<Expense> inserted = insertAll(indexes, expenses, result);
+        applyBalanceDeltas(inserted, indexById(indexes, expenses), result);
+        updateSummaries(inserted, result);
+    }
+    
+    private List<Expense> insertAll(List<Long> indexes, List<Expense> expenses, BulkExpenseResult result) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)
+                    .insert(expenses)
+                    .execute();
+            result.recordInserted(expenses.size());
+            return expenses;
+        } catch (BulkOperationException e) {
+            // Con inserción no ordenada el resto del lote se escribe; solo se descartan los índices con error
+            Set<Integer> failedPositions = new HashSet<>();
+            for (BulkWriteError writeError : e.getErrors()) {
+                failedPositions.add(writeError.getIndex());
+                Expense expense = expenses.get(writeError.getIndex());
+                result.recordFailure(indexes.get(writeError.getIndex()), expense.getUserId(), writeError.getMessage());
+            }
+            List<Expense> inserted = new ArrayList<>(expenses.size() - failedPositions.size());
+            for (int i = 0; i < expenses.size(); i++) {
+                if (!failedPositions.contains(i)) {
+                    inserted.add(expenses.get(i));
+                }
+            }
+            result.recordInserted(inserted.size());
+            return inserted;
+        }
+    }
+    
+    private void applyBalanceDeltas(List<Expense> inserted, Map<String, Long> indexById, BulkExpenseResult result) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        
+        Map<String, BigDecimal> deltas = inserted.stream()
+                .collect(Collectors.groupingBy(Expense::getUserId,
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)));
+        // El índice de cada error del bulkWrite es la posición del updateOne en esta lista
+        List<String> userIds = new ArrayList<>(deltas.keySet());
+        
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        userIds.forEach(userId -> bulkOperations.updateOne(
+                Query.query(Criteria.where("id").is(userId)),
+                new Update().inc("balance", deltas.get(userId).negate())));
+        try {
+            bulkOperations.execute();
+            logger.debug("Saldos actualizados para {} usuarios", deltas.size());
+        } catch (RuntimeException e) {
+            Map<String, String> failedUsers = failedUsers(e, userIds);
+            logger.warn("Saldo sin actualizar para {} usuarios con gastos ya insertados: {}",
+                    failedUsers.size(), e.getMessage());
+            for (Expense expense : inserted) {
+                String message = failedUsers.get(expense.getUserId());
+                if (message != null) {
+                    result.recordBalanceFailure(indexById.get(expense.getId()), expense.getUserId(), message);
+                }
+            }
+        }
+    }
+    
+    private void updateSummaries(List<Expense> inserted, BulkExpenseResult result) {
+        try {
+            summaryRepository.incrementAll(inserted);
+        } catch (RuntimeException e) {
+            logger.warn("Resúmenes sin actualizar para {} gastos insertados: {}", inserted.size(), e.getMessage());
+            result.setSummariesStale(true);
+        }
+    }
+    
+    /**
+     * Mensaje por usuario cuyo $inc no se aplicó: los de cada error del bulkWrite o, si falló el comando entero, todos
+     */
+    private static Map<String, String> failedUsers(RuntimeException error, List<String> userIds) {
+        Map<String, String> failedUsers = new HashMap<>();
+        if (error instanceof BulkOperationException bulkError) {
+            bulkError.getErrors().forEach(writeError -> failedUsers.put(userIds.get(writeError.getIndex()), writeError.getMessage()));
+        } else {
+            userIds.forEach(userId -> failedUsers.put(userId, error.getMessage()));
+        }
+        return failedUsers;
+    }
+    
+    private static Map<String, Long> indexById(List<Long> indexes, List<Expense> expenses) {
+        Map<String, Long> indexById = new HashMap<>();
+        for (int i = 0; i < expenses.size(); i++) {
+            indexById.put(expenses.get(i).getId(), indexes.get(i));
+        }
+        return indexById;
+    }
+    
+    private String validate(CreateExpenseRequest request) {
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getAmount().compareTo(MAX_AMOUNT) > 0) {
+            return "Monto excede el límite permitido";
+        }
+        return null;
+    }
+    
+    private static Expense toExpense(CreateExpenseRequest request) {
+        Expense expense = new Expense(
+                request.getUserId(),
+                request.getCategoryId(),
+                request.getAmount(),
+                request.getDescription(),
+                request.getPaymentMethod(),
+                request.getDate()
+        );
+        // El id se asigna antes de insertar para relacionar cada error del bulkWrite con su elemento
+        expense.setId(new ObjectId().toHexString());
+        return expense;
+    }
+}
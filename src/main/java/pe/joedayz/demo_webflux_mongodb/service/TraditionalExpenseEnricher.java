@@ -0,0 +1,76 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.cache.TraditionalReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Versión bloqueante del enriquecimiento por lotes.
+ * Resuelve usuarios y categorías de cada página de gastos contra la caché de datos de referencia.
+ */
+@Component
+public class TraditionalExpenseEnricher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraditionalExpenseEnricher.class);
+    
+    private final TraditionalReferenceDataCache referenceDataCache;
+    private final int batchSize;
+    
+    public TraditionalExpenseEnricher(TraditionalReferenceDataCache referenceDataCache,
+                                    @Value("${app.enrichment.batch-size:100}") int batchSize) {
+        this.referenceDataCache = referenceDataCache;
+        this.batchSize = batchSize;
+    }
+    
+    public List<ExpenseResponse> enrichAll(List<Expense> expenses) {
+        List<ExpenseResponse> responses = new ArrayList<>(expenses.size());
+        for (int from = 0; from < expenses.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, expenses.size());
+            responses.addAll(enrichBatch(expenses.subList(from, to)));
+        }
+        return responses;
+    }
+    
+    public ExpenseResponse enrich(Expense expense) {
+        return enrichBatch(List.of(expense)).get(0);
+    }
+    
+    private List<ExpenseResponse> enrichBatch(List<Expense> batch) {
+        Set<String> userIds = batch.stream()
+                .map(Expense::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> categoryIds = batch.stream()
+                .map(Expense::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        
+        logger.debug("Enriqueciendo lote de {} gastos ({} usuarios, {} categorías)",
+                batch.size(), userIds.size(), categoryIds.size());
+        
+        Map<String, String> userNames = referenceDataCache.getUserNames(userIds);
+        Map<String, String> categoryNames = referenceDataCache.getCategoryNames(categoryIds);
+        
+        List<ExpenseResponse> responses = new ArrayList<>(batch.size());
+        for (Expense expense : batch) {
+            if (!userNames.containsKey(expense.getUserId()) || !categoryNames.containsKey(expense.getCategoryId())) {
+                throw new RuntimeException("Error al enriquecer respuesta del gasto");
+            }
+            responses.add(new ExpenseResponse(expense,
+                    userNames.get(expense.getUserId()),
+                    categoryNames.get(expense.getCategoryId())));
+        }
+        return responses;
+    }
+}
@@ -1,21 +1,55 @@
 package pe.joedayz.demo_webflux_mongodb.service;
 
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseCursor;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpensePage;
 import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
-import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseStats;
 import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
 import pe.joedayz.demo_webflux_mongodb.model.User;
-import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+import pe.joedayz.demo_webflux_mongodb.payment.TraditionalPaymentGateway;
+import pe.joedayz.demo_webflux_mongodb.repository.ExpenseProjections;
 import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalNotificationOutboxRepository;
 import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.service.ExpensePipelineObservations.Stage;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
+import pe.joedayz.demo_webflux_mongodb.singleflight.TraditionalSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.summary.ExpenseSummaryRebuild;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class TraditionalExpenseService {
@@ -24,56 +58,107 @@ public class TraditionalExpenseService {
     
     private final TraditionalExpenseRepository expenseRepository;
     private final TraditionalUserRepository userRepository;
-    private final TraditionalCategoryRepository categoryRepository;
+    private final TraditionalExpenseEnricher expenseEnricher;
+    private final TraditionalNotificationOutboxRepository outboxRepository;
+    private final TraditionalExpenseSummaryRepository summaryRepository;
+    private final ExpenseSummaryRebuild summaryRebuild;
+    private final MongoTemplate mongoTemplate;
+    private final AsyncTaskExecutor pipelineExecutor;
+    private final TraditionalPaymentGateway paymentGateway;
+    private final SimulationProfile simulation;
+    private final MoneyStorage moneyStorage;
+    private final TraditionalSingleFlight singleFlight;
+    private final ExpensePipelineObservations observations;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int exportBatchSize;
     
     public TraditionalExpenseService(TraditionalExpenseRepository expenseRepository,
                                    TraditionalUserRepository userRepository,
-                                   TraditionalCategoryRepository categoryRepository) {
+                                   TraditionalExpenseEnricher expenseEnricher,
+                                   TraditionalNotificationOutboxRepository outboxRepository,
+                                   TraditionalExpenseSummaryRepository summaryRepository,
+                                   ExpenseSummaryRebuild summaryRebuild,
+                                   MongoTemplate mongoTemplate,
+                                   @Qualifier("traditionalPipelineExecutor") AsyncTaskExecutor pipelineExecutor,
+                                   TraditionalPaymentGateway paymentGateway,
+                                   SimulationProfile simulation,
+                                   MoneyStorage moneyStorage,
+                                   TraditionalSingleFlight singleFlight,
+                                   ExpensePipelineObservations observations,
+                                   @Value("${app.pagination.default-size:50}") int defaultPageSize,
+                                   @Value("${app.pagination.max-size:200}") int maxPageSize,
+                                   @Value("${app.export.batch-size:500}") int exportBatchSize) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
-        this.categoryRepository = categoryRepository;
+        this.expenseEnricher = expenseEnricher;
+        this.outboxRepository = outboxRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryRebuild = summaryRebuild;
+        this.mongoTemplate = mongoTemplate;
+        this.pipelineExecutor = pipelineExecutor;
+        this.paymentGateway = paymentGateway;
+        this.simulation = simulation;
+        this.moneyStorage = moneyStorage;
+        this.singleFlight = singleFlight;
+        this.observations = observations;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.exportBatchSize = exportBatchSize;
     }
     
     public ExpenseResponse createExpense(CreateExpenseRequest request) {
-        logger.info("Creando gasto tradicional para usuario: {}", request.getUserId());
+        logger.debug("Creando gasto tradicional para usuario: {}", request.getUserId());
         
         try {
-            // Simular procesamiento complejo de validación
-            validateExpenseRequest(request);
-            processPaymentMethod(request);
+            // Las comprobaciones sin E/S (límite del monto, método de pago) van antes del cobro
+            checkRequestLimits(request);
             
-            Expense expense = createExpenseEntity(request);
+            // La validación del usuario y el pago no dependen entre sí: se valida en un hilo virtual mientras la
+            // pasarela procesa el pago, que ya corre en su propio hilo virtual con timeout. Si la validación
+            // falla con el pago ya cobrado, se reembolsa antes de propagar el error
+            // Cada etapa se mide con su propia observación (timer expense.pipeline.stage)
+            Expense.PaymentMethod method = request.getPaymentMethod();
+            runConcurrently(() -> observations.observe(Stage.VALIDATE, method, () -> validateExpenseRequest(request)),
+                    () -> observations.observe(Stage.PAYMENT, method, () -> processPaymentMethod(request)),
+                    () -> refundPayment(request));
             
-            // Simular operaciones adicionales como notificaciones
-            sendNotifications(expense);
-            updateUserBalance(expense);
+            Expense expense = createExpenseEntity(request);
             
-            return enrichExpenseResponse(expense);
+            // Las notificaciones salen del outbox en segundo plano; aquí solo quedan el saldo y el resumen
+            observations.observe(Stage.BALANCE, method, () -> updateUserBalance(expense));
+            observations.observe(Stage.SUMMARY, method, () -> summaryRepository.incrementAll(List.of(expense)));
             
+            return observations.observe(Stage.ENRICH, method, () -> expenseEnricher.enrich(expense));
+        
         } catch (Exception e) {
             logger.error("Error al crear gasto tradicional: {}", e.getMessage());
             throw new RuntimeException("Error al crear gasto: " + e.getMessage());
         }
     }
     
+    /**
+     * Gastos más recientes, acotados a app.pagination.max-size; el listado completo va por getExpensesPage o streamExpenses
+     */
     public List<ExpenseResponse> getAllExpenses() {
-        logger.info("Obteniendo todos los gastos de forma tradicional");
+        logger.debug("Obteniendo todos los gastos de forma tradicional");
         
         try {
-            List<Expense> expenses = expenseRepository.findAll();
+            List<Expense> expenses = expenseRepository.findAllBy(newestFirst(maxPageSize));
             
-            // Simular procesamiento secuencial
-            return expenses.stream()
-                    .map(this::enrichExpenseResponse)
-                    .peek(expense -> {
-                        try {
-                            Thread.sleep(10); // Simular procesamiento
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    })
-                    .collect(Collectors.toList());
-                    
+            List<ExpenseResponse> responses = expenseEnricher.enrichAll(expenses);
+            
+            // Procesamiento secuencial simulado solo si el perfil activo lo pide
+            if (simulation.isActive(SimulationStage.LIST_ELEMENT)) {
+                for (int i = 0; i < responses.size(); i++) {
+                    simulation.sleep(SimulationStage.LIST_ELEMENT);
+                }
+            }
+            return responses;
+        
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Obtención de gastos interrumpida");
         } catch (Exception e) {
             logger.error("Error al obtener gastos tradicionales: {}", e.getMessage());
             throw new RuntimeException("Error al obtener gastos: " + e.getMessage());
@@ -81,14 +166,12 @@ public class TraditionalExpenseService {
     }
     
     public List<ExpenseResponse> getExpensesByUser(String userId) {
-        logger.info("Obteniendo gastos del usuario: {} de forma tradicional", userId);
+        logger.debug("Obteniendo gastos del usuario: {} de forma tradicional", userId);
         
         try {
             List<Expense> expenses = expenseRepository.findByUserId(userId);
-            return expenses.stream()
-                    .map(this::enrichExpenseResponse)
-                    .collect(Collectors.toList());
-                    
+            return expenseEnricher.enrichAll(expenses);
+        
         } catch (Exception e) {
             logger.error("Error al obtener gastos del usuario {}: {}", userId, e.getMessage());
             throw new RuntimeException("Error al obtener gastos del usuario: " + e.getMessage());
@@ -96,27 +179,107 @@ public class TraditionalExpenseService {
     }
     
     public List<ExpenseResponse> getExpensesByPaymentMethod(Expense.PaymentMethod paymentMethod) {
-        logger.info("Obteniendo gastos por método de pago: {} de forma tradicional", paymentMethod);
+        logger.debug("Obteniendo gastos por método de pago: {} de forma tradicional", paymentMethod);
         
         try {
             List<Expense> expenses = expenseRepository.findByPaymentMethod(paymentMethod);
-            return expenses.stream()
-                    .map(this::enrichExpenseResponse)
-                    .collect(Collectors.toList());
-                    
+            return expenseEnricher.enrichAll(expenses);
+        
         } catch (Exception e) {
             logger.error("Error al obtener gastos por método de pago {}: {}", paymentMethod, e.getMessage());
             throw new RuntimeException("Error al obtener gastos por método de pago: " + e.getMessage());
         }
     }
     
+    public ExpensePage getExpensesPage(String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos de forma tradicional");
+        
+        // Un cursor inválido se propaga como InvalidCursorException (400), no como error interno
+        ExpenseCursor after = cursor == null ? null : ExpenseCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        Pageable pageable = keysetPageable(pageSize);
+        
+        try {
+            List<Expense> expenses = after == null
+                    ? expenseRepository.findAllBy(pageable)
+                    : expenseRepository.findAllAfter(after.getDate(), after.getId(), pageable);
+            return toPage(expenses, pageSize);
+        } catch (Exception e) {
+            logger.error("Error al obtener página de gastos: {}", e.getMessage());
+            throw new RuntimeException("Error al obtener página de gastos: " + e.getMessage());
+        }
+    }
+    
+    public ExpensePage getExpensesPageByUser(String userId, String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos del usuario: {} de forma tradicional", userId);
+        
+        // Un cursor inválido se propaga como InvalidCursorException (400), no como error interno
+        ExpenseCursor after = cursor == null ? null : ExpenseCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        Pageable pageable = keysetPageable(pageSize);
+        
+        try {
+            List<Expense> expenses = after == null
+                    ? expenseRepository.findByUserId(userId, pageable)
+                    : expenseRepository.findByUserIdAfter(userId, after.getDate(), after.getId(), pageable);
+            return toPage(expenses, pageSize);
+        } catch (Exception e) {
+            logger.error("Error al obtener página de gastos del usuario {}: {}", userId, e.getMessage());
+            throw new RuntimeException("Error al obtener página de gastos: " + e.getMessage());
+        }
+    }
+    
+    public ExpensePage getExpensesPageByPaymentMethod(Expense.PaymentMethod paymentMethod, String cursor, Integer size) {
+        logger.debug("Obteniendo página de gastos por método de pago: {} de forma tradicional", paymentMethod);
+        
+        // Un cursor inválido se propaga como InvalidCursorException (400), no como error interno
+        ExpenseCursor after = cursor == null ? null : ExpenseCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        Pageable pageable = keysetPageable(pageSize);
+        
+        try {
+            List<Expense> expenses = after == null
+                    ? expenseRepository.findByPaymentMethod(paymentMethod, pageable)
+                    : expenseRepository.findByPaymentMethodAfter(paymentMethod, after.getDate(), after.getId(), pageable);
+            return toPage(expenses, pageSize);
+        } catch (Exception e) {
+            logger.error("Error al obtener página de gastos con método de pago {}: {}", paymentMethod, e.getMessage());
+            throw new RuntimeException("Error al obtener página de gastos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Cursor bloqueante sobre los gastos para exportaciones; el llamador debe cerrar el Stream.
+     * Solo se mantiene en memoria el lote actual del cursor (exportBatchSize documentos).
+     */
+    public Stream<Expense> streamExpenses(String userId) {
+        logger.debug("Abriendo cursor de exportación de gastos de forma tradicional (usuario: {})", userId);
+        
+        // Los documentos se decodifican con ExpenseCodec directamente desde el stream BSON
+        Bson filter = userId == null ? new Document() : Filters.eq("userId", userId);
+        MongoCursor<Expense> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Expense.class))
+                .withDocumentClass(Expense.class)
+                .find(filter)
+                .projection(Projections.exclude(ExpenseProjections.TYPE_KEY))
+                .sort(Sorts.descending("date", "_id"))
+                .batchSize(exportBatchSize)
+                .cursor();
+        
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+    
+    public List<ExpenseResponse> enrichExportBatch(List<Expense> expenses) {
+        return expenseEnricher.enrichAll(expenses);
+    }
+    
     public ExpenseResponse getExpenseById(String id) {
-        logger.info("Obteniendo gasto por ID: {} de forma tradicional", id);
+        logger.debug("Obteniendo gasto por ID: {} de forma tradicional", id);
         
         try {
             Optional<Expense> expenseOpt = expenseRepository.findById(id);
             if (expenseOpt.isPresent()) {
-                return enrichExpenseResponse(expenseOpt.get());
+                return expenseEnricher.enrich(expenseOpt.get());
             } else {
                 throw new RuntimeException("Gasto no encontrado con ID: " + id);
             }
@@ -127,31 +290,121 @@ public class TraditionalExpenseService {
     }
     
     public BigDecimal getTotalExpensesByUser(String userId) {
-        logger.info("Calculando total de gastos del usuario: {} de forma tradicional", userId);
+        logger.debug("Calculando total de gastos del usuario: {} de forma tradicional", userId);
         
         try {
-            List<Expense> expenses = expenseRepository.findByUserId(userId);
-            BigDecimal total = expenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Con céntimos la suma llega como un long y solo se crea un BigDecimal al final;
+            // hilos simultáneos del mismo usuario comparten una sola agregación
+            BigDecimal total = singleFlight.execute(SingleFlightProperties.USER_TOTAL, userId,
+                    () -> moneyStorage == MoneyStorage.CENTS
+                            ? expenseRepository.sumAmountCentsByUser(userId).map(MoneyStorage::fromCents).orElse(BigDecimal.ZERO)
+                            : expenseRepository.sumAmountByUser(userId).map(MoneyStorage::read).orElse(BigDecimal.ZERO));
             
-            logger.info("Total de gastos del usuario {}: {}", userId, total);
+            logger.debug("Total de gastos del usuario {}: {}", userId, total);
             return total;
-            
+        
         } catch (Exception e) {
             logger.error("Error al calcular total de gastos del usuario {}: {}", userId, e.getMessage());
             throw new RuntimeException("Error al calcular total de gastos: " + e.getMessage());
         }
     }
     
+    public Optional<ExpenseStats> getStatsByUser(String userId) {
+        logger.debug("Calculando estadísticas del usuario: {} de forma tradicional", userId);
+        
+        try {
+            return expenseRepository.aggregateStatsByUser(userId);
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas del usuario {}: {}", userId, e.getMessage());
+            throw new RuntimeException("Error al calcular estadísticas del usuario: " + e.getMessage());
+        }
+    }
+    
+    public List<ExpenseStats> getStatsByUsers() {
+        logger.debug("Calculando estadísticas por usuario de forma tradicional");
+        
+        try {
+            return expenseRepository.aggregateStatsByUsers();
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas por usuario: {}", e.getMessage());
+            throw new RuntimeException("Error al calcular estadísticas por usuario: " + e.getMessage());
+        }
+    }
+    
+    public List<ExpenseStats> getStatsByCategory() {
+        logger.debug("Calculando estadísticas por categoría de forma tradicional");
+        
+        try {
+            return expenseRepository.aggregateStatsByCategory();
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas por categoría: {}", e.getMessage());
+            throw new RuntimeException("Error al calcular estadísticas por categoría: " + e.getMessage());
+        }
+    }
+    
+    public List<ExpenseStats> getStatsByPaymentMethod() {
+        logger.debug("Calculando estadísticas por método de pago de forma tradicional");
+        
+        try {
+            return expenseRepository.aggregateStatsByPaymentMethod();
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas por método de pago: {}", e.getMessage());
+            throw new RuntimeException("Error al calcular estadísticas por método de pago: " + e.getMessage());
+        }
+    }
+    
+    public List<ExpenseStats> getStatsByDateBucket(ExpenseStats.DateBucket bucket) {
+        logger.debug("Calculando estadísticas por periodo ({}) de forma tradicional", bucket);
+        
+        try {
+            return expenseRepository.aggregateStatsByDateBucket(bucket.getFormat());
+        } catch (Exception e) {
+            logger.error("Error al calcular estadísticas por periodo {}: {}", bucket, e.getMessage());
+            throw new RuntimeException("Error al calcular estadísticas por periodo: " + e.getMessage());
+        }
+    }
+    
+    public List<ExpenseSummary> getMonthlySummary(String userId, YearMonth month) {
+        logger.debug("Obteniendo resumen de {} del usuario: {} de forma tradicional", month, userId);
+        
+        try {
+            return summaryRepository.findByUserIdAndMonth(userId, month.toString());
+        } catch (Exception e) {
+            logger.error("Error al obtener resumen del usuario {}: {}", userId, e.getMessage());
+            throw new RuntimeException("Error al obtener resumen del usuario: " + e.getMessage());
+        }
+    }
+    
+    public Optional<ExpenseSummary> getCategorySummary(String userId, String categoryId, YearMonth month) {
+        logger.debug("Obteniendo resumen de {} del usuario: {} en la categoría: {} de forma tradicional", month, userId, categoryId);
+        
+        try {
+            return summaryRepository.findById(ExpenseSummary.idOf(userId, categoryId, month));
+        } catch (Exception e) {
+            logger.error("Error al obtener resumen del usuario {} en la categoría {}: {}", userId, categoryId, e.getMessage());
+            throw new RuntimeException("Error al obtener resumen de la categoría: " + e.getMessage());
+        }
+    }
+    
+    public long rebuildSummaries() {
+        logger.info("Reconstruyendo resúmenes de gastos de forma tradicional");
+        
+        try {
+            return summaryRebuild.rebuild();
+        } catch (Exception e) {
+            logger.error("Error al reconstruir resúmenes: {}", e.getMessage());
+            throw new RuntimeException("Error al reconstruir resúmenes: " + e.getMessage());
+        }
+    }
+    
     public long getExpenseCountByPaymentMethod(Expense.PaymentMethod paymentMethod) {
-        logger.info("Contando gastos por método de pago: {} de forma tradicional", paymentMethod);
+        logger.debug("Contando gastos por método de pago: {} de forma tradicional", paymentMethod);
         
         try {
             long count = expenseRepository.countByPaymentMethod(paymentMethod);
-            logger.info("Total de gastos con {}: {}", paymentMethod, count);
+            logger.debug("Total de gastos con {}: {}", paymentMethod, count);
             return count;
-            
+        
         } catch (Exception e) {
             logger.error("Error al contar gastos por método de pago {}: {}", paymentMethod, e.getMessage());
             throw new RuntimeException("Error al contar gastos por método de pago: " + e.getMessage());
@@ -160,16 +413,73 @@ public class TraditionalExpenseService {
     
     // Métodos privados con lógica de negocio compleja
     
-    private void validateExpenseRequest(CreateExpenseRequest request) {
-        logger.debug("Validando solicitud de gasto para usuario: {}", request.getUserId());
+    private int resolvePageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+    
+    /**
+     * Se pide un elemento de más para saber si existe una página siguiente sin contar documentos
+     */
+    private static Pageable keysetPageable(int pageSize) {
+        return newestFirst(pageSize + 1);
+    }
+    
+    private static Pageable newestFirst(int limit) {
+        return PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "date", "id"));
+    }
+    
+    private ExpensePage toPage(List<Expense> expenses, int pageSize) {
+        boolean hasMore = expenses.size() > pageSize;
+        List<Expense> page = hasMore ? expenses.subList(0, pageSize) : expenses;
+        String nextCursor = hasMore ? ExpenseCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new ExpensePage(expenseEnricher.enrichAll(page), nextCursor);
+    }
+    
+    /**
+     * Ejecuta forked en el executor del pipeline e inline en el hilo actual, y espera a ambas.
+     * Si inline falla se cancela (interrumpe) forked. Si forked falla o se deja de esperar cuando inline ya
+     * terminó bien, se deshace inline con compensateInline antes de propagar el error.
+     */
+    private void runConcurrently(Runnable forked, Runnable inline, Runnable compensateInline) {
+        Future<?> future = pipelineExecutor.submit(forked);
+        try {
+            inline.run();
+        } catch (RuntimeException e) {
+            future.cancel(true);
+            throw e;
+        }
         
-        // Simular validaciones complejas
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            compensateInline.run();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            compensateInline.run();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Creación de gasto interrumpida");
+        }
+    }
+    
+    private void checkRequestLimits(CreateExpenseRequest request) {
         if (request.getAmount().compareTo(BigDecimal.valueOf(10000)) > 0) {
             throw new RuntimeException("Monto excede el límite permitido");
         }
+        if (request.getPaymentMethod() == null) {
+            throw new RuntimeException("Método de pago no válido");
+        }
+    }
+    
+    private void validateExpenseRequest(CreateExpenseRequest request) {
+        logger.debug("Validando solicitud de gasto para usuario: {}", request.getUserId());
         
         // Simular validación de usuario
-        Optional<User> userOpt = userRepository.findById(request.getUserId());
+        Optional<User> userOpt = singleFlight.execute(SingleFlightProperties.USER_BY_ID, request.getUserId(),
+                () -> userRepository.findById(request.getUserId()));
         if (userOpt.isEmpty()) {
             throw new RuntimeException("Usuario no encontrado");
         }
@@ -177,50 +487,17 @@ public class TraditionalExpenseService {
     
     private void processPaymentMethod(CreateExpenseRequest request) {
         logger.debug("Procesando método de pago: {}", request.getPaymentMethod());
-        
-        // Simular lógica de procesamiento según el método de pago
-        switch (request.getPaymentMethod()) {
-            case CREDIT_CARD:
-                simulateCreditCardProcessing(request.getAmount());
-                break;
-            case DEBIT_CARD:
-                simulateDebitCardProcessing(request.getAmount());
-                break;
-            case CASH:
-                simulateCashProcessing(request.getAmount());
-                break;
-            default:
-                throw new RuntimeException("Método de pago no válido");
-        }
-    }
-    
-    private void simulateCreditCardProcessing(BigDecimal amount) {
-        try {
-            Thread.sleep(200); // Simular procesamiento de tarjeta de crédito
-            logger.debug("Procesando tarjeta de crédito por monto: {}", amount);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error en procesamiento de tarjeta de crédito");
-        }
+        paymentGateway.process(request.getPaymentMethod(), request.getAmount());
     }
     
-    private void simulateDebitCardProcessing(BigDecimal amount) {
+    private void refundPayment(CreateExpenseRequest request) {
         try {
-            Thread.sleep(150); // Simular procesamiento de tarjeta de débito
-            logger.debug("Procesando tarjeta de débito por monto: {}", amount);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error en procesamiento de tarjeta de débito");
-        }
-    }
-    
-    private void simulateCashProcessing(BigDecimal amount) {
-        try {
-            Thread.sleep(50); // Simular procesamiento en efectivo
-            logger.debug("Procesando pago en efectivo por monto: {}", amount);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error en procesamiento en efectivo");
+            paymentGateway.refund(request.getPaymentMethod(), request.getAmount());
+            logger.debug("Pago reembolsado: el gasto del usuario {} no se creó", request.getUserId());
+        } catch (RuntimeException e) {
+            // El error original es el que se propaga; el cobro queda pendiente de conciliación
+            logger.error("No se pudo reembolsar el pago de {} ({}) del usuario {}: {}", request.getAmount(),
+                    request.getPaymentMethod(), request.getUserId(), e.getMessage());
         }
     }
     
@@ -234,42 +511,18 @@ public class TraditionalExpenseService {
                 request.getDate()
         );
         
-        Expense savedExpense = expenseRepository.save(expense);
-        logger.info("Gasto creado con ID: {}", savedExpense.getId());
-        return savedExpense;
-    }
-    
-    private void sendNotifications(Expense expense) {
-        logger.debug("Enviando notificaciones para gasto: {}", expense.getId());
+        // MongoDB standalone no tiene transacciones multi-documento: la notificación pendiente se escribe
+        // antes que el gasto (con su id ya asignado) y el despachador solo la entrega si el gasto existe
+        expense.setId(new ObjectId().toHexString());
+        observations.observe(Stage.NOTIFY, expense.getPaymentMethod(), () -> outboxRepository.save(new NotificationOutbox(expense)));
         
-        try {
-            Thread.sleep(100); // Simular envío de notificaciones
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("Interrupción en envío de notificaciones");
-        }
+        Expense savedExpense = observations.observe(Stage.PERSIST, expense.getPaymentMethod(), () -> expenseRepository.insert(expense));
+        logger.debug("Gasto creado con ID: {}", savedExpense.getId());
+        return savedExpense;
     }
     
     private void updateUserBalance(Expense expense) {
-        Optional<User> userOpt = userRepository.findById(expense.getUserId());
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            BigDecimal newBalance = user.getBalance().subtract(expense.getAmount());
-            user.setBalance(newBalance);
-            userRepository.save(user);
-        }
-    }
-    
-    private ExpenseResponse enrichExpenseResponse(Expense expense) {
-        Optional<User> userOpt = userRepository.findById(expense.getUserId());
-        Optional<Category> categoryOpt = categoryRepository.findById(expense.getCategoryId());
-        
-        if (userOpt.isPresent() && categoryOpt.isPresent()) {
-            User user = userOpt.get();
-            Category category = categoryOpt.get();
-            return new ExpenseResponse(expense, user.getFullName(), category.getName());
-        } else {
-            throw new RuntimeException("Error al enriquecer respuesta del gasto");
-        }
+        // $inc atómico: un solo viaje a MongoDB y sin actualizaciones perdidas entre gastos concurrentes
+        userRepository.incrementBalance(expense.getUserId(), expense.getAmount().negate());
     }
 }
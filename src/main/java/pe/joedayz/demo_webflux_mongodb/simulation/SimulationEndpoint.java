@@ -0,0 +1,49 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/simulation: consulta y cambia el perfil de simulación en caliente.
+ * POST {"mode":"OFF"} o {"stage":"CREDIT_CARD_PAYMENT","latency":"300ms","p99":"2s","errorRate":0.05}
+ */
+@Component
+@Endpoint(id = "simulation")
+public class SimulationEndpoint {
+    
+    private final SimulationProfile profile;
+    
+    public SimulationEndpoint(SimulationProfile profile) {
+        this.profile = profile;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("mode", profile.getMode());
+        view.put("stages", profile.getStages());
+        return view;
+    }
+    
+    @WriteOperation
+    public Map<String, Object> update(@Nullable SimulationMode mode,
+                                      @Nullable SimulationStage stage,
+                                      @Nullable Duration latency,
+                                      @Nullable Duration p99,
+                                      @Nullable Double errorRate) {
+        if (mode != null) {
+            profile.setMode(mode);
+        }
+        if (stage != null) {
+            profile.updateStage(stage, latency, p99, errorRate);
+        }
+        return profile();
+    }
+}
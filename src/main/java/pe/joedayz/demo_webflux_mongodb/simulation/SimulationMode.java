@@ -0,0 +1,10 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+/**
+ * Cómo se simula la latencia de las etapas:
+ * OFF sin esperas ni errores (camino de datos puro), FIXED latencia constante,
+ * DISTRIBUTION latencia log-normal definida por su mediana y su p99
+ */
+public enum SimulationMode {
+    OFF, FIXED, DISTRIBUTION
+}
@@ -0,0 +1,114 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Perfil de simulación activo que consultan ambos stacks.
+ * El modo y las latencias se leen en cada llamada, así un cambio en caliente aplica a las siguientes peticiones.
+ */
+@Component
+public class SimulationProfile {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SimulationProfile.class);
+    
+    // z del percentil 99 de la normal estándar
+    private static final double Z_P99 = 2.3263;
+    
+    private volatile SimulationMode mode;
+    private volatile Map<SimulationStage, StageLatency> stages;
+    
+    public SimulationProfile(SimulationProperties properties) {
+        Map<SimulationStage, StageLatency> initial = new EnumMap<>(SimulationStage.class);
+        for (SimulationStage stage : SimulationStage.values()) {
+            initial.put(stage, properties.getStages().getOrDefault(stage, new StageLatency()));
+        }
+        this.mode = properties.getMode();
+        this.stages = initial;
+        logger.info("Perfil de simulación inicial: {}", mode);
+    }
+    
+    public SimulationMode getMode() {
+        return mode;
+    }
+    
+    public Map<SimulationStage, StageLatency> getStages() {
+        return Collections.unmodifiableMap(stages);
+    }
+    
+    public synchronized void setMode(SimulationMode mode) {
+        logger.info("Perfil de simulación cambiado: {} -> {}", this.mode, mode);
+        this.mode = mode;
+    }
+    
+    public synchronized void updateStage(SimulationStage stage, Duration latency, Duration p99, Double errorRate) {
+        Map<SimulationStage, StageLatency> updated = new EnumMap<>(stages);
+        updated.put(stage, stages.get(stage).with(latency, p99, errorRate));
+        stages = updated;
+        logger.info("Simulación de {} actualizada", stage);
+    }
+    
+    /**
+     * Indica si la etapa tiene algo que simular; permite saltar la espera por completo en el camino de datos puro
+     */
+    public boolean isActive(SimulationStage stage) {
+        if (mode == SimulationMode.OFF) {
+            return false;
+        }
+        StageLatency settings = stages.get(stage);
+        return !settings.getLatency().isZero() || !settings.getP99().isZero() || settings.getErrorRate() > 0;
+    }
+    
+    public Duration nextLatency(SimulationStage stage) {
+        StageLatency settings = stages.get(stage);
+        return switch (mode) {
+            case OFF -> Duration.ZERO;
+            case FIXED -> settings.getLatency();
+            case DISTRIBUTION -> sampleLogNormal(settings.getLatency(), settings.getP99());
+        };
+    }
+    
+    public boolean nextFailure(SimulationStage stage) {
+        return mode != SimulationMode.OFF
+                && ThreadLocalRandom.current().nextDouble() < stages.get(stage).getErrorRate();
+    }
+    
+    /**
+     * Espera no bloqueante del stack reactivo
+     */
+    public Mono<Void> delay(SimulationStage stage) {
+        return Mono.defer(() -> {
+            Duration latency = nextLatency(stage);
+            return latency.isZero() ? Mono.empty() : Mono.delay(latency).then();
+        });
+    }
+    
+    /**
+     * Espera bloqueante del stack tradicional
+     */
+    public void sleep(SimulationStage stage) throws InterruptedException {
+        Duration latency = nextLatency(stage);
+        if (!latency.isZero()) {
+            Thread.sleep(latency);
+        }
+    }
+    
+    private static Duration sampleLogNormal(Duration median, Duration p99) {
+        long medianMicros = median.toNanos() / 1_000;
+        long p99Micros = p99.toNanos() / 1_000;
+        if (medianMicros <= 0 || p99Micros <= medianMicros) {
+            return median;
+        }
+        double sigma = Math.log((double) p99Micros / medianMicros) / Z_P99;
+        double sample = medianMicros * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (sample * 1_000));
+    }
+}
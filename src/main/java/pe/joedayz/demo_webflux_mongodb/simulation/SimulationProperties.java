@@ -0,0 +1,44 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Perfil de simulación inicial (app.simulation.*); en ejecución se cambia con /actuator/simulation
+ */
+@ConfigurationProperties(prefix = "app.simulation")
+public class SimulationProperties {
+    
+    private SimulationMode mode = SimulationMode.FIXED;
+    private Map<SimulationStage, StageLatency> stages = defaultStages();
+    
+    private static Map<SimulationStage, StageLatency> defaultStages() {
+        Map<SimulationStage, StageLatency> stages = new EnumMap<>(SimulationStage.class);
+        stages.put(SimulationStage.LIST_ELEMENT, new StageLatency(Duration.ZERO, null, 0.0));
+        stages.put(SimulationStage.CREDIT_CARD_PAYMENT, new StageLatency(Duration.ofMillis(200), null, 0.0));
+        stages.put(SimulationStage.DEBIT_CARD_PAYMENT, new StageLatency(Duration.ofMillis(150), null, 0.0));
+        stages.put(SimulationStage.CASH_PAYMENT, new StageLatency(Duration.ofMillis(50), null, 0.0));
+        stages.put(SimulationStage.NOTIFICATION_DELIVERY, new StageLatency(Duration.ofMillis(100), null, 0.0));
+        return stages;
+    }
+    
+    // Getters y Setters
+    public SimulationMode getMode() {
+        return mode;
+    }
+    
+    public void setMode(SimulationMode mode) {
+        this.mode = mode;
+    }
+    
+    public Map<SimulationStage, StageLatency> getStages() {
+        return stages;
+    }
+    
+    public void setStages(Map<SimulationStage, StageLatency> stages) {
+        this.stages = stages;
+    }
+}
@@ -0,0 +1,22 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+/**
+ * Etapas con IO simulado
+ */
+public enum SimulationStage {
+    LIST_ELEMENT,
+    CREDIT_CARD_PAYMENT,
+    DEBIT_CARD_PAYMENT,
+    CASH_PAYMENT,
+    NOTIFICATION_DELIVERY;
+    
+    public static SimulationStage forPayment(Expense.PaymentMethod paymentMethod) {
+        return switch (paymentMethod) {
+            case CREDIT_CARD -> CREDIT_CARD_PAYMENT;
+            case DEBIT_CARD -> DEBIT_CARD_PAYMENT;
+            case CASH -> CASH_PAYMENT;
+        };
+    }
+}
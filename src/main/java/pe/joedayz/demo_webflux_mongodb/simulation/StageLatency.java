@@ -0,0 +1,60 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import java.time.Duration;
+
+/**
+ * Latencia simulada de una etapa: mediana (o valor fijo), p99 para el modo DISTRIBUTION
+ * y tasa de error entre 0 y 1
+ */
+public class StageLatency {
+    
+    private Duration latency = Duration.ZERO;
+    private Duration p99;
+    private double errorRate = 0.0;
+    
+    public StageLatency() {}
+    
+    public StageLatency(Duration latency, Duration p99, double errorRate) {
+        this.latency = latency;
+        this.p99 = p99;
+        this.errorRate = errorRate;
+    }
+    
+    /**
+     * Copia con los valores no nulos reemplazados
+     */
+    public StageLatency with(Duration latency, Duration p99, Double errorRate) {
+        return new StageLatency(
+                latency != null ? latency : this.latency,
+                p99 != null ? p99 : this.p99,
+                errorRate != null ? errorRate : this.errorRate);
+    }
+    
+    // Getters y Setters
+    public Duration getLatency() {
+        return latency;
+    }
+    
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+    
+    /**
+     * Sin p99 configurado la distribución se reduce a la latencia fija
+     */
+    public Duration getP99() {
+        return p99 != null ? p99 : latency;
+    }
+    
+    public void setP99(Duration p99) {
+        this.p99 = p99;
+    }
+    
+    public double getErrorRate() {
+        return errorRate;
+    }
+    
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+}
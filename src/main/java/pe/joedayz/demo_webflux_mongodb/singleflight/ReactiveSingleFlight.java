@@ -0,0 +1,75 @@
+package pe.joedayz.demo_webflux_mongodb.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight reactivo: las lecturas concurrentes con la misma operación y clave se suscriben
+ * a un único Mono en curso en lugar de lanzar cada una su consulta a MongoDB.
+ * La entrada se retira al terminar la consulta, así que nunca se sirve un resultado ya completado;
+ * pasada la ventana máxima una nueva petición inicia otra consulta aunque la anterior siga en curso.
+ */
+@Component
+public class ReactiveSingleFlight {
+    
+    private final SingleFlightProperties properties;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final SingleFlightMetrics metrics;
+    
+    public ReactiveSingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.metrics = new SingleFlightMetrics(meterRegistry, "reactive", flights);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String operation, String key, Supplier<Mono<T>> query) {
+        if (!properties.isEnabled(operation)) {
+            return Mono.defer(query);
+        }
+        
+        return Mono.defer(() -> {
+            String flightKey = operation + ":" + key;
+            long now = System.nanoTime();
+            long windowNanos = properties.getMaxWindow().toNanos();
+            boolean[] leader = {false};
+            
+            Flight flight = flights.compute(flightKey, (k, current) -> {
+                if (current != null && now - current.startedAt <= windowNanos) {
+                    return current;
+                }
+                leader[0] = true;
+                Flight created = new Flight(now);
+                // refCount(1) cancela la consulta cuando cancela el último suscriptor (Mono.share() no es cancelable)
+                created.result = Mono.defer(query)
+                        .doFinally(signal -> flights.remove(k, created))
+                        .flux()
+                        .publish()
+                        .refCount(1)
+                        .singleOrEmpty();
+                return created;
+            });
+            
+            if (leader[0]) {
+                metrics.leader(operation);
+            } else {
+                metrics.coalesced(operation);
+            }
+            return (Mono<T>) flight.result;
+        });
+    }
+    
+    private static class Flight {
+        
+        private final long startedAt;
+        private Mono<?> result;
+        
+        Flight(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
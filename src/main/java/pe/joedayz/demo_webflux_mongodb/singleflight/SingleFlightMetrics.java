@@ -0,0 +1,41 @@
+package pe.joedayz.demo_webflux_mongodb.singleflight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contadores single.flight.requests por stack, operación y rol (leader ejecuta la consulta,
+ * coalesced reutiliza la de otro). La proporción coalesced / total indica cuánto se ahorra a MongoDB.
+ */
+class SingleFlightMetrics {
+    
+    private final MeterRegistry meterRegistry;
+    private final String stack;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    SingleFlightMetrics(MeterRegistry meterRegistry, String stack, Map<String, ?> flights) {
+        this.meterRegistry = meterRegistry;
+        this.stack = stack;
+        meterRegistry.gaugeMapSize("single.flight.in.flight", Tags.of("stack", stack), flights);
+    }
+    
+    void leader(String operation) {
+        counter(operation, "leader").increment();
+    }
+    
+    void coalesced(String operation) {
+        counter(operation, "coalesced").increment();
+    }
+    
+    private Counter counter(String operation, String role) {
+        return counters.computeIfAbsent(operation + ":" + role, key -> Counter.builder("single.flight.requests")
+                .tag("stack", stack)
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,54 @@
+package pe.joedayz.demo_webflux_mongodb.singleflight;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Coalescencia de lecturas idénticas concurrentes (app.single-flight.*)
+ */
+@ConfigurationProperties(prefix = "app.single-flight")
+public class SingleFlightProperties {
+    
+    public static final String USER_TOTAL = "user-total";
+    public static final String USER_BY_ID = "user-by-id";
+    public static final String CATEGORY_BY_ID = "category-by-id";
+    
+    private boolean enabled = true;
+    
+    // Operaciones que comparten la consulta en curso; el resto va siempre a MongoDB
+    private Set<String> operations = Set.of(USER_TOTAL, USER_BY_ID, CATEGORY_BY_ID);
+    
+    // Tiempo máximo durante el que una consulta en curso acepta nuevos seguidores
+    private Duration maxWindow = Duration.ofMillis(100);
+    
+    public boolean isEnabled(String operation) {
+        return enabled && operations.contains(operation);
+    }
+    
+    // Getters y Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Set<String> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(Set<String> operations) {
+        this.operations = operations;
+    }
+    
+    public Duration getMaxWindow() {
+        return maxWindow;
+    }
+    
+    public void setMaxWindow(Duration maxWindow) {
+        this.maxWindow = maxWindow;
+    }
+}
@@ -0,0 +1,86 @@
+package pe.joedayz.demo_webflux_mongodb.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight bloqueante: el primer hilo con una operación y clave ejecuta la consulta y
+ * completa un CompletableFuture; los hilos que llegan mientras tanto esperan ese mismo resultado.
+ */
+@Component
+public class TraditionalSingleFlight {
+    
+    private final SingleFlightProperties properties;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final SingleFlightMetrics metrics;
+    
+    public TraditionalSingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.metrics = new SingleFlightMetrics(meterRegistry, "traditional", flights);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String key, Supplier<T> query) {
+        if (!properties.isEnabled(operation)) {
+            return query.get();
+        }
+        
+        String flightKey = operation + ":" + key;
+        long now = System.nanoTime();
+        long windowNanos = properties.getMaxWindow().toNanos();
+        boolean[] leader = {false};
+        
+        Flight flight = flights.compute(flightKey, (k, current) -> {
+            if (current != null && now - current.startedAt <= windowNanos) {
+                return current;
+            }
+            leader[0] = true;
+            return new Flight(now);
+        });
+        
+        if (leader[0]) {
+            metrics.leader(operation);
+            try {
+                T value = query.get();
+                flight.result.complete(value);
+                return value;
+            } catch (Throwable e) {
+                // También los Error: si el futuro no se completa, los seguidores esperan para siempre
+                flight.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                flights.remove(flightKey, flight);
+            }
+        }
+        
+        metrics.coalesced(operation);
+        try {
+            return (T) flight.result.join();
+        } catch (CompletionException e) {
+            // Los seguidores ven la misma excepción que el hilo que ejecutó la consulta
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static class Flight {
+        
+        private final long startedAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        
+        Flight(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package pe.joedayz.demo_webflux_mongodb.summary;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reconstrucción de expense_summaries a partir de expenses con un $group y un $merge en el servidor.
+ * Sirve de backfill al arrancar (si la colección está vacía) y para corregir desvíos de los $inc incrementales.
+ * Un gasto creado mientras corre el $merge puede contarse dos veces: se recomienda lanzarla sin escrituras.
+ */
+@Component
+public class ExpenseSummaryRebuild implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseSummaryRebuild.class);
+    
+    public static final String COLLECTION = "expense_summaries";
+    
+    private final MongoTemplate mongoTemplate;
+    private final MoneyStorage storage;
+    private final boolean rebuildOnStartup;
+    
+    public ExpenseSummaryRebuild(MongoTemplate mongoTemplate,
+                                 MoneyStorage storage,
+                                 @Value("${app.summaries.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.storage = storage;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        // Con rebuild-on-startup=false no se toca MongoDB al arrancar (el índice también lo crea init.js)
+        if (!rebuildOnStartup) {
+            return;
+        }
+        
+        mongoTemplate.indexOps(ExpenseSummary.class)
+                .ensureIndex(new Index().on("userId", Sort.Direction.ASC).on("month", Sort.Direction.ASC));
+        
+        if (mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount() == 0
+                && mongoTemplate.getCollection("expenses").estimatedDocumentCount() > 0) {
+            logger.info("Colección {} vacía: reconstruyendo resúmenes desde expenses", COLLECTION);
+            rebuild();
+        }
+    }
+    
+    /**
+     * Recalcula todos los resúmenes y elimina los que ya no tienen gastos; devuelve cuántos quedan
+     */
+    public long rebuild() {
+        Date rebuiltAt = new Date();
+        mongoTemplate.getCollection("expenses").aggregate(pipeline(rebuiltAt)).toCollection();
+        long removed = mongoTemplate.getCollection(COLLECTION).deleteMany(staleFilter(rebuiltAt)).getDeletedCount();
+        long summaries = mongoTemplate.getCollection(COLLECTION).countDocuments();
+        logger.info("Resúmenes reconstruidos: {} ({} obsoletos eliminados)", summaries, removed);
+        return summaries;
+    }
+    
+    /**
+     * Pipeline sobre expenses que agrupa por (usuario, categoría, mes) y reemplaza los resúmenes con $merge.
+     * Los ids se pasan a String porque los datos de ejemplo los guardan como ObjectId.
+     */
+    public List<Document> pipeline(Date rebuiltAt) {
+        Document key = new Document("userId", new Document("$toString", "$userId"))
+                .append("categoryId", new Document("$toString", "$categoryId"))
+                .append("month", new Document("$dateToString", new Document("format", "%Y-%m")
+                        .append("date", "$date")
+                        // Spring Data guarda LocalDate como medianoche de la zona del servidor
+                        .append("timezone", ZoneId.systemDefault().getId())));
+        
+        return List.of(
+                new Document("$match", new Document("userId", new Document("$ne", null))
+                        .append("categoryId", new Document("$ne", null))
+                        .append("date", new Document("$ne", null))),
+                new Document("$group", new Document("_id", key)
+                        .append("total", new Document("$sum", MoneyStorage.decimalOf("amount")))
+                        .append("count", new Document("$sum", 1L))),
+                new Document("$project", new Document("_id", new Document("$concat",
+                        List.of("$_id.userId", ":", "$_id.categoryId", ":", "$_id.month")))
+                        .append("userId", "$_id.userId")
+                        .append("categoryId", "$_id.categoryId")
+                        .append("month", "$_id.month")
+                        .append("total", storage.toStored(new Document("$toDecimal", "$total")))
+                        .append("count", 1)
+                        .append("updatedAt", new Document("$literal", rebuiltAt))),
+                new Document("$merge", new Document("into", COLLECTION)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+    }
+    
+    /**
+     * Resúmenes que ni la reconstrucción ni un $inc posterior han tocado
+     */
+    public static Bson staleFilter(Date rebuiltAt) {
+        return Filters.lt("updatedAt", rebuiltAt);
+    }
+}
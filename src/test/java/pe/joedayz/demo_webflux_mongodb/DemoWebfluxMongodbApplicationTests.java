@@ -3,7 +3,11 @@ package pe.joedayz.demo_webflux_mongodb;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// El contexto arranca sin MongoDB: los procesos de arranque que escriben en la base se desactivan
+@SpringBootTest(properties = {
+		"app.money.migrate-on-startup=false",
+		"app.summaries.rebuild-on-startup=false"
+})
 class DemoWebfluxMongodbApplicationTests {
 
 	@Test
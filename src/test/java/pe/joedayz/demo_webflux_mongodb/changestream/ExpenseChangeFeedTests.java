@@ -0,0 +1,139 @@
+package pe.joedayz.demo_webflux_mongodb.changestream;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import pe.joedayz.demo_webflux_mongodb.cache.ReactiveReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.cache.TraditionalReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.model.ChangeStreamToken;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseEnricher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseChangeFeedTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveReferenceDataCache reactiveCache = mock(ReactiveReferenceDataCache.class);
+	private final TraditionalReferenceDataCache traditionalCache = mock(TraditionalReferenceDataCache.class);
+
+	@Test
+	void latestPolicyKeepsTheMostRecentEventsForSlowSubscribers() {
+		ExpenseChangeFeed feed = feed(ExpenseChangeFeed.OverflowPolicy.LATEST);
+
+		StepVerifier.create(feed.live().map(ExpenseResponse::getId), 0)
+				.then(() -> IntStream.range(0, 5).forEach(i -> feed.publish(expense(i))))
+				.thenRequest(5)
+				.expectNext("e3", "e4")
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(meterRegistry.get("expense.live.dropped").counter().count()).isEqualTo(3);
+	}
+
+	@Test
+	void dropPolicyDiscardsNewEventsWhenTheBufferIsFull() {
+		ExpenseChangeFeed feed = feed(ExpenseChangeFeed.OverflowPolicy.DROP);
+
+		StepVerifier.create(feed.live().map(ExpenseResponse::getId), 0)
+				.then(() -> IntStream.range(0, 5).forEach(i -> feed.publish(expense(i))))
+				.thenRequest(5)
+				.expectNext("e0", "e1")
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void aSlowSubscriberDoesNotHoldBackOthers() {
+		ExpenseChangeFeed feed = feed(ExpenseChangeFeed.OverflowPolicy.LATEST);
+
+		StepVerifier slow = StepVerifier.create(feed.live().map(ExpenseResponse::getId), 0)
+				.thenRequest(1)
+				.expectNext("e0")
+				.thenCancel()
+				.verifyLater();
+		StepVerifier fast = StepVerifier.create(feed.live().map(ExpenseResponse::getId))
+				.expectNext("e0", "e1", "e2", "e3", "e4")
+				.thenCancel()
+				.verifyLater();
+
+		IntStream.range(0, 5).forEach(i -> feed.publish(expense(i)));
+
+		slow.verify(Duration.ofSeconds(5));
+		fast.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void userUpdatesInvalidateTheCachedNameOnlyWhenTheNameChanges() {
+		when(mongoTemplate.findById(anyString(), eq(ChangeStreamToken.class))).thenReturn(Mono.empty());
+		when(mongoTemplate.changeStream(anyString(), any(ChangeStreamOptions.class), any())).thenReturn(Flux.never());
+		ChangeStreamEvent<Document> balanceChange = update("u1", new BsonDocument("balance", new BsonDecimal128(Decimal128.parse("4990"))));
+		ChangeStreamEvent<Document> nameChange = update("u2", new BsonDocument("fullName", new BsonString("Juana Pérez")));
+		when(mongoTemplate.changeStream(eq("users"), any(ChangeStreamOptions.class), eq(Document.class)))
+				.thenReturn(Flux.just(balanceChange, nameChange));
+
+		ExpenseChangeFeed feed = feed(ExpenseChangeFeed.OverflowPolicy.LATEST);
+		feed.start();
+		try {
+			verify(reactiveCache, timeout(5000)).invalidateUser("u2");
+			verify(traditionalCache, timeout(5000)).invalidateUser("u2");
+			verify(reactiveCache, never()).invalidateUser("u1");
+			verify(traditionalCache, never()).invalidateUser("u1");
+		} finally {
+			feed.stop();
+		}
+	}
+
+	private ExpenseChangeFeed feed(ExpenseChangeFeed.OverflowPolicy policy) {
+		return new ExpenseChangeFeed(mongoTemplate, mock(ReactiveExpenseEnricher.class),
+				reactiveCache, traditionalCache, meterRegistry,
+				true, "test", 2, policy, Duration.ofSeconds(1), Duration.ofSeconds(1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ChangeStreamEvent<Document> update(String userId, BsonDocument updatedFields) {
+		ChangeStreamDocument<Document> raw = mock(ChangeStreamDocument.class);
+		when(raw.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(userId)));
+		when(raw.getUpdateDescription()).thenReturn(new UpdateDescription(List.of(), updatedFields));
+		ChangeStreamEvent<Document> event = mock(ChangeStreamEvent.class);
+		when(event.getRaw()).thenReturn(raw);
+		when(event.getOperationType()).thenReturn(OperationType.UPDATE);
+		return event;
+	}
+
+	private static ExpenseResponse expense(int i) {
+		Expense expense = new Expense("u1", "c1", BigDecimal.TEN, "Gasto " + i, Expense.PaymentMethod.CASH, LocalDate.of(2024, 1, 1));
+		expense.setId("e" + i);
+		return new ExpenseResponse(expense, "Usuario u1", "Categoría c1");
+	}
+
+}
@@ -0,0 +1,67 @@
+package pe.joedayz.demo_webflux_mongodb.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pe.joedayz.demo_webflux_mongodb.changestream.ExpenseChangeFeed;
+import pe.joedayz.demo_webflux_mongodb.dto.InvalidCursorException;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpensePageControllerTests {
+
+	private final ReactiveExpenseService reactiveService = mock(ReactiveExpenseService.class);
+	private final TraditionalExpenseService traditionalService = mock(TraditionalExpenseService.class);
+
+	@Test
+	void reactiveInvalidCursorIsABadRequest() {
+		when(reactiveService.getExpensesPageByUser("u1", "roto", null))
+				.thenReturn(Mono.error(new InvalidCursorException("Cursor de paginación inválido", null)));
+
+		reactiveClient().get().uri("/api/v1/reactive/expenses/user/u1?cursor=roto")
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void reactiveOtherIllegalArgumentsAreServerErrors() {
+		when(reactiveService.getExpensesPageByUser("u1", null, null))
+				.thenReturn(Mono.error(new IllegalArgumentException("Fallo interno")));
+
+		reactiveClient().get().uri("/api/v1/reactive/expenses/user/u1")
+				.exchange()
+				.expectStatus().is5xxServerError();
+	}
+
+	@Test
+	void traditionalInvalidCursorIsABadRequestAndOtherErrorsAreServerErrors() {
+		when(traditionalService.getExpensesPage("roto", null))
+				.thenThrow(new InvalidCursorException("Cursor de paginación inválido", null));
+		when(traditionalService.getExpensesPage(null, null))
+				.thenThrow(new IllegalArgumentException("Fallo interno"));
+
+		assertThat(traditionalController().getAllExpenses("roto", null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(traditionalController().getAllExpenses(null, null).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+	}
+
+	private WebTestClient reactiveClient() {
+		return WebTestClient.bindToController(new ReactiveExpenseController(reactiveService,
+				mock(ReactiveBulkExpenseService.class), mock(ExpenseChangeFeed.class))).build();
+	}
+
+	private TraditionalExpenseController traditionalController() {
+		return new TraditionalExpenseController(traditionalService, mock(TraditionalBulkExpenseService.class),
+				new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()), 500, 1000);
+	}
+
+}
@@ -0,0 +1,129 @@
+package pe.joedayz.demo_webflux_mongodb.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pe.joedayz.demo_webflux_mongodb.changestream.ExpenseChangeFeed;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.ReactiveExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalBulkExpenseService;
+import pe.joedayz.demo_webflux_mongodb.service.TraditionalExpenseService;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseStreamTests {
+
+	private final ReactiveExpenseService reactiveService = mock(ReactiveExpenseService.class);
+	private final TraditionalExpenseService traditionalService = mock(TraditionalExpenseService.class);
+
+	@Test
+	void reactiveStreamWritesOneJsonObjectPerLine() {
+		when(reactiveService.streamExpenses(null)).thenReturn(Flux.just(response("e1"), response("e2")));
+
+		String body = reactiveClient().get().uri("/api/v1/reactive/expenses/stream")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		assertThat(body.split("\n")).hasSize(2)
+				.allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+				.satisfiesExactly(
+						line -> assertThat(line).contains("\"id\":\"e1\""),
+						line -> assertThat(line).contains("\"id\":\"e2\""));
+	}
+
+	@Test
+	void reactiveStreamFramesServerSentEventsWithIdAndEventName() {
+		when(reactiveService.streamExpenses("u1")).thenReturn(Flux.just(response("e1"), response("e2")));
+
+		String body = reactiveClient().get().uri("/api/v1/reactive/expenses/stream?userId=u1")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		String[] events = body.split("\n\n");
+		assertThat(events).hasSize(2);
+		assertThat(events[0]).startsWith("id:e1\nevent:expense\ndata:{").contains("\"id\":\"e1\"");
+		assertThat(events[1]).startsWith("id:e2\nevent:expense\ndata:{").contains("\"id\":\"e2\"");
+	}
+
+	@Test
+	void traditionalStreamEnrichesInBatchesAndClosesTheCursorWhenDone() {
+		CountDownLatch closed = new CountDownLatch(1);
+		when(traditionalService.streamExpenses(null))
+				.thenReturn(Stream.of(expense("e1"), expense("e2"), expense("e3")).onClose(closed::countDown));
+		when(traditionalService.enrichExportBatch(anyList())).thenAnswer(invocation -> invocation.<List<Expense>>getArgument(0)
+				.stream().map(expense -> new ExpenseResponse(expense, "Juan Pérez", "Alimentación")).toList());
+
+		String body = WebTestClient.bindToController(traditionalController(2)).build()
+				.get().uri("/api/v1/traditional/expenses/stream")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).returnResult().getResponseBody();
+
+		assertThat(body.split("\n")).hasSize(3);
+		verify(traditionalService, times(2)).enrichExportBatch(anyList());
+		assertThat(closed.getCount()).isZero();
+	}
+
+	@Test
+	void traditionalStreamClosesTheCursorWhenTheClientCancels() throws InterruptedException {
+		CountDownLatch closed = new CountDownLatch(1);
+		when(traditionalService.streamExpenses(null))
+				.thenReturn(Stream.iterate(1, i -> i + 1).map(i -> expense("e" + i)).onClose(closed::countDown));
+		when(traditionalService.enrichExportBatch(anyList())).thenAnswer(invocation -> invocation.<List<Expense>>getArgument(0)
+				.stream().map(expense -> new ExpenseResponse(expense, "Juan Pérez", "Alimentación")).toList());
+
+		StepVerifier.create(traditionalController(10).streamExpenses(null))
+				.expectNextCount(3)
+				.thenCancel()
+				.verify();
+
+		assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private WebTestClient reactiveClient() {
+		return WebTestClient.bindToController(new ReactiveExpenseController(reactiveService,
+				mock(ReactiveBulkExpenseService.class), mock(ExpenseChangeFeed.class))).build();
+	}
+
+	private TraditionalExpenseController traditionalController(int exportBatchSize) {
+		return new TraditionalExpenseController(traditionalService, mock(TraditionalBulkExpenseService.class),
+				new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()), exportBatchSize, 1000);
+	}
+
+	private static ExpenseResponse response(String id) {
+		return new ExpenseResponse(expense(id), "Juan Pérez", "Alimentación");
+	}
+
+	private static Expense expense(String id) {
+		Expense expense = new Expense("u1", "c1", new BigDecimal("12.50"), "Supermercado",
+				Expense.PaymentMethod.CASH, LocalDate.of(2024, 3, 1));
+		expense.setId(id);
+		return expense;
+	}
+
+}
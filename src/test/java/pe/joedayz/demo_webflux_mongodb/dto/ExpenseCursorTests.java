@@ -0,0 +1,37 @@
+package pe.joedayz.demo_webflux_mongodb.dto;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseCursorTests {
+
+	@Test
+	void encodedCursorRoundTripsDateAndId() {
+		Expense expense = new Expense("u1", "c1", BigDecimal.TEN, "Gasto", Expense.PaymentMethod.CASH,
+				LocalDate.of(2024, 1, 17));
+		expense.setId(new ObjectId().toHexString());
+
+		String token = ExpenseCursor.after(expense).encode();
+		ExpenseCursor decoded = ExpenseCursor.decode(token);
+
+		assertThat(token).doesNotContain(expense.getId());
+		assertThat(decoded.getDate()).isEqualTo(expense.getDate());
+		assertThat(decoded.getId().toHexString()).isEqualTo(expense.getId());
+	}
+
+	@Test
+	void rejectsTamperedCursor() {
+		assertThatThrownBy(() -> ExpenseCursor.decode("no-es-un-cursor"))
+			.isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> ExpenseCursor.decode("MjAyNC0wMS0xN3xhYmM"))
+			.isInstanceOf(InvalidCursorException.class);
+	}
+
+}
@@ -0,0 +1,54 @@
+package pe.joedayz.demo_webflux_mongodb.loadtest;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import pe.joedayz.demo_webflux_mongodb.loadtest.LoadTestRequest.Operation;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestRequestTests {
+
+	private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@Test
+	void defaultMixIsValid() {
+		assertThat(validator.validate(request(null))).isEmpty();
+	}
+
+	@Test
+	void rejectsNegativeWeights() {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		mix.put(Operation.CREATE, 5);
+		mix.put(Operation.LIST, -1);
+
+		assertThat(messages(request(mix))).containsExactly("El peso de cada operación no puede ser negativo");
+	}
+
+	@Test
+	void rejectsAMixWithoutWeight() {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		mix.put(Operation.CREATE, 0);
+		mix.put(Operation.TOTALS, 0);
+
+		assertThat(messages(request(mix))).containsExactly("La suma de los pesos de la mezcla debe ser mayor a 0");
+	}
+
+	private static LoadTestRequest request(Map<Operation, Integer> mix) {
+		LoadTestRequest request = new LoadTestRequest(LoadTestRequest.Stack.REACTIVE, 50, 10, 100, "u1", "c1");
+		if (mix != null) {
+			request.setMix(mix);
+		}
+		return request;
+	}
+
+	private List<String> messages(LoadTestRequest request) {
+		return validator.validate(request).stream().map(ConstraintViolation::getMessage).toList();
+	}
+
+}
@@ -0,0 +1,49 @@
+package pe.joedayz.demo_webflux_mongodb.logging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoggingFilterTests {
+
+	private final RequestLoggingFilter filter = new RequestLoggingFilter(1.0, Duration.ofSeconds(1));
+
+	@Test
+	void propagatesIncomingCorrelationIdThroughTheReactorContext() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/reactive/expenses")
+				.header(RequestLoggingFilter.HEADER, "abc-123"));
+		AtomicReference<String> seen = new AtomicReference<>();
+
+		StepVerifier.create(filter.filter(exchange, capture(seen))).verifyComplete();
+
+		assertThat(seen).hasValue("abc-123");
+		assertThat(exchange.getResponse().getHeaders().getFirst(RequestLoggingFilter.HEADER)).isEqualTo("abc-123");
+	}
+
+	@Test
+	void replacesMissingOrUnsafeCorrelationIds() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/traditional/expenses")
+				.header(RequestLoggingFilter.HEADER, "no válido\n"));
+		AtomicReference<String> seen = new AtomicReference<>();
+
+		StepVerifier.create(filter.filter(exchange, capture(seen))).verifyComplete();
+
+		assertThat(seen.get()).isNotEqualTo("no válido\n").matches("[0-9a-f-]{36}");
+		assertThat(exchange.getResponse().getHeaders().getFirst(RequestLoggingFilter.HEADER)).isEqualTo(seen.get());
+	}
+
+	private static WebFilterChain capture(AtomicReference<String> seen) {
+		return exchange -> Mono.deferContextual(context -> {
+			seen.set(context.get(RequestLoggingFilter.CONTEXT_KEY));
+			return Mono.empty();
+		});
+	}
+}
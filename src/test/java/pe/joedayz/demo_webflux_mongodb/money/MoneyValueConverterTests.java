@@ -0,0 +1,94 @@
+package pe.joedayz.demo_webflux_mongodb.money;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Update;
+import pe.joedayz.demo_webflux_mongodb.config.MongoConfig;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyValueConverterTests {
+
+	@Test
+	void writesAmountsAsDecimal128() {
+		MappingMongoConverter converter = converter(MoneyStorage.DECIMAL128);
+
+		Document document = new Document();
+		converter.write(expense(new BigDecimal("45.50")), document);
+
+		assertThat(document.get("amount")).isEqualTo(new Decimal128(new BigDecimal("45.50")));
+		assertThat(converter.read(Expense.class, document).getAmount()).isEqualByComparingTo("45.50");
+	}
+
+	@Test
+	void writesAmountsAsCents() {
+		MappingMongoConverter converter = converter(MoneyStorage.CENTS);
+
+		Document document = new Document();
+		converter.write(expense(new BigDecimal("45.50")), document);
+
+		assertThat(document.get("amount")).isEqualTo(4550L);
+		assertThat(converter.read(Expense.class, document).getAmount()).isEqualByComparingTo("45.50");
+	}
+
+	@Test
+	void rejectsFractionalCents() {
+		assertThatThrownBy(() -> MoneyStorage.CENTS.write(new BigDecimal("1.005")))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void readsLegacyRepresentations() {
+		assertThat(MoneyStorage.read(45.5d)).isEqualByComparingTo("45.50");
+		assertThat(MoneyStorage.read("45.50")).isEqualByComparingTo("45.50");
+		assertThat(MoneyStorage.read(4550L)).isEqualByComparingTo("45.50");
+		// Los int32 sembrados por init.js son unidades, no céntimos
+		assertThat(MoneyStorage.read(5000)).isEqualByComparingTo("5000.00");
+		assertThat(MoneyStorage.read(25)).isEqualByComparingTo("25.00");
+		assertThat(MoneyStorage.read(new Decimal128(new BigDecimal("45.50")))).isEqualByComparingTo("45.50");
+	}
+
+	@Test
+	void balanceIncrementsUseTheActiveStorage() {
+		Update update = new Update().inc("balance", new BigDecimal("-12.34"));
+
+		assertThat(mappedIncrement(MoneyStorage.DECIMAL128, update)).isEqualTo(new Decimal128(new BigDecimal("-12.34")));
+		assertThat(mappedIncrement(MoneyStorage.CENTS, update)).isEqualTo(-1234L);
+	}
+
+	private static Object mappedIncrement(MoneyStorage storage, Update update) {
+		MappingMongoConverter converter = converter(storage);
+		Document mapped = new UpdateMapper(converter).getMappedObject(update.getUpdateObject(),
+				converter.getMappingContext().getPersistentEntity(User.class));
+		return mapped.get("$inc", Document.class).get("balance");
+	}
+
+	private static MappingMongoConverter converter(MoneyStorage storage) {
+		MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(storage);
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+
+	private static Expense expense(BigDecimal amount) {
+		return new Expense("user-1", "category-1", amount, "Supermercado", Expense.PaymentMethod.CASH, LocalDate.now());
+	}
+
+}
@@ -0,0 +1,130 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import pe.joedayz.demo_webflux_mongodb.config.MongoConfig;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCodecsTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+
+	@ParameterizedTest
+	@EnumSource(MoneyStorage.class)
+	void expenseCodecMatchesTheMappingConverter(MoneyStorage storage) {
+		Expense expense = new Expense("user-1", "category-1", new BigDecimal("45.50"), "Supermercado",
+				Expense.PaymentMethod.DEBIT_CARD, LocalDate.of(2024, 3, 1));
+		expense.setId("65f0a1b2c3d4e5f6a7b8c9d0");
+		expense.setCreatedAt(CREATED_AT);
+
+		assertRoundTrip(storage, expense, new ExpenseCodec(storage), Expense.class);
+	}
+
+	@ParameterizedTest
+	@EnumSource(MoneyStorage.class)
+	void userCodecMatchesTheMappingConverter(MoneyStorage storage) {
+		User user = new User("juan.perez", "juan@email.com", "Juan Pérez", new BigDecimal("1500.00"));
+		user.setId("juan.perez");
+		user.setCreatedAt(CREATED_AT);
+
+		assertRoundTrip(storage, user, new UserCodec(storage), User.class);
+	}
+
+	@ParameterizedTest
+	@EnumSource(MoneyStorage.class)
+	void categoryCodecMatchesTheMappingConverter(MoneyStorage storage) {
+		Category category = new Category("Alimentación", "Supermercado y restaurantes", "#FF5733");
+		category.setId("1");
+
+		assertRoundTrip(storage, category, new CategoryCodec(), Category.class);
+	}
+
+	// Documentos con la forma de los datos de ejemplo de init.js: referencias ObjectId, montos double o int32, sin _class
+	@ParameterizedTest
+	@EnumSource(MoneyStorage.class)
+	void codecsReadSeededDocumentsLikeTheMappingConverter(MoneyStorage storage) {
+		Date createdAt = new Date(1_705_312_800_123L);
+		Document seededExpense = new Document("_id", new ObjectId("65a4f0c2e1b2c3d4e5f60718"))
+				.append("userId", new ObjectId("65a4f0c2e1b2c3d4e5f60701"))
+				.append("categoryId", new ObjectId("65a4f0c2e1b2c3d4e5f60709"))
+				.append("amount", 45.50)
+				.append("description", "Supermercado para la semana")
+				.append("paymentMethod", "CASH")
+				.append("date", new Date(1_705_276_800_000L))
+				.append("createdAt", createdAt)
+				.append("status", "COMPLETED");
+		Document seededUser = new Document("_id", new ObjectId("65a4f0c2e1b2c3d4e5f60701"))
+				.append("username", "juan.perez")
+				.append("email", "juan.perez@email.com")
+				.append("fullName", "Juan Pérez")
+				.append("createdAt", createdAt)
+				.append("balance", 5000);
+
+		Expense expense = assertSameRead(storage, seededExpense, new ExpenseCodec(storage), Expense.class);
+		assertThat(expense.getUserId()).isEqualTo("65a4f0c2e1b2c3d4e5f60701");
+		assertThat(expense.getCategoryId()).isEqualTo("65a4f0c2e1b2c3d4e5f60709");
+		assertThat(expense.getAmount()).isEqualByComparingTo("45.50");
+
+		Expense wholeAmount = assertSameRead(storage, seededExpense.append("amount", 25), new ExpenseCodec(storage), Expense.class);
+		assertThat(wholeAmount.getAmount()).isEqualByComparingTo("25.00");
+
+		User user = assertSameRead(storage, seededUser, new UserCodec(storage), User.class);
+		assertThat(user.getBalance()).isEqualByComparingTo("5000.00");
+	}
+
+	private static <T> T assertSameRead(MoneyStorage storage, Document stored, Codec<T> codec, Class<T> type) {
+		RawBsonDocument raw = new RawBsonDocument(stored, new DocumentCodec());
+		T decoded = codec.decode(new BsonBinaryReader(raw.getByteBuffer().asNIO()), DecoderContext.builder().build());
+
+		assertThat(decoded).usingRecursiveComparison().isEqualTo(converter(storage).read(type, stored));
+		return decoded;
+	}
+
+	private static <T> void assertRoundTrip(MoneyStorage storage, T entity, Codec<T> codec, Class<T> type) {
+		MappingMongoConverter converter = converter(storage);
+		Document written = new Document();
+		converter.write(entity, written);
+		RawBsonDocument fromConverter = new RawBsonDocument(written, new DocumentCodec());
+		RawBsonDocument fromCodec = new RawBsonDocument(entity, codec);
+
+		// Mismo documento en MongoDB, y cada lado lee lo que escribe el otro
+		assertThat(fromCodec.toBsonDocument()).isEqualTo(fromConverter.toBsonDocument());
+		assertThat(codec.decode(new BsonBinaryReader(fromConverter.getByteBuffer().asNIO()), DecoderContext.builder().build()))
+				.usingRecursiveComparison().isEqualTo(entity);
+		assertThat(converter.read(type, fromCodec.decode(new DocumentCodec())))
+				.usingRecursiveComparison().isEqualTo(entity);
+	}
+
+	private static MappingMongoConverter converter(MoneyStorage storage) {
+		MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(storage);
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
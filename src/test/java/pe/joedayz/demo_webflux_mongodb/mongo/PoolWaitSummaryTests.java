@@ -0,0 +1,39 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoolWaitSummaryTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void reportsOnlyTheWaitOfItsClientSinceTheStartReading() {
+		wait("sync", "checked_out", 10);
+		PoolWaitSummary start = PoolWaitSummary.of(meterRegistry, "sync");
+
+		wait("sync", "checked_out", 20);
+		wait("sync", "timeout", 40);
+		wait("reactive", "checked_out", 500);
+
+		PoolWaitSummary summary = PoolWaitSummary.of(meterRegistry, "sync").since(start);
+
+		assertThat(summary.getCheckouts()).isEqualTo(2);
+		assertThat(summary.getTimeouts()).isEqualTo(1);
+		assertThat(summary.getTotalWaitMillis()).isEqualTo(60.0);
+		assertThat(summary.getMeanWaitMillis()).isEqualTo(30.0);
+	}
+
+	private void wait(String client, String outcome, long millis) {
+		Timer.builder("mongodb.driver.pool.checkout.wait")
+				.tag("client", client)
+				.tag("outcome", outcome)
+				.register(meterRegistry)
+				.record(Duration.ofMillis(millis));
+	}
+}
@@ -0,0 +1,46 @@
+package pe.joedayz.demo_webflux_mongodb.mongo;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTests {
+
+	@Test
+	void shapeReplacesValuesButKeepsKeysAndOperators() {
+		BsonDocument find = BsonDocument.parse("""
+				{"find": "expenses", "filter": {"userId": "u1", "amount": {"$gte": 10}, "paymentMethod": {"$in": ["CASH", "DEBIT_CARD"]}}}""");
+		BsonDocument aggregate = BsonDocument.parse("""
+				{"aggregate": "expenses", "pipeline": [{"$match": {"userId": "u1"}}, {"$group": {"_id": null, "total": {"$sum": "$amount"}}}]}""");
+
+		assertThat(QueryShape.of("find", find))
+				.isEqualTo("{\"userId\": \"?\", \"amount\": {\"$gte\": \"?\"}, \"paymentMethod\": {\"$in\": [\"?\"]}}");
+		assertThat(QueryShape.of("aggregate", aggregate))
+				.isEqualTo("{\"pipeline\": [{\"$match\": {\"userId\": \"?\"}}, {\"$group\": {\"_id\": \"?\", \"total\": {\"$sum\": \"$amount\"}}}]}");
+		assertThat(QueryShape.of("insert", BsonDocument.parse("{\"insert\": \"expenses\"}"))).isNull();
+	}
+
+	@Test
+	void ringBufferKeepsTheMostRecentEntriesSortedByDuration() {
+		SlowQueryLog slowQueryLog = new SlowQueryLog(true, Duration.ofMillis(100), 2);
+
+		slowQueryLog.record(slowQuery(150));
+		slowQueryLog.record(slowQuery(400));
+		slowQueryLog.record(slowQuery(200));
+
+		assertThat(slowQueryLog.snapshot()).extracting(SlowQuery::getDurationMillis).containsExactly(400.0, 200.0);
+		assertThat(slowQueryLog.getRecorded()).isEqualTo(3);
+
+		slowQueryLog.clear();
+		assertThat(slowQueryLog.snapshot()).isEmpty();
+	}
+
+	private static SlowQuery slowQuery(double durationMillis) {
+		return new SlowQuery(Instant.now(), "reactive", "expense_tracker", "expenses", "find",
+				"{\"userId\": \"?\"}", durationMillis, false);
+	}
+}
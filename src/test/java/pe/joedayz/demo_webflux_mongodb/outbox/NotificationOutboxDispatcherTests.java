@@ -0,0 +1,206 @@
+package pe.joedayz.demo_webflux_mongodb.outbox;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox;
+import pe.joedayz.demo_webflux_mongodb.model.NotificationOutbox.Status;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveNotificationOutboxRepository;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProperties;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxDispatcherTests {
+
+	private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+	private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(1);
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveNotificationOutboxRepository outboxRepository = mock(ReactiveNotificationOutboxRepository.class);
+	private final Set<String> missingExpenses = new HashSet<>();
+	private final ReactiveBulkOperations acknowledgements = mock(ReactiveBulkOperations.class, RETURNS_SELF);
+	private final SimulationProfile simulation = new SimulationProfile(new SimulationProperties());
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void setUp() {
+		simulation.updateStage(SimulationStage.NOTIFICATION_DELIVERY, Duration.ZERO, null, 0.0);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationOutbox.class)).thenReturn(acknowledgements);
+		when(acknowledgements.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(NotificationOutbox.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+		when(outboxRepository.countByStatus(any())).thenReturn(Mono.just(0L));
+		when(outboxRepository.findFirstByStatusOrderByNextAttemptAtAsc(any())).thenReturn(Mono.empty());
+		when(mongoTemplate.find(any(Query.class), eq(Expense.class))).thenAnswer(invocation -> {
+			List<?> ids = invocation.getArgument(0, Query.class).getQueryObject().get("id", Document.class).getList("$in", Object.class);
+			return Flux.fromIterable(ids).map(String.class::cast).filter(id -> !missingExpenses.contains(id)).map(NotificationOutboxDispatcherTests::expense);
+		});
+	}
+
+	@Test
+	void takesOverAClaimOlderThanTheClaimTimeout() {
+		NotificationOutbox abandoned = entry("outbox-1", "expense-1", 0);
+		abandoned.setStatus(Status.IN_FLIGHT);
+		abandoned.setClaimToken("despachador-caido");
+		abandoned.setClaimedAt(Instant.now().minus(Duration.ofMinutes(5)));
+		claimable(abandoned);
+
+		Instant before = Instant.now();
+		StepVerifier.create(dispatcher(5).drain()).verifyComplete();
+		Instant after = Instant.now();
+
+		ArgumentCaptor<Query> finds = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).find(finds.capture(), eq(NotificationOutbox.class));
+		Document takeover = finds.getAllValues().get(0).getQueryObject().getList("$or", Document.class).get(1);
+		assertThat(takeover.get("status")).isEqualTo(Status.IN_FLIGHT);
+		assertThat(takeover.get("claimedAt", Document.class).get("$lte", Instant.class))
+				.isBetween(before.minus(CLAIM_TIMEOUT), after.minus(CLAIM_TIMEOUT));
+
+		// Se confirma con el token nuevo: una confirmación tardía del dueño anterior ya no coincide
+		Object newToken = finds.getAllValues().get(1).getQueryObject().get("claimToken");
+		Map<Object, Document> acknowledged = acknowledgedBy("claimToken");
+		assertThat(newToken).isNotNull().isNotEqualTo("despachador-caido");
+		assertThat(acknowledged.get(newToken).get("$set", Document.class).get("status")).isEqualTo(Status.SENT);
+		assertThat(meterRegistry.get("expense.notifications.dispatched").tag("outcome", "sent").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void backoffDoublesUntilTheEntryFailsAtMaxAttempts() {
+		simulation.updateStage(SimulationStage.NOTIFICATION_DELIVERY, Duration.ZERO, null, 1.0);
+		claimable(entry("outbox-1", "expense-1", 0), entry("outbox-2", "expense-2", 1), entry("outbox-3", "expense-3", 2));
+
+		Instant before = Instant.now();
+		StepVerifier.create(dispatcher(3).drain()).verifyComplete();
+		Instant after = Instant.now();
+
+		// Una sola consulta de existencia para las tres entradas del lote
+		verify(mongoTemplate, times(1)).find(any(Query.class), eq(Expense.class));
+		Map<Object, Document> updates = acknowledgedById();
+		assertRetry(updates.get("outbox-1"), 1, before.plus(RETRY_BACKOFF), after.plus(RETRY_BACKOFF));
+		assertRetry(updates.get("outbox-2"), 2, before.plus(RETRY_BACKOFF.multipliedBy(2)), after.plus(RETRY_BACKOFF.multipliedBy(2)));
+
+		Document exhausted = updates.get("outbox-3").get("$set", Document.class);
+		assertThat(exhausted.get("status")).isEqualTo(Status.FAILED);
+		assertThat(exhausted.get("attempts")).isEqualTo(3);
+		assertThat(exhausted).doesNotContainKey("nextAttemptAt");
+		assertThat(meterRegistry.get("expense.notifications.dispatched").tag("outcome", "retry").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("expense.notifications.dispatched").tag("outcome", "failed").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void retriesAnEntryWhoseExpenseIsNotVisibleYet() {
+		NotificationOutbox early = entry("outbox-1", "expense-1", 0);
+		claimable(early);
+		missingExpenses.add("expense-1");
+
+		StepVerifier.create(dispatcher(5).drain()).verifyComplete();
+
+		Document retry = acknowledgedById().get("outbox-1").get("$set", Document.class);
+		assertThat(retry.get("status")).isEqualTo(Status.PENDING);
+		assertThat(retry.get("attempts")).isEqualTo(1);
+		assertThat(retry.get("lastError")).isEqualTo("Gasto no encontrado: expense-1");
+
+		// En el ciclo siguiente el gasto ya está guardado y la notificación sale
+		missingExpenses.clear();
+		early.setStatus(Status.PENDING);
+		early.setAttempts(1);
+		clearInvocations(acknowledgements);
+		StepVerifier.create(dispatcher(5).drain()).verifyComplete();
+
+		assertThat(acknowledgedById().get("outbox-1").get("$set", Document.class).get("status")).isEqualTo(Status.SENT);
+	}
+
+	private NotificationOutboxDispatcher dispatcher(int maxAttempts) {
+		return new NotificationOutboxDispatcher(mongoTemplate, outboxRepository, meterRegistry,
+				false, Duration.ofMillis(500), 100, 32, maxAttempts, RETRY_BACKOFF, CLAIM_TIMEOUT, simulation);
+	}
+
+	// El reclamo real lo hace updateMulti: aquí la lectura por claimToken devuelve las entradas con el token asignado
+	private void claimable(NotificationOutbox... entries) {
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class))).thenAnswer(invocation -> {
+			Object claimToken = invocation.getArgument(0, Query.class).getQueryObject().get("claimToken");
+			if (claimToken == null) {
+				return Flux.fromArray(entries);
+			}
+			return Flux.fromArray(entries).doOnNext(entry -> {
+				entry.setStatus(Status.IN_FLIGHT);
+				entry.setClaimToken((String) claimToken);
+			});
+		});
+	}
+
+
+	private Map<Object, Document> acknowledgedById() {
+		return acknowledgedBy("id");
+	}
+
+	private Map<Object, Document> acknowledgedBy(String key) {
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(acknowledgements, atLeastOnce()).updateOne(queries.capture(), updates.capture());
+
+		Map<Object, Document> byKey = new HashMap<>();
+		List<Query> capturedQueries = queries.getAllValues();
+		for (int i = 0; i < capturedQueries.size(); i++) {
+			byKey.put(capturedQueries.get(i).getQueryObject().get(key), updates.getAllValues().get(i).getUpdateObject());
+		}
+		return byKey;
+	}
+
+	private static void assertRetry(Document update, int attempts, Instant earliest, Instant latest) {
+		Document set = update.get("$set", Document.class);
+		assertThat(set.get("status")).isEqualTo(Status.PENDING);
+		assertThat(set.get("attempts")).isEqualTo(attempts);
+		assertThat(set.get("nextAttemptAt", Instant.class)).isBetween(earliest, latest);
+	}
+
+	private static Expense expense(String id) {
+		Expense expense = new Expense();
+		expense.setId(id);
+		return expense;
+	}
+
+	private static NotificationOutbox entry(String id, String expenseId, int attempts) {
+		NotificationOutbox entry = new NotificationOutbox();
+		entry.setId(id);
+		entry.setExpenseId(expenseId);
+		entry.setAttempts(attempts);
+		entry.setStatus(Status.PENDING);
+		entry.setCreatedAt(Instant.now());
+		entry.setNextAttemptAt(Instant.now());
+		return entry;
+	}
+
+}
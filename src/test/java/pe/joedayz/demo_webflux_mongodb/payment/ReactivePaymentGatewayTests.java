@@ -0,0 +1,129 @@
+package pe.joedayz.demo_webflux_mongodb.payment;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.scheduler.ReactorSchedulers;
+import pe.joedayz.demo_webflux_mongodb.scheduler.SchedulerProperties;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProperties;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationStage;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactivePaymentGatewayTests {
+
+	private PaymentProperties properties;
+
+	private SimulationProfile simulation;
+
+	@BeforeEach
+	void setUp() {
+		properties = new PaymentProperties();
+		properties.getCreditCard().setTimeout(Duration.ofMillis(200));
+		properties.getCreditCard().setMaxConcurrentCalls(2);
+		properties.getCircuitBreaker().setSlidingWindowSize(4);
+		properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+
+		simulation = new SimulationProfile(new SimulationProperties());
+		simulation.updateStage(SimulationStage.CREDIT_CARD_PAYMENT, Duration.ofSeconds(5), null, null);
+		simulation.updateStage(SimulationStage.CASH_PAYMENT, Duration.ofMillis(10), null, null);
+	}
+
+	@Test
+	void slowCreditCardGatewayDoesNotBlockCashPayments() {
+		ReactivePaymentGateway gateway = gateway();
+
+		Disposable first = gateway.process(Expense.PaymentMethod.CREDIT_CARD, BigDecimal.TEN).subscribe(v -> {}, e -> {});
+		Disposable second = gateway.process(Expense.PaymentMethod.CREDIT_CARD, BigDecimal.TEN).subscribe(v -> {}, e -> {});
+
+		StepVerifier.create(gateway.process(Expense.PaymentMethod.CREDIT_CARD, BigDecimal.TEN))
+				.expectError(BulkheadFullException.class)
+				.verify(Duration.ofSeconds(1));
+		StepVerifier.create(gateway.process(Expense.PaymentMethod.CASH, BigDecimal.TEN))
+				.expectComplete()
+				.verify(Duration.ofSeconds(1));
+
+		first.dispose();
+		second.dispose();
+	}
+
+	@Test
+	void timeoutsOpenTheCircuitForThatMethodOnly() {
+		ReactivePaymentGateway gateway = gateway();
+
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(gateway.process(Expense.PaymentMethod.CREDIT_CARD, BigDecimal.TEN))
+					.expectError(TimeoutException.class)
+					.verify(Duration.ofSeconds(1));
+		}
+
+		StepVerifier.create(gateway.process(Expense.PaymentMethod.CREDIT_CARD, BigDecimal.TEN))
+				.expectError(CallNotPermittedException.class)
+				.verify(Duration.ofSeconds(1));
+		StepVerifier.create(gateway.process(Expense.PaymentMethod.CASH, BigDecimal.TEN))
+				.expectComplete()
+				.verify(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void blockingProcessorsRunOnThePaymentsScheduler() {
+		AtomicReference<String> thread = new AtomicReference<>();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("debitCardProcessor", new PaymentProcessor() {
+
+			@Override
+			public Expense.PaymentMethod getPaymentMethod() {
+				return Expense.PaymentMethod.DEBIT_CARD;
+			}
+
+			@Override
+			public boolean isBlocking() {
+				return true;
+			}
+
+			@Override
+			public Mono<Void> process(BigDecimal amount) {
+				return Mono.error(new UnsupportedOperationException());
+			}
+
+			@Override
+			public void processBlocking(BigDecimal amount) {
+				thread.set(Thread.currentThread().getName());
+			}
+
+		});
+
+		StepVerifier.create(gateway(beanFactory).process(Expense.PaymentMethod.DEBIT_CARD, BigDecimal.TEN))
+				.expectComplete()
+				.verify(Duration.ofSeconds(1));
+		assertThat(thread.get()).startsWith("payments-");
+	}
+
+	private ReactivePaymentGateway gateway() {
+		return gateway(new StaticListableBeanFactory());
+	}
+
+	private ReactivePaymentGateway gateway(StaticListableBeanFactory beanFactory) {
+		PaymentProcessors processors = new PaymentProcessors(beanFactory.getBeanProvider(PaymentProcessor.class), simulation);
+		ReactorSchedulers schedulers = new ReactorSchedulers(new SchedulerProperties(), new SimpleMeterRegistry());
+		return new ReactivePaymentGateway(processors, schedulers, properties,
+				BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults());
+	}
+
+}
@@ -0,0 +1,76 @@
+package pe.joedayz.demo_webflux_mongodb.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import pe.joedayz.demo_webflux_mongodb.config.MongoConfig;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.ExpenseSummary;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseSummaryUpdatesTests {
+
+	@Test
+	void expensesWithTheSameKeyShareOneUpsert() {
+		List<Pair<Query, Update>> upserts = ExpenseSummaryUpdates.upserts(List.of(
+				expense("c1", "10.50", LocalDate.of(2024, 1, 3)),
+				expense("c1", "4.50", LocalDate.of(2024, 1, 28)),
+				expense("c2", "7.00", LocalDate.of(2024, 1, 3)),
+				expense("c1", "1.00", LocalDate.of(2024, 2, 1))));
+
+		assertThat(upserts).hasSize(3);
+		assertThat(upserts.get(0).getFirst().getQueryObject().get("id")).isEqualTo("u1:c1:2024-01");
+
+		Document update = upserts.get(0).getSecond().getUpdateObject();
+		assertThat((BigDecimal) update.get("$inc", Document.class).get("total")).isEqualByComparingTo("15.00");
+		assertThat(update.get("$inc", Document.class).get("count")).isEqualTo(2L);
+		assertThat(update.get("$setOnInsert", Document.class).get("month")).isEqualTo("2024-01");
+	}
+
+	@Test
+	void expensesWithoutDateAreSkipped() {
+		assertThat(ExpenseSummaryUpdates.upserts(List.of(expense("c1", "10.00", null)))).isEmpty();
+	}
+
+	@Test
+	void totalIncrementsUseTheActiveStorage() {
+		Update update = ExpenseSummaryUpdates.upserts(List.of(expense("c1", "12.34", LocalDate.of(2024, 1, 3))))
+				.get(0).getSecond();
+
+		MappingMongoConverter converter = converter(MoneyStorage.CENTS);
+		Document mapped = new UpdateMapper(converter).getMappedObject(update.getUpdateObject(),
+				converter.getMappingContext().getPersistentEntity(ExpenseSummary.class));
+
+		assertThat(mapped.get("$inc", Document.class).get("total")).isEqualTo(1234L);
+	}
+
+	private static MappingMongoConverter converter(MoneyStorage storage) {
+		MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions(storage);
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+
+	private static Expense expense(String categoryId, String amount, LocalDate date) {
+		return new Expense("u1", categoryId, new BigDecimal(amount), "Gasto", Expense.PaymentMethod.CASH, date);
+	}
+
+}
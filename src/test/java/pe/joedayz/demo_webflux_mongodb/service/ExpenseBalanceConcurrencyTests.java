@@ -0,0 +1,106 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Category;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "spring.main.web-application-type=none")
+class ExpenseBalanceConcurrencyTests {
+
+	private static final int PARALLEL_CREATES = 1000;
+
+	private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000);
+
+	private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+	@Container
+	@ServiceConnection
+	static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+	@Autowired
+	private ReactiveExpenseService reactiveExpenseService;
+
+	@Autowired
+	private TraditionalExpenseService traditionalExpenseService;
+
+	@Autowired
+	private TraditionalUserRepository userRepository;
+
+	@Autowired
+	private TraditionalCategoryRepository categoryRepository;
+
+	private String userId;
+
+	private String categoryId;
+
+	@BeforeEach
+	void setUp() {
+		String username = "concurrency." + UUID.randomUUID();
+		userId = userRepository.save(new User(username, username + "@email.com", "Usuario Concurrencia", INITIAL_BALANCE))
+			.getId();
+		categoryId = categoryRepository.save(new Category("Concurrencia", "Categoría de prueba", "#000000")).getId();
+	}
+
+	@Test
+	void reactiveParallelCreatesDoNotLoseBalanceUpdates() {
+		Flux.range(0, PARALLEL_CREATES)
+			.flatMap(i -> reactiveExpenseService.createExpense(request()), PARALLEL_CREATES)
+			.blockLast(Duration.ofMinutes(2));
+
+		assertThat(currentBalance()).isEqualByComparingTo(expectedBalance());
+	}
+
+	@Test
+	void traditionalParallelCreatesDoNotLoseBalanceUpdates() throws Exception {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> creates = new ArrayList<>(PARALLEL_CREATES);
+			for (int i = 0; i < PARALLEL_CREATES; i++) {
+				creates.add(executor.submit(() -> traditionalExpenseService.createExpense(request())));
+			}
+			for (Future<?> create : creates) {
+				create.get();
+			}
+		}
+
+		assertThat(currentBalance()).isEqualByComparingTo(expectedBalance());
+	}
+
+	private CreateExpenseRequest request() {
+		return new CreateExpenseRequest(userId, categoryId, AMOUNT, "Gasto concurrente", Expense.PaymentMethod.CASH,
+				LocalDate.now());
+	}
+
+	private BigDecimal currentBalance() {
+		return userRepository.findById(userId).orElseThrow().getBalance();
+	}
+
+	private static BigDecimal expectedBalance() {
+		return INITIAL_BALANCE.subtract(AMOUNT.multiply(BigDecimal.valueOf(PARALLEL_CREATES)));
+	}
+
+}
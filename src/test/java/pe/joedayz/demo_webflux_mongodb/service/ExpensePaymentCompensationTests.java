@@ -0,0 +1,153 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.money.MoneyStorage;
+import pe.joedayz.demo_webflux_mongodb.payment.ReactivePaymentGateway;
+import pe.joedayz.demo_webflux_mongodb.payment.TraditionalPaymentGateway;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveNotificationOutboxRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalNotificationOutboxRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProfile;
+import pe.joedayz.demo_webflux_mongodb.simulation.SimulationProperties;
+import pe.joedayz.demo_webflux_mongodb.singleflight.ReactiveSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.singleflight.SingleFlightProperties;
+import pe.joedayz.demo_webflux_mongodb.singleflight.TraditionalSingleFlight;
+import pe.joedayz.demo_webflux_mongodb.summary.ExpenseSummaryRebuild;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ExpensePaymentCompensationTests {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("45.50");
+
+	private final ExpensePipelineObservations observations = new ExpensePipelineObservations(ObservationRegistry.NOOP);
+
+	@Test
+	void reactiveRefundsTheChargeWhenTheUserDoesNotExist() {
+		ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+		ReactivePaymentGateway paymentGateway = mock(ReactivePaymentGateway.class);
+		when(userRepository.findById("missing")).thenReturn(Mono.empty());
+		when(paymentGateway.process(Expense.PaymentMethod.CASH, AMOUNT)).thenReturn(Mono.empty());
+		when(paymentGateway.refund(Expense.PaymentMethod.CASH, AMOUNT)).thenReturn(Mono.empty());
+
+		StepVerifier.create(reactiveService(mock(ReactiveExpenseRepository.class), userRepository, paymentGateway)
+						.createExpense(request("missing", AMOUNT)))
+				.expectErrorMessage("Usuario no encontrado")
+				.verify();
+
+		verify(paymentGateway).refund(Expense.PaymentMethod.CASH, AMOUNT);
+	}
+
+	@Test
+	void reactiveDoesNotRefundAFailedCharge() {
+		ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+		ReactivePaymentGateway paymentGateway = mock(ReactivePaymentGateway.class);
+		when(userRepository.findById("missing")).thenReturn(Mono.empty());
+		when(paymentGateway.process(Expense.PaymentMethod.CASH, AMOUNT))
+				.thenReturn(Mono.error(new RuntimeException("Pago rechazado")));
+
+		StepVerifier.create(reactiveService(mock(ReactiveExpenseRepository.class), userRepository, paymentGateway)
+						.createExpense(request("missing", AMOUNT)))
+				.expectErrorMessage("Usuario no encontrado")
+				.verify();
+
+		verify(paymentGateway, never()).refund(any(), any());
+	}
+
+	@Test
+	void reactiveNeverChargesAnAmountOverTheLimit() {
+		ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+		ReactivePaymentGateway paymentGateway = mock(ReactivePaymentGateway.class);
+
+		StepVerifier.create(reactiveService(mock(ReactiveExpenseRepository.class), userRepository, paymentGateway)
+						.createExpense(request("juan.perez", BigDecimal.valueOf(20000))))
+				.expectErrorMessage("Monto excede el límite permitido")
+				.verify();
+
+		verifyNoInteractions(paymentGateway, userRepository);
+	}
+
+	@Test
+	void traditionalRefundsTheChargeWhenTheUserDoesNotExist() {
+		TraditionalUserRepository userRepository = mock(TraditionalUserRepository.class);
+		TraditionalExpenseRepository expenseRepository = mock(TraditionalExpenseRepository.class);
+		TraditionalPaymentGateway paymentGateway = mock(TraditionalPaymentGateway.class);
+		when(userRepository.findById("missing")).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> traditionalService(expenseRepository, userRepository, paymentGateway)
+				.createExpense(request("missing", AMOUNT)))
+				.hasMessageContaining("Usuario no encontrado");
+
+		verify(paymentGateway).process(Expense.PaymentMethod.CASH, AMOUNT);
+		verify(paymentGateway).refund(Expense.PaymentMethod.CASH, AMOUNT);
+		verifyNoInteractions(expenseRepository);
+	}
+
+	@Test
+	void traditionalNeverChargesAnAmountOverTheLimit() {
+		TraditionalUserRepository userRepository = mock(TraditionalUserRepository.class);
+		TraditionalPaymentGateway paymentGateway = mock(TraditionalPaymentGateway.class);
+
+		assertThatThrownBy(() -> traditionalService(mock(TraditionalExpenseRepository.class), userRepository, paymentGateway)
+				.createExpense(request("juan.perez", BigDecimal.valueOf(20000))))
+				.hasMessageContaining("Monto excede el límite permitido");
+
+		verifyNoInteractions(paymentGateway, userRepository);
+	}
+
+	private static CreateExpenseRequest request(String userId, BigDecimal amount) {
+		return new CreateExpenseRequest(userId, "category-1", amount, "Supermercado",
+				Expense.PaymentMethod.CASH, LocalDate.of(2024, 3, 1));
+	}
+
+	// El pipeline reactivo se ensambla entero antes de suscribirse: las escrituras fallan solo si llegan a ejecutarse
+	private ReactiveExpenseService reactiveService(ReactiveExpenseRepository expenseRepository,
+			ReactiveUserRepository userRepository, ReactivePaymentGateway paymentGateway) {
+		ReactiveNotificationOutboxRepository outboxRepository = mock(ReactiveNotificationOutboxRepository.class);
+		when(outboxRepository.save(any())).thenReturn(Mono.error(new IllegalStateException("No debe escribirse el outbox")));
+		when(expenseRepository.insert(any(Expense.class))).thenReturn(Mono.error(new IllegalStateException("No debe guardarse el gasto")));
+
+		return new ReactiveExpenseService(expenseRepository, userRepository, mock(ReactiveExpenseEnricher.class),
+				outboxRepository, mock(ReactiveExpenseSummaryRepository.class), mock(ExpenseSummaryRebuild.class),
+				mock(ReactiveMongoTemplate.class), paymentGateway, new SimulationProfile(new SimulationProperties()),
+				MoneyStorage.DECIMAL128, new ReactiveSingleFlight(new SingleFlightProperties(), new SimpleMeterRegistry()),
+				observations, 50, 200, 500, 256);
+	}
+
+	private TraditionalExpenseService traditionalService(TraditionalExpenseRepository expenseRepository,
+			TraditionalUserRepository userRepository, TraditionalPaymentGateway paymentGateway) {
+		return new TraditionalExpenseService(expenseRepository, userRepository, mock(TraditionalExpenseEnricher.class),
+				mock(TraditionalNotificationOutboxRepository.class), mock(TraditionalExpenseSummaryRepository.class),
+				mock(ExpenseSummaryRebuild.class),
+				mock(MongoTemplate.class), new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()),
+				paymentGateway, new SimulationProfile(new SimulationProperties()), MoneyStorage.DECIMAL128,
+				new TraditionalSingleFlight(new SingleFlightProperties(), new SimpleMeterRegistry()),
+				observations, 50, 200, 500);
+	}
+
+}
@@ -0,0 +1,70 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.service.ExpensePipelineObservations.Stage;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpensePipelineObservationsTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ExpensePipelineObservations observations = new ExpensePipelineObservations(observationRegistry());
+
+	@Test
+	void bothStacksRecordTheSameTimerWithTheSameTagKeys() {
+		StepVerifier.create(observations.observe(Mono.just("ok"), Stage.PERSIST, Expense.PaymentMethod.CASH))
+				.expectNext("ok")
+				.verifyComplete();
+		assertThat(observations.observe(Stage.PERSIST, Expense.PaymentMethod.CASH, () -> "ok")).isEqualTo("ok");
+
+		Timer reactive = timer("reactive");
+		Timer traditional = timer("traditional");
+
+		assertThat(reactive.count()).isEqualTo(1);
+		assertThat(traditional.count()).isEqualTo(1);
+		assertThat(tagKeys(reactive)).isEqualTo(tagKeys(traditional))
+				.contains("stack", "stage", "payment.method", "reactor.status");
+		assertThat(reactive.getId().getTag("reactor.status")).isEqualTo("completed");
+		assertThat(traditional.getId().getTag("stage")).isEqualTo("persist");
+	}
+
+	@Test
+	void failedTraditionalStageIsRecordedAsErrorAndRethrown() {
+		assertThatThrownBy(() -> observations.observe(Stage.VALIDATE, Expense.PaymentMethod.DEBIT_CARD,
+				(Runnable) () -> {
+					throw new IllegalStateException("Usuario no encontrado");
+				}))
+				.isInstanceOf(IllegalStateException.class);
+
+		Timer timer = timer("traditional");
+		assertThat(timer.getId().getTag("reactor.status")).isEqualTo("error");
+		assertThat(timer.getId().getTag("payment.method")).isEqualTo("DEBIT_CARD");
+	}
+
+	private Timer timer(String stack) {
+		return meterRegistry.get(ExpensePipelineObservations.NAME).tag("stack", stack).timer();
+	}
+
+	private static Set<String> tagKeys(Meter meter) {
+		return meter.getId().getTags().stream().map(Tag::getKey).collect(Collectors.toSet());
+	}
+
+	private ObservationRegistry observationRegistry() {
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		return registry;
+	}
+}
@@ -0,0 +1,155 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult.ItemFailure;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveBulkExpenseServiceTests {
+
+	private static final String USER_ID = "6650f1a2b3c4d5e6f7a8b9c0";
+
+	private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	private final ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+	private final ReactiveExpenseSummaryRepository summaryRepository = mock(ReactiveExpenseSummaryRepository.class);
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveBulkOperations expenseOperations = mock(ReactiveBulkOperations.class, RETURNS_SELF);
+	private final ReactiveBulkOperations userOperations = mock(ReactiveBulkOperations.class, RETURNS_SELF);
+
+	@BeforeEach
+	void setUp() {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)).thenReturn(expenseOperations);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(userOperations);
+		when(expenseOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(userOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(userRepository.findAllById(anyIterable())).thenReturn(Flux.just(user(USER_ID)));
+		when(summaryRepository.incrementAll(any())).thenReturn(Mono.empty());
+	}
+
+	@Test
+	void invalidItemsKeepTheirRequestIndexAcrossBatches() {
+		BulkExpenseResult result = service(2).createExpenses(Flux.just(
+				request(USER_ID, "10", "Almuerzo"),
+				request(USER_ID, "10", " "),
+				request(USER_ID, "10", "Taxi"),
+				request(USER_ID, "20000", "Laptop"))).block();
+
+		assertThat(result.getReceived()).isEqualTo(4);
+		assertThat(result.getInserted()).isEqualTo(2);
+		assertThat(result.getFailures()).extracting(ItemFailure::getIndex, ItemFailure::getMessage).containsExactly(
+				tuple(1L, "La descripción es requerida"),
+				tuple(3L, "Monto excede el límite permitido"));
+	}
+
+	@Test
+	void unknownUsersAreReportedAndNeverInserted() {
+		BulkExpenseResult result = service(10).createExpenses(Flux.just(
+				request("6650f1a2b3c4d5e6f7a8b9ff", "10", "Almuerzo"),
+				request(USER_ID, "10", "Taxi"))).block();
+
+		assertThat(result.getInserted()).isEqualTo(1);
+		assertThat(result.getFailures()).singleElement()
+				.satisfies(failure -> {
+					assertThat(failure.getIndex()).isZero();
+					assertThat(failure.getMessage()).isEqualTo("Usuario no encontrado");
+				});
+		verify(expenseOperations).insert(argThat((List<?> expenses) -> expenses.size() == 1));
+	}
+
+	@Test
+	void duplicateKeyErrorsMapToTheRequestIndexAndStayOutOfTheBalance() {
+		when(expenseOperations.execute()).thenReturn(Mono.error(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+				List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+				null, new ServerAddress(), Set.of())));
+
+		BulkExpenseResult result = service(10).createExpenses(Flux.just(
+				request(USER_ID, "5", ""),
+				request(USER_ID, "10", "Almuerzo"),
+				request(USER_ID, "20", "Taxi"),
+				request(USER_ID, "30", "Cine"))).block();
+
+		assertThat(result.getInserted()).isEqualTo(2);
+		assertThat(result.getFailures()).extracting(ItemFailure::getIndex).containsExactly(0L, 2L);
+		assertThat(result.getFailures().get(1).getMessage()).contains("E11000");
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(userOperations).updateOne(any(Query.class), update.capture());
+		assertThat((BigDecimal) update.getValue().getUpdateObject().get("$inc", Document.class).get("balance"))
+				.isEqualByComparingTo("-40");
+	}
+
+	@Test
+	void failuresAfterTheInsertAreReportedWithoutFailingTheLoad() {
+		when(userOperations.execute()).thenReturn(Mono.error(new MongoTimeoutException("Sin servidor disponible")));
+		when(summaryRepository.incrementAll(anyList())).thenReturn(Mono.error(new MongoTimeoutException("Sin servidor disponible")));
+
+		StepVerifier.create(service(10).createExpenses(Flux.just(
+						request(USER_ID, "10", "Almuerzo"),
+						request("6650f1a2b3c4d5e6f7a8b9ff", "10", "Taxi"),
+						request(USER_ID, "20", "Cine"))))
+				.assertNext(result -> {
+					assertThat(result.getInserted()).isEqualTo(2);
+					assertThat(result.getFailed()).isEqualTo(1);
+					assertThat(result.getBalanceFailures()).extracting(ItemFailure::getIndex).containsExactly(0L, 2L);
+					assertThat(result.getBalanceFailures()).extracting(ItemFailure::getMessage)
+							.containsOnly("Sin servidor disponible");
+					assertThat(result.isSummariesStale()).isTrue();
+				})
+				.verifyComplete();
+	}
+
+	private ReactiveBulkExpenseService service(int batchSize) {
+		return new ReactiveBulkExpenseService(userRepository, summaryRepository, mongoTemplate, validator, batchSize);
+	}
+
+	private static CreateExpenseRequest request(String userId, String amount, String description) {
+		return new CreateExpenseRequest(userId, "category-1", new BigDecimal(amount), description,
+				Expense.PaymentMethod.CASH, LocalDate.of(2024, 3, 1));
+	}
+
+	private static User user(String id) {
+		User user = new User("juan.perez", "juan.perez@email.com", "Juan Pérez", BigDecimal.valueOf(5000));
+		user.setId(id);
+		return user;
+	}
+
+}
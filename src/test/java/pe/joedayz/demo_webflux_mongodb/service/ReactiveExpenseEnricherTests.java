@@ -0,0 +1,143 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pe.joedayz.demo_webflux_mongodb.cache.ReactiveReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.ReactiveUserRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveExpenseEnricherTests {
+
+	private ReactiveUserRepository userRepository;
+
+	private ReactiveCategoryRepository categoryRepository;
+
+	private ReactiveReferenceDataCache referenceDataCache;
+
+	private ReactiveExpenseEnricher enricher;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(ReactiveUserRepository.class);
+		categoryRepository = mock(ReactiveCategoryRepository.class);
+		referenceDataCache = new ReactiveReferenceDataCache(userRepository, categoryRepository,
+				new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+		enricher = new ReactiveExpenseEnricher(referenceDataCache, 100);
+
+		when(userRepository.findNamesByIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(0);
+			return Flux.fromStream(ids.stream().map(ReactiveExpenseEnricherTests::user));
+		});
+		when(categoryRepository.findNamesByIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(0);
+			return Flux.fromStream(ids.stream().map(ReactiveExpenseEnricherTests::category));
+		});
+	}
+
+	@Test
+	void enrichAllLoadsReferenceDataOncePerCollection() {
+		List<Expense> expenses = expenses(250);
+
+		StepVerifier.create(enricher.enrichAll(Flux.fromIterable(expenses)).collectList())
+				.assertNext(responses -> {
+					assertThat(responses).hasSize(250);
+					assertThat(responses).extracting(ExpenseResponse::getId)
+							.containsExactlyElementsOf(expenses.stream().map(Expense::getId).toList());
+					assertThat(responses.get(7).getUserName()).isEqualTo("Usuario u2");
+					assertThat(responses.get(7).getCategoryName()).isEqualTo("Categoría c3");
+				})
+				.verifyComplete();
+
+		// 250 gastos en ventanas de 100: la primera carga la caché con una consulta $in
+		// por colección y las siguientes se resuelven en memoria, en lugar de 500 findById
+		verify(userRepository, times(1)).findNamesByIdIn(anyCollection());
+		verify(categoryRepository, times(1)).findNamesByIdIn(anyCollection());
+		verifyNoMoreInteractions(userRepository, categoryRepository);
+	}
+
+	@Test
+	void invalidatedUserIsReloaded() {
+		Expense expense = expense(0);
+
+		StepVerifier.create(enricher.enrich(expense)).expectNextCount(1).verifyComplete();
+		referenceDataCache.invalidateUser(expense.getUserId());
+		StepVerifier.create(enricher.enrich(expense)).expectNextCount(1).verifyComplete();
+
+		verify(userRepository, times(2)).findNamesByIdIn(anyCollection());
+		verify(categoryRepository, times(1)).findNamesByIdIn(anyCollection());
+	}
+
+	@Test
+	void enrichSkipsExpensesWithoutUser() {
+		Expense orphan = expense(0);
+		orphan.setUserId(null);
+
+		StepVerifier.create(enricher.enrich(orphan))
+				.verifyComplete();
+	}
+
+	private static List<Expense> expenses(int count) {
+		List<Expense> expenses = new ArrayList<>(count);
+		IntStream.range(0, count).forEach(i -> expenses.add(expense(i)));
+		return expenses;
+	}
+
+	private static Expense expense(int i) {
+		Expense expense = new Expense("u" + (i % 5), "c" + (i % 4), BigDecimal.TEN,
+				"Gasto " + i, Expense.PaymentMethod.CASH, LocalDate.of(2024, 1, 1));
+		expense.setId("e" + i);
+		return expense;
+	}
+
+	private static UserNameView user(String id) {
+		return new UserNameView() {
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getFullName() {
+				return "Usuario " + id;
+			}
+		};
+	}
+
+	private static CategoryNameView category(String id) {
+		return new CategoryNameView() {
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return "Categoría " + id;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,138 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult;
+import pe.joedayz.demo_webflux_mongodb.dto.BulkExpenseResult.ItemFailure;
+import pe.joedayz.demo_webflux_mongodb.dto.CreateExpenseRequest;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.model.User;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalExpenseSummaryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TraditionalBulkExpenseServiceTests {
+
+	private static final String USER_ID = "6650f1a2b3c4d5e6f7a8b9c0";
+	private static final String OTHER_USER_ID = "6650f1a2b3c4d5e6f7a8b9c1";
+
+	private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	private final TraditionalUserRepository userRepository = mock(TraditionalUserRepository.class);
+	private final TraditionalExpenseSummaryRepository summaryRepository = mock(TraditionalExpenseSummaryRepository.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations expenseOperations = mock(BulkOperations.class, RETURNS_SELF);
+	private final BulkOperations userOperations = mock(BulkOperations.class, RETURNS_SELF);
+
+	@BeforeEach
+	void setUp() {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class)).thenReturn(expenseOperations);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(userOperations);
+		when(expenseOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+		when(userOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+		when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user(USER_ID), user(OTHER_USER_ID)));
+	}
+
+	@Test
+	void invalidItemsAndUnknownUsersKeepTheirRequestIndexAcrossBatches() {
+		BulkExpenseResult result = service(2).createExpenses(List.of(
+				request(USER_ID, "10", "Almuerzo"),
+				request(USER_ID, "0", "Taxi"),
+				request("6650f1a2b3c4d5e6f7a8b9ff", "10", "Cine"),
+				request(OTHER_USER_ID, "10", "Cine")));
+
+		assertThat(result.getReceived()).isEqualTo(4);
+		assertThat(result.getInserted()).isEqualTo(2);
+		assertThat(result.getFailures()).extracting(ItemFailure::getIndex, ItemFailure::getMessage).containsExactly(
+				tuple(1L, "El monto debe ser mayor a 0"),
+				tuple(2L, "Usuario no encontrado"));
+	}
+
+	@Test
+	void duplicateKeyErrorsMapToTheRequestIndex() {
+		when(expenseOperations.execute()).thenThrow(bulkError(0, 11000, "E11000 duplicate key error"));
+
+		BulkExpenseResult result = service(10).createExpenses(List.of(
+				request(USER_ID, "20000", "Laptop"),
+				request(USER_ID, "10", "Almuerzo"),
+				request(USER_ID, "20", "Taxi")));
+
+		assertThat(result.getInserted()).isEqualTo(1);
+		assertThat(result.getFailures()).extracting(ItemFailure::getIndex).containsExactly(0L, 1L);
+		assertThat(result.getFailures().get(1).getMessage()).contains("E11000");
+		assertThat(result.getBalanceFailures()).isEmpty();
+	}
+
+	@Test
+	void balanceWriteErrorsAreReportedForTheItemsOfThatUserOnly() {
+		List<Object> updatedUsers = new ArrayList<>();
+		when(userOperations.updateOne(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+			updatedUsers.add(invocation.getArgument(0, Query.class).getQueryObject().get("id"));
+			return userOperations;
+		});
+		when(userOperations.execute()).thenAnswer(invocation -> {
+			throw bulkError(updatedUsers.indexOf(OTHER_USER_ID), 121, "Document failed validation");
+		});
+		doThrow(new IllegalStateException("Resúmenes no disponibles")).when(summaryRepository).incrementAll(anyList());
+
+		BulkExpenseResult result = service(10).createExpenses(List.of(
+				request(OTHER_USER_ID, "10", "Almuerzo"),
+				request(USER_ID, "10", "Taxi"),
+				request(OTHER_USER_ID, "20", "Cine")));
+
+		assertThat(result.getInserted()).isEqualTo(3);
+		assertThat(result.getFailed()).isZero();
+		assertThat(result.getBalanceFailures()).extracting(ItemFailure::getIndex, ItemFailure::getUserId).containsExactly(
+				tuple(0L, OTHER_USER_ID),
+				tuple(2L, OTHER_USER_ID));
+		assertThat(result.isSummariesStale()).isTrue();
+	}
+
+	private TraditionalBulkExpenseService service(int batchSize) {
+		return new TraditionalBulkExpenseService(userRepository, summaryRepository, mongoTemplate, validator, batchSize);
+	}
+
+	private static BulkOperationException bulkError(int index, int code, String message) {
+		return new BulkOperationException(message, new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+				List.of(new BulkWriteError(code, message, new BsonDocument(), index)), null, new ServerAddress(), Set.of()));
+	}
+
+	private static CreateExpenseRequest request(String userId, String amount, String description) {
+		return new CreateExpenseRequest(userId, "category-1", new BigDecimal(amount), description,
+				Expense.PaymentMethod.CASH, LocalDate.of(2024, 3, 1));
+	}
+
+	private static User user(String id) {
+		User user = new User("juan.perez", "juan.perez@email.com", "Juan Pérez", BigDecimal.valueOf(5000));
+		user.setId(id);
+		return user;
+	}
+
+}
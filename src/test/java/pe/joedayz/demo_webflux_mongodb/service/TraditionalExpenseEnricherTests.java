@@ -0,0 +1,124 @@
+package pe.joedayz.demo_webflux_mongodb.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pe.joedayz.demo_webflux_mongodb.cache.TraditionalReferenceDataCache;
+import pe.joedayz.demo_webflux_mongodb.dto.CategoryNameView;
+import pe.joedayz.demo_webflux_mongodb.dto.ExpenseResponse;
+import pe.joedayz.demo_webflux_mongodb.dto.UserNameView;
+import pe.joedayz.demo_webflux_mongodb.model.Expense;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalCategoryRepository;
+import pe.joedayz.demo_webflux_mongodb.repository.TraditionalUserRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class TraditionalExpenseEnricherTests {
+
+	private TraditionalUserRepository userRepository;
+
+	private TraditionalCategoryRepository categoryRepository;
+
+	private TraditionalReferenceDataCache referenceDataCache;
+
+	private TraditionalExpenseEnricher enricher;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(TraditionalUserRepository.class);
+		categoryRepository = mock(TraditionalCategoryRepository.class);
+		referenceDataCache = new TraditionalReferenceDataCache(userRepository, categoryRepository,
+				new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+		enricher = new TraditionalExpenseEnricher(referenceDataCache, 100);
+
+		when(userRepository.findNamesByIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(0);
+			return ids.stream().map(TraditionalExpenseEnricherTests::user).toList();
+		});
+		when(categoryRepository.findNamesByIdIn(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> ids = invocation.getArgument(0);
+			return ids.stream().map(TraditionalExpenseEnricherTests::category).toList();
+		});
+	}
+
+	@Test
+	void enrichAllLoadsReferenceDataOncePerCollection() {
+		List<Expense> expenses = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			expenses.add(expense(i));
+		}
+
+		List<ExpenseResponse> responses = enricher.enrichAll(expenses);
+
+		assertThat(responses).hasSize(250);
+		assertThat(responses).extracting(ExpenseResponse::getId)
+				.containsExactlyElementsOf(expenses.stream().map(Expense::getId).toList());
+		assertThat(responses.get(7).getUserName()).isEqualTo("Usuario u2");
+		assertThat(responses.get(7).getCategoryName()).isEqualTo("Categoría c3");
+
+		// 250 gastos en lotes de 100: la primera carga la caché con una consulta $in
+		// por colección y las siguientes se resuelven en memoria, en lugar de 500 findById
+		verify(userRepository, times(1)).findNamesByIdIn(anyCollection());
+		verify(categoryRepository, times(1)).findNamesByIdIn(anyCollection());
+		verifyNoMoreInteractions(userRepository, categoryRepository);
+	}
+
+	@Test
+	void enrichFailsWhenCategoryIsMissing() {
+		Expense orphan = expense(0);
+		orphan.setCategoryId(null);
+
+		assertThatThrownBy(() -> enricher.enrich(orphan))
+				.hasMessage("Error al enriquecer respuesta del gasto");
+	}
+
+	private static Expense expense(int i) {
+		Expense expense = new Expense("u" + (i % 5), "c" + (i % 4), BigDecimal.TEN,
+				"Gasto " + i, Expense.PaymentMethod.CASH, LocalDate.of(2024, 1, 1));
+		expense.setId("e" + i);
+		return expense;
+	}
+
+	private static UserNameView user(String id) {
+		return new UserNameView() {
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getFullName() {
+				return "Usuario " + id;
+			}
+		};
+	}
+
+	private static CategoryNameView category(String id) {
+		return new CategoryNameView() {
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return "Categoría " + id;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,62 @@
+package pe.joedayz.demo_webflux_mongodb.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimulationProfileTests {
+
+	@Test
+	void bindsStagesFromProperties() {
+		SimulationProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+				"app.simulation.mode", "distribution",
+				"app.simulation.stages.credit-card-payment.latency", "300ms",
+				"app.simulation.stages.credit-card-payment.p99", "2s",
+				"app.simulation.stages.credit-card-payment.error-rate", "0.1")))
+				.bindOrCreate("app.simulation", SimulationProperties.class);
+
+		SimulationProfile profile = new SimulationProfile(properties);
+
+		assertThat(profile.getMode()).isEqualTo(SimulationMode.DISTRIBUTION);
+		StageLatency creditCard = profile.getStages().get(SimulationStage.CREDIT_CARD_PAYMENT);
+		assertThat(creditCard.getLatency()).isEqualTo(Duration.ofMillis(300));
+		assertThat(creditCard.getP99()).isEqualTo(Duration.ofSeconds(2));
+		assertThat(creditCard.getErrorRate()).isEqualTo(0.1);
+	}
+
+	@Test
+	void offModeSkipsLatencyAndErrors() {
+		SimulationProfile profile = new SimulationProfile(new SimulationProperties());
+		profile.updateStage(SimulationStage.CASH_PAYMENT, Duration.ofMillis(50), null, 1.0);
+		assertThat(profile.isActive(SimulationStage.CASH_PAYMENT)).isTrue();
+		assertThat(profile.nextFailure(SimulationStage.CASH_PAYMENT)).isTrue();
+
+		profile.setMode(SimulationMode.OFF);
+
+		assertThat(profile.isActive(SimulationStage.CASH_PAYMENT)).isFalse();
+		assertThat(profile.nextLatency(SimulationStage.CASH_PAYMENT)).isZero();
+		assertThat(profile.nextFailure(SimulationStage.CASH_PAYMENT)).isFalse();
+	}
+
+	@Test
+	void distributionModeCentersOnTheMedianWithATail() {
+		SimulationProfile profile = new SimulationProfile(new SimulationProperties());
+		profile.setMode(SimulationMode.DISTRIBUTION);
+		profile.updateStage(SimulationStage.NOTIFICATION_DELIVERY, Duration.ofMillis(100), Duration.ofMillis(1000), null);
+
+		long[] samples = IntStream.range(0, 20_000)
+				.mapToLong(i -> profile.nextLatency(SimulationStage.NOTIFICATION_DELIVERY).toMillis())
+				.sorted()
+				.toArray();
+
+		assertThat(samples[samples.length / 2]).isBetween(90L, 110L);
+		assertThat(samples[(int) (samples.length * 0.99)]).isBetween(800L, 1250L);
+	}
+
+}
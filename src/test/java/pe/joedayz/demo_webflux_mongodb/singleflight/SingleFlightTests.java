@@ -0,0 +1,216 @@
+package pe.joedayz.demo_webflux_mongodb.singleflight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void reactiveCallersShareTheInFlightQuery() {
+		ReactiveSingleFlight singleFlight = new ReactiveSingleFlight(new SingleFlightProperties(), meterRegistry);
+		AtomicInteger subscriptions = new AtomicInteger();
+		Sinks.One<String> result = Sinks.one();
+
+		List<Mono<String>> callers = List.of(
+				query(singleFlight, subscriptions, result),
+				query(singleFlight, subscriptions, result),
+				query(singleFlight, subscriptions, result));
+
+		StepVerifier.create(Mono.zip(callers.get(0), callers.get(1), callers.get(2)))
+				.then(() -> result.tryEmitValue("u1"))
+				.assertNext(values -> assertThat(List.of(values.getT1(), values.getT2(), values.getT3()))
+						.containsOnly("u1"))
+				.verifyComplete();
+
+		assertThat(subscriptions).hasValue(1);
+		assertThat(count("reactive", "leader")).isEqualTo(1);
+		assertThat(count("reactive", "coalesced")).isEqualTo(2);
+
+		// Terminada la consulta, la siguiente petición vuelve a MongoDB
+		StepVerifier.create(query(singleFlight, subscriptions, result)).expectNext("u1").verifyComplete();
+		assertThat(subscriptions).hasValue(2);
+	}
+
+	@Test
+	void reactiveQueryIsCancelledOnlyWhenEveryCallerCancels() {
+		ReactiveSingleFlight singleFlight = new ReactiveSingleFlight(new SingleFlightProperties(), meterRegistry);
+		AtomicInteger subscriptions = new AtomicInteger();
+		AtomicInteger cancellations = new AtomicInteger();
+		Sinks.One<String> result = Sinks.one();
+
+		Disposable first = cancellable(singleFlight, subscriptions, cancellations, result).subscribe();
+		Disposable second = cancellable(singleFlight, subscriptions, cancellations, result).subscribe();
+		first.dispose();
+		assertThat(cancellations).hasValue(0);
+		second.dispose();
+		assertThat(cancellations).hasValue(1);
+
+		// La consulta cancelada ya no se comparte: la siguiente petición lanza otra
+		StepVerifier.create(cancellable(singleFlight, subscriptions, cancellations, result))
+				.then(() -> result.tryEmitValue("u1"))
+				.expectNext("u1")
+				.verifyComplete();
+		assertThat(subscriptions).hasValue(2);
+	}
+
+	@Test
+	void reactiveOperationsOutsideTheConfiguredSetAreNotCoalesced() {
+		SingleFlightProperties properties = new SingleFlightProperties();
+		properties.setOperations(Set.of(SingleFlightProperties.USER_TOTAL));
+		ReactiveSingleFlight singleFlight = new ReactiveSingleFlight(properties, meterRegistry);
+		AtomicInteger subscriptions = new AtomicInteger();
+		Sinks.One<String> result = Sinks.one();
+
+		StepVerifier.create(Mono.zip(query(singleFlight, subscriptions, result), query(singleFlight, subscriptions, result)))
+				.then(() -> result.tryEmitValue("u1"))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(subscriptions).hasValue(2);
+	}
+
+	@Test
+	void traditionalThreadsWaitForTheLeaderResult() throws Exception {
+		SingleFlightProperties properties = new SingleFlightProperties();
+		properties.setMaxWindow(Duration.ofSeconds(10));
+		TraditionalSingleFlight singleFlight = new TraditionalSingleFlight(properties, meterRegistry);
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int threads = 8;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<String> leader = executor.submit(() -> singleFlight.execute(SingleFlightProperties.USER_TOTAL, "u1", () -> {
+				executions.incrementAndGet();
+				await(release);
+				return "100";
+			}));
+			while (executions.get() == 0) {
+				Thread.onSpinWait();
+			}
+			List<Future<String>> followers = IntStream.range(1, threads)
+					.mapToObj(i -> executor.submit(() -> singleFlight.execute(SingleFlightProperties.USER_TOTAL, "u1", () -> {
+						executions.incrementAndGet();
+						return "otro";
+					})))
+					.toList();
+			while (count("traditional", "coalesced") < threads - 1) {
+				Thread.onSpinWait();
+			}
+			release.countDown();
+
+			assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("100");
+			for (Future<String> follower : followers) {
+				assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("100");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(executions).hasValue(1);
+		assertThat(count("traditional", "leader")).isEqualTo(1);
+	}
+
+	@Test
+	void traditionalFlightOlderThanTheWindowStartsANewQuery() throws Exception {
+		SingleFlightProperties properties = new SingleFlightProperties();
+		properties.setMaxWindow(Duration.ZERO);
+		TraditionalSingleFlight singleFlight = new TraditionalSingleFlight(properties, meterRegistry);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> slow = executor.submit(() -> singleFlight.execute(SingleFlightProperties.USER_BY_ID, "u1", () -> {
+				await(release);
+				return "antiguo";
+			}));
+			while (count("traditional", "leader") == 0) {
+				Thread.onSpinWait();
+			}
+			Thread.sleep(1);
+
+			assertThat(singleFlight.execute(SingleFlightProperties.USER_BY_ID, "u1", () -> "nuevo")).isEqualTo("nuevo");
+			release.countDown();
+			assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("antiguo");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void traditionalFollowersSeeAnErrorThrownByTheLeader() throws Exception {
+		SingleFlightProperties properties = new SingleFlightProperties();
+		properties.setMaxWindow(Duration.ofSeconds(10));
+		TraditionalSingleFlight singleFlight = new TraditionalSingleFlight(properties, meterRegistry);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = executor.submit(() -> singleFlight.execute(SingleFlightProperties.USER_TOTAL, "u1", () -> {
+				await(release);
+				throw new OutOfMemoryError("Sin memoria");
+			}));
+			while (count("traditional", "leader") == 0) {
+				Thread.onSpinWait();
+			}
+			Future<String> follower = executor.submit(() -> singleFlight.execute(SingleFlightProperties.USER_TOTAL, "u1", () -> "otro"));
+			while (count("traditional", "coalesced") == 0) {
+				Thread.onSpinWait();
+			}
+			release.countDown();
+
+			assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+			assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(OutOfMemoryError.class);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Mono<String> query(ReactiveSingleFlight singleFlight, AtomicInteger subscriptions, Sinks.One<String> result) {
+		return singleFlight.execute(SingleFlightProperties.USER_BY_ID, "u1",
+				() -> result.asMono().doOnSubscribe(subscription -> subscriptions.incrementAndGet()));
+	}
+
+	private static Mono<String> cancellable(ReactiveSingleFlight singleFlight, AtomicInteger subscriptions,
+			AtomicInteger cancellations, Sinks.One<String> result) {
+		return singleFlight.execute(SingleFlightProperties.USER_BY_ID, "u1", () -> result.asMono()
+				.doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+				.doOnCancel(cancellations::incrementAndGet));
+	}
+
+	private double count(String stack, String role) {
+		var counter = meterRegistry.find("single.flight.requests").tag("stack", stack).tag("role", role).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}